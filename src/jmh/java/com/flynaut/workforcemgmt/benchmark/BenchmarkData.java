@@ -0,0 +1,72 @@
+package com.flynaut.workforcemgmt.benchmark;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic task data shared by the benchmarks: tasks are spread round-robin over {@link #ASSIGNEES}
+ * assignees and three tasks share each reference, with deadlines spread over {@link #DEADLINE_SPREAD_DAYS} days.
+ */
+final class BenchmarkData {
+
+    static final int ASSIGNEES = 1_000;
+    static final long FIRST_REFERENCE_ID = 1_000_000L;
+    static final long BASE_DEADLINE = 1_700_000_000_000L;
+    static final int DEADLINE_SPREAD_DAYS = 30;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkData() {
+    }
+
+
+    static void fill(TaskRepository repository, int taskCount) {
+        for (int start = 0; start < taskCount; start += BATCH_SIZE) {
+            List<TaskManagement> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(taskCount, start + BATCH_SIZE); i++) {
+                batch.add(task(i));
+            }
+            repository.saveAll(batch);
+        }
+    }
+
+
+    static List<TaskManagement> tasks(int count) {
+        List<TaskManagement> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(i).toBuilder().id((long) i + 1).version(1).build());
+        }
+        return tasks;
+    }
+
+
+    static List<Long> assignees(int fanOut) {
+        List<Long> assigneeIds = new ArrayList<>(fanOut);
+        for (long i = 0; i < fanOut; i++) {
+            assigneeIds.add(i * (ASSIGNEES / fanOut));
+        }
+        return assigneeIds;
+    }
+
+
+    static TaskManagement task(int i) {
+        return TaskManagement.builder()
+                .referenceId(FIRST_REFERENCE_ID + i / 3)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.values()[i % Task.values().length])
+                .assigneeId((long) (i % ASSIGNEES))
+                .status(i % 5 == 0 ? TaskStatus.COMPLETED : TaskStatus.ASSIGNED)
+                .priority(Priority.values()[i % Priority.values().length])
+                .description("New task created.")
+                .taskDeadlineTime(BASE_DEADLINE + (i * 7_919L) % TimeUnit.DAYS.toMillis(DEADLINE_SPREAD_DAYS))
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.flynaut.workforcemgmt.benchmark;
+
+import com.flynaut.workforcemgmt.dto.AssignByReferenceRequest;
+import com.flynaut.workforcemgmt.dto.AssignByReferenceResultDto;
+import com.flynaut.workforcemgmt.dto.BulkAssignByReferenceRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reassigns a batch of distinct references, once through sequential assign-by-ref calls and once through one bulk
+ * request; both are scored per reference, so the ratio of the two throughputs is the speedup of the bulk path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkAssignBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "100000"})
+    public int taskCount;
+
+    private TaskManagementServiceImpl service;
+    private BulkAssignByReferenceRequest batch;
+
+
+    @Setup
+    public void setUp() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository();
+        BenchmarkData.fill(repository, taskCount);
+        service = new TaskManagementServiceImpl(repository, new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+        List<AssignByReferenceRequest> items = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            AssignByReferenceRequest request = new AssignByReferenceRequest();
+            request.setReferenceId(BenchmarkData.FIRST_REFERENCE_ID + i);
+            request.setReferenceType(ReferenceType.ORDER);
+            request.setAssigneeId((long) (i % BenchmarkData.ASSIGNEES));
+            items.add(request);
+        }
+        batch = new BulkAssignByReferenceRequest();
+        batch.setRequests(items);
+    }
+
+
+    @TearDown
+    public void tearDown() {
+        service.stop();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sequential(Blackhole blackhole) {
+        for (AssignByReferenceRequest request : batch.getRequests()) {
+            blackhole.consume(service.assignByReference(request));
+        }
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<AssignByReferenceResultDto> bulk() {
+        return service.assignByReferenceBulk(batch);
+    }
+}
@@ -0,0 +1,126 @@
+package com.flynaut.workforcemgmt.benchmark;
+
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InMemoryTaskRepository} lookups and saves against stores of different sizes. The {@code contended*}
+ * benchmarks run writers and readers of the same store side by side to show lock and index contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private InMemoryTaskRepository repository;
+
+
+    @Setup
+    public void setUp() {
+        repository = new InMemoryTaskRepository();
+        BenchmarkData.fill(repository, taskCount);
+    }
+
+
+    /**
+     * Number of assignees per query; a separate state so that only the assignee benchmark is multiplied by it.
+     */
+    @State(Scope.Benchmark)
+    public static class AssigneeQuery {
+
+        @Param({"1", "10", "100"})
+        public int assigneeFanOut;
+
+        private List<Long> assigneeIds;
+
+        @Setup
+        public void setUp() {
+            assigneeIds = BenchmarkData.assignees(assigneeFanOut);
+        }
+    }
+
+
+    @Benchmark
+    public TaskManagement save() {
+        TaskManagement task = repository.findById(randomId()).orElseThrow();
+        try {
+            return repository.save(task.withStatus(task.getStatus() == TaskStatus.ASSIGNED ? TaskStatus.STARTED : TaskStatus.ASSIGNED));
+        } catch (ConflictException e) {
+            // Under contention another thread may have saved the same task since it was read
+            return task;
+        }
+    }
+
+
+    @Benchmark
+    public Optional<TaskManagement> findById() {
+        return repository.findById(randomId());
+    }
+
+
+    @Benchmark
+    public List<TaskManagement> findByAssigneeIdIn(AssigneeQuery query) {
+        return repository.findByAssigneeIdIn(query.assigneeIds);
+    }
+
+
+    @Benchmark
+    public List<TaskManagement> findByReferenceIdAndReferenceType() {
+        return repository.findByReferenceIdAndReferenceType(randomReferenceId(), ReferenceType.ORDER);
+    }
+
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public TaskManagement contendedSave() {
+        return save();
+    }
+
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Optional<TaskManagement> contendedRead() {
+        return findById();
+    }
+
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public TaskManagement contendedWrite() {
+        return save();
+    }
+
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, taskCount + 1);
+    }
+
+
+    private long randomReferenceId() {
+        return BenchmarkData.FIRST_REFERENCE_ID + ThreadLocalRandom.current().nextInt(Math.max(1, taskCount / 3));
+    }
+}
@@ -0,0 +1,96 @@
+package com.flynaut.workforcemgmt.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.format.WireFormat;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapper;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping tasks to DTOs, and writing and reading the response body the way the controller and its clients do, in
+ * each wire format. The encoded size of each format is printed once per trial. Add the gc profiler
+ * ({@code -PjmhProfilers=gc}) to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000", "100000"})
+    public int listSize;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    private final ITaskManagementMapper mapper = new ITaskManagementMapperImpl();
+    private final TypeReference<Response<List<TaskManagementDto>>> responseType = new TypeReference<>() {
+    };
+    private ObjectMapper objectMapper;
+    private List<TaskManagement> tasks;
+    private Response<List<TaskManagementDto>> response;
+    private byte[] body;
+
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        tasks = BenchmarkData.tasks(listSize);
+        response = new Response<>(mapper.modelListToDtoList(tasks));
+        // Same defaults as the ObjectMapper Spring MVC uses
+        objectMapper = format.mapperFrom(Jackson2ObjectMapperBuilder.json().build());
+        body = serializeResponse();
+        System.out.printf("%n%d tasks as %s: %d bytes%n", listSize, format, body.length);
+    }
+
+
+    @Benchmark
+    public List<TaskManagementDto> modelListToDtoList() {
+        return mapper.modelListToDtoList(tasks);
+    }
+
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+
+    /**
+     * A list read before snapshots were written directly: copy into DTOs, then let Jackson introspect them.
+     */
+    @Benchmark
+    public byte[] mapAndSerializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new Response<>(mapper.modelListToDtoList(tasks)));
+    }
+
+
+    /**
+     * A list read now: the snapshots go straight to the generator, producing the same bytes.
+     */
+    @Benchmark
+    public byte[] serializeSnapshots() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new Response<>(tasks));
+    }
+
+
+    @Benchmark
+    public Response<List<TaskManagementDto>> deserializeResponse() throws IOException {
+        return objectMapper.readValue(body, responseType);
+    }
+}
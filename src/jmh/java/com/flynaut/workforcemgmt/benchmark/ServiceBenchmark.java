@@ -0,0 +1,129 @@
+package com.flynaut.workforcemgmt.benchmark;
+
+import com.flynaut.workforcemgmt.dto.AssignByReferenceRequest;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service operations on top of the in-memory repositories, without the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+    private static final long HISTORY_TASK_ID = 1L;
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private TaskManagementServiceImpl service;
+
+
+    @Setup
+    public void setUp() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository();
+        BenchmarkData.fill(repository, taskCount);
+        service = new TaskManagementServiceImpl(repository, new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+    }
+
+
+    /**
+     * Assignees per date query; a separate state so that only the date query is multiplied by it.
+     */
+    @State(Scope.Benchmark)
+    public static class DateQuery {
+
+        @Param({"1", "10", "100"})
+        public int assigneeFanOut;
+
+        private TaskFetchByDateRequest request;
+
+        @Setup
+        public void setUp() {
+            request = new TaskFetchByDateRequest();
+            request.setAssigneeIds(BenchmarkData.assignees(assigneeFanOut));
+            request.setStartDate(BenchmarkData.BASE_DEADLINE + TimeUnit.DAYS.toMillis(10));
+            request.setEndDate(BenchmarkData.BASE_DEADLINE + TimeUnit.DAYS.toMillis(12));
+        }
+    }
+
+
+    /**
+     * A single task with a long history; it does not depend on the size of the task store.
+     */
+    @State(Scope.Benchmark)
+    public static class History {
+
+        @Param({"100", "10000"})
+        public int historyLength;
+
+        private TaskManagementServiceImpl service;
+
+        @Setup
+        public void setUp() {
+            service = new TaskManagementServiceImpl(new InMemoryTaskRepository(), new InMemoryTaskHistoryRepository(),
+                    new ITaskManagementMapperImpl());
+            for (int i = 0; i < historyLength; i++) {
+                CommentDto comment = new CommentDto();
+                comment.setComment("comment " + i);
+                service.addComment(HISTORY_TASK_ID, comment);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public PagedResult<TaskManagement> fetchTasksByDate(DateQuery query) {
+        return service.fetchTasksByDate(query.request);
+    }
+
+
+    @Benchmark
+    public String assignByReference() {
+        return service.assignByReference(randomAssignment());
+    }
+
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String contendedAssignByReference() {
+        return service.assignByReference(randomAssignment());
+    }
+
+
+    @Benchmark
+    public PagedResult<Object> getTaskHistory(History history) {
+        return history.service.getTaskHistory(HISTORY_TASK_ID, null, null, null);
+    }
+
+
+    private AssignByReferenceRequest randomAssignment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AssignByReferenceRequest request = new AssignByReferenceRequest();
+        // A small reference range makes concurrent calls collide on the same reference locks
+        request.setReferenceId(BenchmarkData.FIRST_REFERENCE_ID + random.nextInt(64));
+        request.setReferenceType(ReferenceType.ORDER);
+        request.setAssigneeId((long) random.nextInt(BenchmarkData.ASSIGNEES));
+        return request;
+    }
+}
@@ -0,0 +1,83 @@
+package com.flynaut.workforcemgmt.benchmark;
+
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.repository.ShardedRepositoryProperties;
+import com.flynaut.workforcemgmt.repository.ShardedTaskRepository;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed workload against the shared-map store and the sharded single-writer store: 10% creates, 30% updates
+ * (read, then save) and 60% reads by id. Run it once per thread count, e.g. {@code -PjmhThreads=1} up to
+ * {@code -PjmhThreads=32}, to get the scaling curve; the sharded store uses one shard per available processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ShardedRepositoryBenchmark {
+
+    @Param({"in-memory", "sharded"})
+    public String store;
+
+    @Param({"100000"})
+    public int taskCount;
+
+    private TaskRepository repository;
+    private long[] ids;
+
+
+    @Setup
+    public void setUp() {
+        repository = store.equals("sharded")
+                ? new ShardedTaskRepository(new ShardedRepositoryProperties())
+                : new InMemoryTaskRepository();
+        // Sharded ids are not dense, so the ids handed out are kept
+        List<TaskManagement> saved = repository.saveAll(BenchmarkData.tasks(taskCount).stream()
+                .map(task -> task.toBuilder().id(null).version(0).build())
+                .toList());
+        ids = saved.stream().mapToLong(TaskManagement::getId).toArray();
+    }
+
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (repository instanceof ShardedTaskRepository sharded) {
+            sharded.stop();
+        }
+    }
+
+
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = random.nextInt(10);
+        if (operation == 0) {
+            return repository.save(BenchmarkData.task(random.nextInt(taskCount)));
+        }
+        TaskManagement task = repository.findById(ids[random.nextInt(ids.length)]).orElseThrow();
+        if (operation > 3) {
+            return task;
+        }
+        try {
+            return repository.save(task.withStatus(task.getStatus() == TaskStatus.ASSIGNED ? TaskStatus.STARTED : TaskStatus.ASSIGNED));
+        } catch (ConflictException e) {
+            // Another thread saved the same task since it was read
+            return task;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.flynaut.workforcemgmt.common.concurrent;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by hash: equal keys always map to the same lock, while unrelated keys
+ * usually map to different ones and proceed in parallel. Memory stays bounded however many keys exist.
+ */
+public final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    public StripedLock(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock lockFor(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        // Spread the high bits so keys differing only there still land on different stripes
+        hash ^= hash >>> 16;
+        return stripes[hash & mask];
+    }
+}
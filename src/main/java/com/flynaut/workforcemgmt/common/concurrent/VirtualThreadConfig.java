@@ -0,0 +1,37 @@
+package com.flynaut.workforcemgmt.common.concurrent;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling on virtual threads when {@code task-mgmt.execution.mode=virtual}: Tomcat hands every
+ * request to a new virtual thread instead of its bounded worker pool, and the application task executor, which
+ * runs async MVC work such as the NDJSON export, does the same.
+ * <p>
+ * Code on the request path must not block while holding a monitor, or the virtual thread pins its carrier:
+ * locks that may be held across I/O (repository row locks, the WAL, history appends) are ReentrantLocks.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "task-mgmt.execution", name = "mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-vt-", 0).factory()));
+    }
+}
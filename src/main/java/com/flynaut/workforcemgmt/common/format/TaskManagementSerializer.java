@@ -0,0 +1,100 @@
+package com.flynaut.workforcemgmt.common.format;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+
+import java.io.IOException;
+
+/**
+ * Writes a task snapshot straight to the generator, in exactly the form Jackson gives its
+ * {@link com.flynaut.workforcemgmt.dto.TaskManagementDto}: same snake_case names in the same order, enums by name,
+ * nulls included. List reads hand their snapshots to Jackson as they are, so a task is neither copied into a DTO
+ * nor introspected per write.
+ * <p>
+ * Field names and enum values are encoded once; the generator copies their bytes, for JSON as well as Smile and
+ * CBOR. A field added to the DTO has to be added here too, which the wire equivalence test catches.
+ */
+public class TaskManagementSerializer extends StdSerializer<TaskManagement> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString REFERENCE_ID = new SerializedString("reference_id");
+    private static final SerializedString REFERENCE_TYPE = new SerializedString("reference_type");
+    private static final SerializedString TASK = new SerializedString("task");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ASSIGNEE_ID = new SerializedString("assignee_id");
+    private static final SerializedString TASK_DEADLINE_TIME = new SerializedString("task_deadline_time");
+    private static final SerializedString PRIORITY = new SerializedString("priority");
+    private static final SerializedString OVERDUE = new SerializedString("overdue");
+
+    // Indexed by ordinal
+    private static final SerializedString[] REFERENCE_TYPES = names(ReferenceType.values());
+    private static final SerializedString[] TASKS = names(Task.values());
+    private static final SerializedString[] STATUSES = names(TaskStatus.values());
+    private static final SerializedString[] PRIORITIES = names(Priority.values());
+
+
+    public TaskManagementSerializer() {
+        super(TaskManagement.class);
+    }
+
+
+    @Override
+    public void serialize(TaskManagement task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(task);
+        writeNumber(generator, ID, task.getId());
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(task.getVersion());
+        writeNumber(generator, REFERENCE_ID, task.getReferenceId());
+        writeEnum(generator, REFERENCE_TYPE, REFERENCE_TYPES, task.getReferenceType());
+        writeEnum(generator, TASK, TASKS, task.getTask());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(task.getDescription());
+        writeEnum(generator, STATUS, STATUSES, task.getStatus());
+        writeNumber(generator, ASSIGNEE_ID, task.getAssigneeId());
+        writeNumber(generator, TASK_DEADLINE_TIME, task.getTaskDeadlineTime());
+        writeEnum(generator, PRIORITY, PRIORITIES, task.getPriority());
+        generator.writeFieldName(OVERDUE);
+        generator.writeBoolean(task.isOverdue());
+        generator.writeEndObject();
+    }
+
+
+    private static void writeNumber(JsonGenerator generator, SerializableString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+
+    private static void writeEnum(JsonGenerator generator, SerializableString name, SerializedString[] values,
+                                  Enum<?> value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(values[value.ordinal()]);
+        }
+    }
+
+
+    private static SerializedString[] names(Enum<?>[] constants) {
+        SerializedString[] names = new SerializedString[constants.length];
+        for (Enum<?> constant : constants) {
+            names[constant.ordinal()] = new SerializedString(constant.name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,29 @@
+package com.flynaut.workforcemgmt.common.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile and CBOR bodies alongside JSON, chosen by the Accept and Content-Type headers.
+ * <p>
+ * Spring MVC registers these converters by itself once the formats are on the classpath, but with mappers of its
+ * own. Converter beans are placed ahead of the defaults of the same type, which still come after the JSON
+ * converter, so JSON stays the default while these share the settings of the application's ObjectMapper.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapperFrom(objectMapper));
+    }
+
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapperFrom(objectMapper));
+    }
+}
@@ -0,0 +1,53 @@
+package com.flynaut.workforcemgmt.common.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of values as newline-delimited JSON, one value per line.
+ * Values are pulled and serialised one at a time through a single generator, so heap use does not grow
+ * with the number of values. Writes block while the client is slow to read, which throttles the producer.
+ */
+@Component
+public class NdjsonWriter {
+
+    // Flush often enough that clients see progress, rarely enough that syscalls do not dominate
+    private static final int FLUSH_EVERY = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter valueWriter;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @return the number of values written
+     */
+    public long write(Stream<?> values, OutputStream out) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            Iterator<?> it = values.iterator();
+            while (it.hasNext()) {
+                valueWriter.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            values.close();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,28 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.flynaut.workforcemgmt.service.feed.TaskChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.List;
+
+@RestController
+@RequestMapping("/task-mgmt")
+public class TaskChangeFeedController {
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    public TaskChangeFeedController(TaskChangeFeed taskChangeFeed) {
+        this.taskChangeFeed = taskChangeFeed;
+    }
+
+    // Push replacement for polling fetch-by-date: one event per change to the assignees' tasks.
+    // Browsers' EventSource resends the last event id on reconnect, which resumes the feed where it stopped.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToChanges(
+            @RequestParam(name = "assignee_ids") List<Long> assigneeIds,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return taskChangeFeed.subscribe(assigneeIds, lastEventId);
+    }
+}
@@ -1,25 +1,48 @@
 package com.flynaut.workforcemgmt.controller;
 
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
 import com.flynaut.workforcemgmt.dto.*;
+import com.flynaut.workforcemgmt.model.TaskManagement;
 import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
 import com.flynaut.workforcemgmt.model.response.Response;
 import com.flynaut.workforcemgmt.service.TaskManagementService;
+import com.flynaut.workforcemgmt.service.cache.ResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/task-mgmt")
 public class TaskManagementController {
 
     private final TaskManagementService taskManagementService;
+    private final NdjsonWriter ndjsonWriter;
+    private final ResponseCache responseCache;
 
-    public TaskManagementController(TaskManagementService taskManagementService) {
+    public TaskManagementController(TaskManagementService taskManagementService, NdjsonWriter ndjsonWriter,
+                                    ResponseCache responseCache) {
         this.taskManagementService = taskManagementService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.responseCache = responseCache;
     }
 
+    // The ETag is the task version, so it can be sent back as If-Match; concurrent identical reads share one render
     @GetMapping("/{id}")
-    public Response<TaskManagementDto> getTaskById(@PathVariable Long id) {
-        return new Response<>(taskManagementService.findTaskById(id));
+    public CompletableFuture<ResponseEntity<byte[]>> getTaskById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return responseCache.serveAsync(ResponseCache.Key.task(id), accept, ifNoneMatch,
+                () -> new Response<>(taskManagementService.findTaskById(id)),
+                response -> eTag(response.getData()));
     }
 
     @PostMapping("/create")
@@ -27,9 +50,25 @@ public class TaskManagementController {
         return new Response<>(taskManagementService.createTasks(request));
     }
 
+    // If-Match applies to a single-task update; batches carry each task's expected version in the body
     @PostMapping("/update")
-    public Response<List<TaskManagementDto>> updateTasks(@RequestBody UpdateTaskRequest request) {
-        return new Response<>(taskManagementService.updateTasks(request));
+    public ResponseEntity<Response<List<TaskManagementDto>>> updateTasks(
+            @RequestBody UpdateTaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Long expectedVersion = parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            if (request.getRequests().size() != 1) {
+                throw new BadRequestException("If-Match is only supported when updating a single task");
+            }
+            request.getRequests().get(0).setVersion(expectedVersion);
+        }
+        List<TaskManagementDto> updated = taskManagementService.updateTasks(request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (updated.size() == 1) {
+            response.eTag(eTag(updated.get(0)));
+        }
+        return response.body(new Response<>(updated));
     }
 
     @PostMapping("/assign-by-ref")
@@ -37,24 +76,41 @@ public class TaskManagementController {
         return new Response<>(taskManagementService.assignByReference(request));
     }
 
+    @PostMapping("/assign-by-ref/bulk")
+    public Response<List<AssignByReferenceResultDto>> assignByReferenceBulk(@RequestBody BulkAssignByReferenceRequest request) {
+        return new Response<>(taskManagementService.assignByReferenceBulk(request));
+    }
+
     @PostMapping("/fetch-by-date/v2")
-    public Response<List<TaskManagementDto>> fetchByDate(@RequestBody TaskFetchByDateRequest request) {
-        return new Response<>(taskManagementService.fetchTasksByDate(request));
+    public Response<List<TaskManagement>> fetchByDate(@RequestBody TaskFetchByDateRequest request) {
+        PagedResult<TaskManagement> page = taskManagementService.fetchTasksByDate(request);
+        return new Response<>(page.getItems(), page.getPagination());
     }
 
     // ✅ Update Task Priority
     @PutMapping("/{taskId}/priority")
-    public Response<TaskManagementDto> updatePriority(
+    public ResponseEntity<Response<TaskManagementDto>> updatePriority(
             @PathVariable Long taskId,
-            @RequestBody UpdatePriorityRequest request
+            @RequestBody UpdatePriorityRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return new Response<>(taskManagementService.updatePriority(taskId, request.getPriority()));
+        TaskManagementDto task = taskManagementService.updatePriority(taskId, request.getPriority(), parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(task)).body(new Response<>(task));
     }
 
     // ✅ Fetch All Tasks by Priority
     @GetMapping("/priority/{priority}")
-    public Response<List<TaskManagementDto>> getTasksByPriority(@PathVariable Priority priority) {
-        return new Response<>(taskManagementService.fetchTasksByPriority(priority));
+    public ResponseEntity<byte[]> getTasksByPriority(
+            @PathVariable Priority priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return responseCache.serve(ResponseCache.Key.priority(priority, cursor, limit), accept, ifNoneMatch, () -> {
+            PagedResult<TaskManagement> page = taskManagementService.fetchTasksByPriority(priority, cursor, limit);
+            return new Response<>(page.getItems(), page.getPagination());
+        });
     }
 
     @PostMapping("/addComment")
@@ -63,8 +119,53 @@ public class TaskManagementController {
         return new Response<>("Comment added successfully.");
     }
 
+    // Concurrent identical reads share one render, completing off the request thread. since is epoch millis and
+    // exclusive: only entries stamped in a later millisecond are returned
     @GetMapping("/{taskId}/history")
-    public Response<List<Object>> getTaskHistory(@PathVariable Long taskId) {
-        return new Response<>(taskManagementService.getTaskHistory(taskId));
+    public CompletableFuture<ResponseEntity<byte[]>> getTaskHistory(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return responseCache.serveAsync(ResponseCache.Key.history(taskId, since, cursor, limit),
+                accept, ifNoneMatch, () -> {
+                    PagedResult<Object> page = taskManagementService.getTaskHistory(taskId, since, cursor, limit);
+                    return new Response<>(page.getItems(), page.getPagination());
+                }, null);
+    }
+
+    // Streams every matching task as NDJSON without building the full list in memory
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(name = "assignee_ids", required = false) List<Long> assigneeIds
+    ) {
+        StreamingResponseBody body = out -> ndjsonWriter.write(
+                taskManagementService.streamTasks(priority, status, assigneeIds), out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static String eTag(TaskManagementDto task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    // The task version in quotes, as sent in our ETags; "*" or no header means any version
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new BadRequestException("If-Match must be a single ETag returned by this API");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match must be a single ETag returned by this API");
+        }
     }
-}
\ No newline at end of file
+}
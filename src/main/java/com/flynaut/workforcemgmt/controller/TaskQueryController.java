@@ -0,0 +1,26 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.flynaut.workforcemgmt.dto.TaskQueryRequest;
+import com.flynaut.workforcemgmt.dto.TaskQueryResultDto;
+import com.flynaut.workforcemgmt.model.response.Response;
+import com.flynaut.workforcemgmt.service.query.TaskQueryService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/task-mgmt")
+public class TaskQueryController {
+
+    private final TaskQueryService taskQueryService;
+
+    public TaskQueryController(TaskQueryService taskQueryService) {
+        this.taskQueryService = taskQueryService;
+    }
+
+    // Any combination of filters, paged in task id order; "explain": true adds the plan the query ran with
+    @PostMapping("/query")
+    public Response<TaskQueryResultDto> query(@RequestBody TaskQueryRequest request) {
+        TaskQueryService.Result result = taskQueryService.query(request);
+        return new Response<>(new TaskQueryResultDto(result.page().getItems(), result.plan()),
+                result.page().getPagination());
+    }
+}
@@ -0,0 +1,26 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.flynaut.workforcemgmt.dto.TaskStatisticsDto;
+import com.flynaut.workforcemgmt.model.response.Response;
+import com.flynaut.workforcemgmt.service.stats.TaskStatistics;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/task-mgmt")
+public class TaskStatisticsController {
+
+    private final TaskStatistics taskStatistics;
+
+    public TaskStatisticsController(TaskStatistics taskStatistics) {
+        this.taskStatistics = taskStatistics;
+    }
+
+    // Workload counts for dashboards, maintained on every change instead of counted from task lists
+    @GetMapping("/stats")
+    public Response<TaskStatisticsDto> getStatistics(
+            @RequestParam(name = "assignee_ids", required = false) List<Long> assigneeIds
+    ) {
+        return new Response<>(taskStatistics.snapshot(assigneeIds));
+    }
+}
@@ -0,0 +1,30 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.flynaut.workforcemgmt.dto.TransferRequest;
+import com.flynaut.workforcemgmt.dto.TransferResultDto;
+import com.flynaut.workforcemgmt.model.response.Response;
+import com.flynaut.workforcemgmt.service.transfer.TaskTransferService;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/task-mgmt/admin")
+public class TaskTransferController {
+
+    private final TaskTransferService taskTransferService;
+
+    public TaskTransferController(TaskTransferService taskTransferService) {
+        this.taskTransferService = taskTransferService;
+    }
+
+    // Files are named relative to the transfer directory; the format follows the extension unless given
+    @PostMapping("/import")
+    public Response<TransferResultDto> importTasks(@RequestBody TransferRequest request) throws IOException {
+        return new Response<>(taskTransferService.importTasks(request));
+    }
+
+    @PostMapping("/export")
+    public Response<TransferResultDto> exportTasks(@RequestBody TransferRequest request) throws IOException {
+        return new Response<>(taskTransferService.exportTasks(request));
+    }
+}
@@ -0,0 +1,21 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a bulk assign-by-reference request, in the position of that item.
+ */
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class AssignByReferenceResultDto {
+    private Long referenceId;
+    private ReferenceType referenceType;
+    private Long assigneeId;
+    private boolean success;
+    private Integer cancelledTasks;
+    private Integer createdTasks;
+    private String error;
+}
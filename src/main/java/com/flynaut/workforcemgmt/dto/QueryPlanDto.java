@@ -0,0 +1,42 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class QueryPlanDto {
+
+    public enum Strategy {
+        INDEX, // Driven by the reference, assignee or deadline index
+        BITMAP, // Driven by the intersection of enum bitmaps
+        SCAN // Every task in id order, as no index narrows the query down enough
+    }
+
+    public enum Step {
+        DRIVE, INTERSECT, RECHECK
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class PredicatePlan {
+        private String predicate;
+        private long estimatedTasks;
+        private Step step;
+    }
+
+    private Strategy strategy;
+    private long totalTasks;
+    private List<PredicatePlan> predicates; // In the order they were applied
+    private Long candidates; // Task ids left after the bitmaps were intersected; null for a scan
+    private long examined; // Tasks fetched and checked to fill the page
+}
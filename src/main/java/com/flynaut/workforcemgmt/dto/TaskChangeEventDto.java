@@ -0,0 +1,19 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.model.enums.TaskChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskChangeEventDto {
+    private String eventId;
+    private TaskChangeType type;
+    private Long previousAssigneeId; // Set when the task moved away from another assignee
+    private TaskManagementDto task;
+}
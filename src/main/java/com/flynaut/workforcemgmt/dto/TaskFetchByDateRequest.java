@@ -11,4 +11,6 @@ public class TaskFetchByDateRequest {
     private Long startDate;
     private Long endDate;
     private List<Long> assigneeIds;
+    private String cursor;
+    private Integer limit;
 }
\ No newline at end of file
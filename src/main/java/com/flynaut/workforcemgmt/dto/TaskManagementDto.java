@@ -12,6 +12,7 @@ import lombok.Data;
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 public class TaskManagementDto {
     private Long id;
+    private Long version;
     private Long referenceId;
     private ReferenceType referenceType;
     private Task task;
@@ -20,4 +21,5 @@ public class TaskManagementDto {
     private Long assigneeId;
     private Long taskDeadlineTime;
     private Priority priority;
+    private Boolean overdue;
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import lombok.Data;
+import java.util.List;
+import java.util.Set;
+
+// Every field is optional; a task matches when it satisfies all the fields given
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskQueryRequest {
+    private Set<TaskStatus> statuses;
+    private Set<Priority> priorities;
+    private Task task;
+    private ReferenceType referenceType;
+    private List<Long> assigneeIds;
+    private Long referenceId;
+    private Long deadlineFrom; // Inclusive
+    private Long deadlineTo; // Exclusive
+    private String cursor;
+    private Integer limit;
+    private boolean explain; // Return the plan the query ran with
+}
@@ -0,0 +1,21 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskQueryResultDto {
+    private List<TaskManagement> tasks;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private QueryPlanDto plan; // Only when explain was requested
+}
@@ -0,0 +1,26 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskStatisticsDto {
+    private long total;
+    private long open; // ASSIGNED or STARTED
+    private long overdue; // Open with a deadline in the past
+    private Map<TaskStatus, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private Map<Task, Long> byTask;
+    private Map<Long, Long> openByAssignee;
+}
@@ -0,0 +1,15 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.service.transfer.TransferFormat;
+import lombok.Data;
+
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TransferRequest {
+    // Relative to the transfer directory
+    private String file;
+    // Taken from the file extension when absent
+    private TransferFormat format;
+}
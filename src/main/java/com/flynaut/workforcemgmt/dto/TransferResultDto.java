@@ -0,0 +1,21 @@
+package com.flynaut.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.flynaut.workforcemgmt.service.transfer.TransferFormat;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TransferResultDto {
+    private String file;
+    private TransferFormat format;
+    // Tasks imported or exported
+    private long records;
+    private long malformed;
+    // The first malformed records, as "line N: reason"
+    private List<String> errors;
+    private long durationMillis;
+}
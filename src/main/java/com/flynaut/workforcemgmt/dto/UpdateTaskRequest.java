@@ -17,5 +17,7 @@ public class UpdateTaskRequest {
         private Long taskId;
         private TaskStatus taskStatus;
         private String description;
+        // Version the client read (its ETag); when set, the update fails with 409 if the task has changed since
+        private Long version;
     }
 }
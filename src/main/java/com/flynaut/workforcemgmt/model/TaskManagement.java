@@ -1,22 +1,36 @@
 package com.flynaut.workforcemgmt.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.flynaut.workforcemgmt.common.format.TaskManagementSerializer;
 import com.flynaut.workforcemgmt.model.enums.ReferenceType;
 import com.flynaut.workforcemgmt.model.enums.Priority;
 import com.flynaut.workforcemgmt.model.enums.Task;
 import com.flynaut.workforcemgmt.model.enums.TaskStatus;
-import lombok.Data;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
 
-@Data
+/**
+ * Immutable snapshot of a task. Changes are made on a copy ({@code withX} or {@code toBuilder()}) and
+ * take effect through the repository's save, which compares {@code version} with the stored snapshot.
+ * A task that was never saved has version 0.
+ * <p>
+ * List responses carry snapshots as they are; on the wire they look exactly like a {@code TaskManagementDto}.
+ */
+@Value
+@With
+@Builder(toBuilder = true)
+@JsonSerialize(using = TaskManagementSerializer.class)
 public class TaskManagement {
-    private Long id;
-    private Long referenceId;
-    private ReferenceType referenceType;
-    private Task task;
-    private String description;
-    private TaskStatus status;
-    private Long assigneeId; // Simplified from Entity for this assignment
-    private Long taskDeadlineTime;
-    private Priority priority;
+    Long id;
+    long version;
+    Long referenceId;
+    ReferenceType referenceType;
+    Task task;
+    String description;
+    TaskStatus status;
+    Long assigneeId; // Simplified from Entity for this assignment
+    Long taskDeadlineTime;
+    Priority priority;
+    boolean overdue; // Set by the deadline engine once the deadline of the open task passed
 }
-
-
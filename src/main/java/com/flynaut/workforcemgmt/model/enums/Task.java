@@ -2,9 +2,11 @@ package com.flynaut.workforcemgmt.model.enums;
 
 import com.flynaut.workforcemgmt.model.enums.ReferenceType;
 import lombok.Getter;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 
 @Getter
@@ -15,6 +17,20 @@ public enum Task {
     COLLECT_PAYMENT(List.of(ReferenceType.ORDER), "Collect Payment");
 
 
+    private static final Map<ReferenceType, List<Task>> TASKS_BY_REFERENCE_TYPE = new EnumMap<>(ReferenceType.class);
+
+    static {
+        for (ReferenceType referenceType : ReferenceType.values()) {
+            List<Task> tasks = new ArrayList<>();
+            for (Task task : values()) {
+                if (task.applicableReferenceTypes.contains(referenceType)) {
+                    tasks.add(task);
+                }
+            }
+            TASKS_BY_REFERENCE_TYPE.put(referenceType, Collections.unmodifiableList(tasks));
+        }
+    }
+
     private final List<ReferenceType> applicableReferenceTypes;
     private final String view;
 
@@ -26,8 +42,9 @@ public enum Task {
 
 
     public static List<Task> getTasksByReferenceType(ReferenceType referenceType) {
-        return Arrays.stream(Task.values())
-                .filter(task -> task.getApplicableReferenceTypes().contains(referenceType))
-                .collect(Collectors.toList());
+        if (referenceType == null) {
+            return List.of();
+        }
+        return TASKS_BY_REFERENCE_TYPE.get(referenceType);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.flynaut.workforcemgmt.model.enums;
+
+import java.util.Locale;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    PRIORITY_CHANGED,
+    REASSIGNED,
+    CANCELLED,
+    OVERDUE, // The deadline passed; the priority may have been raised with it
+    // Not a task change: events may have been missed, so the client should refetch its tasks
+    RESET;
+
+    public String eventName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package com.flynaut.workforcemgmt.model.response;
+
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor: the (sort key, task id) position a page ended at.
+ * Encoded as an opaque URL-safe string so clients cannot depend on its layout.
+ */
+public record PageCursor(long sortKey, long taskId) {
+
+    public String encode() {
+        String raw = sortKey + ":" + taskId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the decoded cursor, or null when no cursor was sent
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            return new PageCursor(Long.parseLong(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid pagination cursor: " + cursor);
+        }
+    }
+}
@@ -2,10 +2,16 @@ package com.flynaut.workforcemgmt.model.response;
 
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 public class Pagination {
-    // Not implemented for this assignment
+    private Integer limit;
+    private Boolean hasMore;
+    private String nextCursor; // Opaque; pass back as "cursor" to fetch the next page
 }
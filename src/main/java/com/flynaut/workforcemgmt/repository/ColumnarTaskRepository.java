@@ -0,0 +1,588 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.common.concurrent.StripedLock;
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import com.flynaut.workforcemgmt.repository.RepositoryMetrics.Operation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Task store laid out as columns instead of one object per task: primitive arrays for the ids, reference ids,
+ * assignee ids and deadlines, one byte per enum ordinal, and descriptions deduplicated through a string pool.
+ * Rows live at {@code id - 1} in fixed-size chunks, so growing the store never copies existing rows.
+ * <p>
+ * Reads return an immutable {@link TaskManagement} built from the row; changes only take effect through save.
+ * A row is guarded by a sequence counter (a seqlock): writers of one id are serialised by a striped lock, and
+ * readers never lock, they retry if a write overlapped. Priority and status filters scan their byte column.
+ * Assignee, reference and deadline lookups go through a {@link TaskIndex}.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "task-mgmt.repository", name = "type", havingValue = "columnar")
+public class ColumnarTaskRepository implements TaskRepository {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int ROW_LOCK_STRIPES = 1024;
+    // Unique descriptions beyond this many are stored as they are instead of being pooled
+    private static final int MAX_POOLED_DESCRIPTIONS = 65_536;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final byte NULL_ORDINAL = -1;
+    private static final Task[] TASKS = Task.values();
+    private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final AtomicLong idCounter = new AtomicLong(0);
+    private final AtomicLong rowCount = new AtomicLong(0);
+    private final TaskIndex taskIndex = TaskIndex.forColumnStore();
+    private final StripedLock rowLocks = new StripedLock(ROW_LOCK_STRIPES);
+    private final ReentrantLock growLock = new ReentrantLock();
+    private final Map<String, String> descriptionPool = new ConcurrentHashMap<>();
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile MutationLog mutationLog = MutationLog.DISABLED;
+    private volatile RepositoryMetrics metrics = RepositoryMetrics.DISABLED;
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+
+    public ColumnarTaskRepository() {
+        // Seed data
+        SeedTasks.create().forEach(this::save);
+    }
+
+
+    @Override
+    public Optional<TaskManagement> findById(Long id) {
+        long start = System.nanoTime();
+        TaskManagement task = read(id);
+        metrics.record(Operation.FIND_BY_ID, start, 1, task == null ? 0 : 1);
+        return Optional.ofNullable(task);
+    }
+
+
+    @Override
+    public TaskManagement save(TaskManagement task) {
+        long start = System.nanoTime();
+        TaskManagement expected = task.getId() == null
+                ? task.toBuilder().id(idCounter.incrementAndGet()).version(0).build()
+                : task;
+        MutationLog log = mutationLog;
+        log.beginMutation();
+        TaskManagement saved;
+        try {
+            saved = compareAndSet(expected, log);
+        } finally {
+            log.endMutation();
+        }
+        metrics.record(Operation.SAVE, start, 0, 1);
+        return saved;
+    }
+
+
+    @Override
+    public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+        long start = System.nanoTime();
+        TaskManagement[] saved = new TaskManagement[tasks.size()];
+        List<TaskManagement> created = new ArrayList<>();
+        int newTasks = 0;
+        for (TaskManagement task : tasks) {
+            if (task.getId() == null) {
+                newTasks++;
+            }
+        }
+        MutationLog log = mutationLog;
+        log.beginMutation();
+        try {
+            if (newTasks > 0) {
+                long nextId = idCounter.getAndAdd(newTasks) + 1;
+                for (int i = 0; i < saved.length; i++) {
+                    if (tasks.get(i).getId() == null) {
+                        saved[i] = tasks.get(i).toBuilder().id(nextId++).version(1).build();
+                        created.add(saved[i]);
+                    }
+                }
+                // Reserved ids are unknown to every other writer, so new rows need neither row locks nor old keys
+                taskIndex.indexNew(created);
+                for (TaskManagement task : created) {
+                    chunkFor(task.getId(), true).write(offset(task.getId()), task, pooled(task.getDescription()));
+                    log.taskSaved(task);
+                    taskChanged(null, task);
+                }
+                rowCount.addAndGet(created.size());
+            }
+            for (int i = 0; i < saved.length; i++) {
+                if (saved[i] == null) {
+                    saved[i] = compareAndSet(tasks.get(i), log);
+                }
+            }
+        } finally {
+            log.endMutation();
+        }
+        metrics.record(Operation.SAVE_ALL, start, 0, tasks.size());
+        return Arrays.asList(saved);
+    }
+
+
+    @Override
+    public void restore(TaskManagement task) {
+        idCounter.accumulateAndGet(task.getId(), Math::max);
+        Lock lock = rowLocks.lockFor(task.getId());
+        lock.lock();
+        try {
+            Chunk chunk = chunkFor(task.getId(), true);
+            int offset = offset(task.getId());
+            writeRow(chunk, offset, chunk.read(offset), task, MutationLog.DISABLED);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    @Override
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+
+    @Override
+    public void setMetrics(RepositoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void addChangeListener(TaskChangeListener changeListener) {
+        changeListeners.add(changeListener);
+    }
+
+
+    @Override
+    public void removeChangeListener(TaskChangeListener changeListener) {
+        changeListeners.remove(changeListener);
+    }
+
+
+    @Override
+    public long count() {
+        return rowCount.get();
+    }
+
+
+    @Override
+    public List<TaskManagement> findAll() {
+        long start = System.nanoTime();
+        Chunk[] current = chunks;
+        List<TaskManagement> tasks = Arrays.stream(current).flatMap(this::rows).collect(Collectors.toList());
+        metrics.record(Operation.FIND_ALL, start, current.length * CHUNK_SIZE, tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public Stream<TaskManagement> streamAll() {
+        return Arrays.stream(chunks).flatMap(this::rows);
+    }
+
+
+    @Override
+    public Stream<TaskManagement> streamByPriority(Priority priority) {
+        byte ordinal = ordinal(priority);
+        return Arrays.stream(chunks).flatMap(chunk -> Arrays.stream(chunk.matching(chunk.priorities, ordinal, 0))
+                .mapToObj(chunk::read)
+                // The scan reads the column without the row sequence, so a match is re-checked on the row itself
+                .filter(task -> task != null && task.getPriority() == priority));
+    }
+
+
+    @Override
+    public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        return resolve(Operation.FIND_BY_REFERENCE, System.nanoTime(), taskIndex.idsByReference(referenceId, referenceType));
+    }
+
+
+    @Override
+    public List<TaskManagement> findOpenByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        return resolve(Operation.FIND_OPEN_BY_REFERENCE, System.nanoTime(), taskIndex.openIdsByReference(referenceId, referenceType));
+    }
+
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
+        long start = System.nanoTime();
+        List<TaskManagement> tasks = new ArrayList<>();
+        int scanned = 0;
+        for (Long assigneeId : new LinkedHashSet<>(assigneeIds)) {
+            for (Long id : taskIndex.idsByAssignee(assigneeId)) {
+                scanned++;
+                TaskManagement task = read(id);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        metrics.record(Operation.FIND_BY_ASSIGNEES, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public List<KeyedTask> findByAssigneeIdInAndDeadlineBetween(List<Long> assigneeIds, long fromInclusive, long toExclusive,
+                                                                PageCursor after, int limit) {
+        Collection<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        return resolveEntries(Operation.FIND_BY_DEADLINE_BETWEEN, System.nanoTime(), assignees, false,
+                taskIndex.deadlinesBetween(assignees, fromInclusive, toExclusive, toDeadlineEntry(after)), limit);
+    }
+
+
+    @Override
+    public List<KeyedTask> findOpenByAssigneeIdInAndDeadlineBefore(List<Long> assigneeIds, long toExclusive,
+                                                                   PageCursor after, int limit) {
+        Collection<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        return resolveEntries(Operation.FIND_OPEN_BY_DEADLINE_BEFORE, System.nanoTime(), assignees, true,
+                taskIndex.openDeadlinesBefore(assignees, toExclusive, toDeadlineEntry(after)), limit);
+    }
+
+
+    @Override
+    public List<TaskManagement> findByPriority(Priority priority, PageCursor after, int limit) {
+        long start = System.nanoTime();
+        byte ordinal = ordinal(priority);
+        long afterId = after == null ? 0 : Math.max(0, after.taskId());
+        Chunk[] current = chunks;
+        List<TaskManagement> page = new ArrayList<>(Math.min(limit, CHUNK_SIZE));
+        int scanned = 0;
+        // Rows are in id order, so the scan starts right after the cursor and stops once the page is full
+        for (int c = (int) (afterId >>> CHUNK_BITS); c < current.length && page.size() < limit; c++) {
+            Chunk chunk = current[c];
+            int from = c == (int) (afterId >>> CHUNK_BITS) ? (int) (afterId & CHUNK_MASK) : 0;
+            scanned += CHUNK_SIZE - from;
+            for (int offset : chunk.matching(chunk.priorities, ordinal, from)) {
+                TaskManagement task = chunk.read(offset);
+                if (task != null && task.getPriority() == priority) {
+                    page.add(task);
+                    if (page.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        metrics.record(Operation.FIND_BY_PRIORITY, start, scanned, page.size());
+        return page;
+    }
+
+
+    @Override
+    public List<TaskManagement> findByStatus(TaskStatus status) {
+        long start = System.nanoTime();
+        byte ordinal = ordinal(status);
+        Chunk[] current = chunks;
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (Chunk chunk : current) {
+            for (int offset : chunk.matching(chunk.statuses, ordinal, 0)) {
+                TaskManagement task = chunk.read(offset);
+                if (task != null && task.getStatus() == status) {
+                    tasks.add(task);
+                }
+            }
+        }
+        metrics.record(Operation.FIND_BY_STATUS, start, current.length * CHUNK_SIZE, tasks.size());
+        return tasks;
+    }
+
+
+    // Same contract as InMemoryTaskRepository: the stored version must still be the one the task was read at
+    private TaskManagement compareAndSet(TaskManagement task, MutationLog log) {
+        Lock lock = rowLocks.lockFor(task.getId());
+        lock.lock();
+        try {
+            Chunk chunk = chunkFor(task.getId(), true);
+            int offset = offset(task.getId());
+            TaskManagement previous = chunk.read(offset);
+            long currentVersion = previous == null ? 0 : previous.getVersion();
+            if (task.getVersion() != currentVersion) {
+                throw new ConflictException("Task " + task.getId() + " is at version " + currentVersion
+                        + ", not " + task.getVersion());
+            }
+            TaskManagement next = task.withVersion(currentVersion + 1);
+            writeRow(chunk, offset, previous, next, log);
+            taskChanged(previous, next);
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private void taskChanged(TaskManagement previous, TaskManagement next) {
+        for (TaskChangeListener listener : changeListeners) {
+            listener.taskChanged(previous, next);
+        }
+    }
+
+
+    // Callers hold the row lock
+    private void writeRow(Chunk chunk, int offset, TaskManagement previous, TaskManagement task, MutationLog log) {
+        // Index before publishing, so a task that is visible by id is also reachable through every index
+        taskIndex.reindex(previous, task);
+        chunk.write(offset, task, pooled(task.getDescription()));
+        log.taskSaved(task);
+        if (previous == null) {
+            rowCount.incrementAndGet();
+        }
+    }
+
+
+    private Stream<TaskManagement> rows(Chunk chunk) {
+        return IntStream.range(0, CHUNK_SIZE)
+                .filter(offset -> chunk.ids[offset] != 0)
+                .mapToObj(chunk::read)
+                .filter(Objects::nonNull);
+    }
+
+
+    private TaskManagement read(Long id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        Chunk chunk = chunkFor(id, false);
+        return chunk == null ? null : chunk.read(offset(id));
+    }
+
+
+    private Chunk chunkFor(long id, boolean create) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task ids start at 1: " + id);
+        }
+        int index = (int) ((id - 1) >>> CHUNK_BITS);
+        Chunk[] current = chunks;
+        if (index < current.length) {
+            return current[index];
+        }
+        if (!create) {
+            return null;
+        }
+        growLock.lock();
+        try {
+            current = chunks;
+            if (index >= current.length) {
+                Chunk[] grown = Arrays.copyOf(current, index + 1);
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new Chunk();
+                }
+                chunks = grown;
+                current = grown;
+            }
+            return current[index];
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+
+    private static int offset(long id) {
+        return (int) ((id - 1) & CHUNK_MASK);
+    }
+
+
+    private String pooled(String description) {
+        if (description == null) {
+            return null;
+        }
+        String pooled = descriptionPool.get(description);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (descriptionPool.size() >= MAX_POOLED_DESCRIPTIONS) {
+            return description;
+        }
+        pooled = descriptionPool.putIfAbsent(description, description);
+        return pooled == null ? description : pooled;
+    }
+
+
+    /**
+     * Resolves the merged entries until {@code limit} tasks still match the entry they were found under.
+     */
+    private List<KeyedTask> resolveEntries(Operation operation, long start, Collection<Long> assigneeIds, boolean open,
+                                           List<? extends Iterable<TaskIndex.DeadlineEntry>> slices, int limit) {
+        Iterator<TaskIndex.DeadlineEntry> entries = TaskIndex.mergeSorted(slices);
+        List<KeyedTask> tasks = new ArrayList<>(Math.min(limit, 1024));
+        int scanned = 0;
+        while (tasks.size() < limit && entries.hasNext()) {
+            scanned++;
+            TaskIndex.DeadlineEntry entry = entries.next();
+            TaskManagement task = read(entry.taskId());
+            // The entry may briefly lag a concurrent deadline, status or assignee change
+            if (task != null && TaskIndex.matches(entry, task, assigneeIds, open)) {
+                tasks.add(new KeyedTask(new PageCursor(entry.deadline(), entry.taskId()), task));
+            }
+        }
+        metrics.record(operation, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    private static TaskIndex.DeadlineEntry toDeadlineEntry(PageCursor cursor) {
+        return cursor == null ? null : new TaskIndex.DeadlineEntry(cursor.sortKey(), cursor.taskId());
+    }
+
+
+    private List<TaskManagement> resolve(Operation operation, long start, Collection<Long> ids) {
+        List<TaskManagement> tasks = new ArrayList<>();
+        int scanned = 0;
+        for (Long id : ids) {
+            scanned++;
+            TaskManagement task = read(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        metrics.record(operation, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? NULL_ORDINAL : (byte) value.ordinal();
+    }
+
+
+    private static <E> E fromOrdinal(E[] values, byte ordinal) {
+        return ordinal == NULL_ORDINAL ? null : values[ordinal];
+    }
+
+
+    private static long fromNullable(Long value) {
+        return value == null ? NULL_LONG : value;
+    }
+
+
+    private static Long toNullable(long value) {
+        return value == NULL_LONG ? null : value;
+    }
+
+
+    /**
+     * {@value #CHUNK_SIZE} consecutive rows. An id of 0 marks a free row.
+     */
+    private static final class Chunk {
+        private final int[] sequence = new int[CHUNK_SIZE];
+        private final long[] ids = new long[CHUNK_SIZE];
+        private final long[] versions = new long[CHUNK_SIZE];
+        private final long[] referenceIds = new long[CHUNK_SIZE];
+        private final long[] assigneeIds = new long[CHUNK_SIZE];
+        private final long[] deadlines = new long[CHUNK_SIZE];
+        private final byte[] tasks = new byte[CHUNK_SIZE];
+        private final byte[] referenceTypes = new byte[CHUNK_SIZE];
+        private final byte[] statuses = new byte[CHUNK_SIZE];
+        private final byte[] priorities = new byte[CHUNK_SIZE];
+        private final boolean[] overdue = new boolean[CHUNK_SIZE];
+        private final String[] descriptions = new String[CHUNK_SIZE];
+
+        // Callers hold the row lock, or own a freshly reserved id
+        void write(int offset, TaskManagement task, String description) {
+            int current = (int) SEQUENCE.getOpaque(sequence, offset);
+            SEQUENCE.setOpaque(sequence, offset, current + 1);
+            VarHandle.storeStoreFence();
+            ids[offset] = task.getId();
+            versions[offset] = task.getVersion();
+            referenceIds[offset] = fromNullable(task.getReferenceId());
+            assigneeIds[offset] = fromNullable(task.getAssigneeId());
+            deadlines[offset] = fromNullable(task.getTaskDeadlineTime());
+            tasks[offset] = ordinal(task.getTask());
+            referenceTypes[offset] = ordinal(task.getReferenceType());
+            statuses[offset] = ordinal(task.getStatus());
+            priorities[offset] = ordinal(task.getPriority());
+            overdue[offset] = task.isOverdue();
+            descriptions[offset] = description;
+            SEQUENCE.setRelease(sequence, offset, current + 2);
+        }
+
+        TaskManagement read(int offset) {
+            while (true) {
+                int before = (int) SEQUENCE.getAcquire(sequence, offset);
+                if ((before & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                long id = ids[offset];
+                long version = versions[offset];
+                long referenceId = referenceIds[offset];
+                long assigneeId = assigneeIds[offset];
+                long deadline = deadlines[offset];
+                byte task = tasks[offset];
+                byte referenceType = referenceTypes[offset];
+                byte status = statuses[offset];
+                byte priority = priorities[offset];
+                boolean late = overdue[offset];
+                String description = descriptions[offset];
+                VarHandle.loadLoadFence();
+                if ((int) SEQUENCE.getOpaque(sequence, offset) != before) {
+                    continue;
+                }
+                if (id == 0) {
+                    return null;
+                }
+                return TaskManagement.builder()
+                        .id(id)
+                        .version(version)
+                        .referenceId(toNullable(referenceId))
+                        .referenceType(fromOrdinal(REFERENCE_TYPES, referenceType))
+                        .task(fromOrdinal(TASKS, task))
+                        .description(description)
+                        .status(fromOrdinal(STATUSES, status))
+                        .assigneeId(toNullable(assigneeId))
+                        .taskDeadlineTime(toNullable(deadline))
+                        .priority(fromOrdinal(PRIORITIES, priority))
+                        .overdue(late)
+                        .build();
+            }
+        }
+
+        /**
+         * Offsets from {@code from} on whose column value equals {@code ordinal}, found by a plain scan of the
+         * byte column. Free rows hold 0 in every column, so they are filtered out through the id column.
+         */
+        int[] matching(byte[] column, byte ordinal, int from) {
+            int[] offsets = new int[64];
+            int count = 0;
+            for (int offset = from; offset < CHUNK_SIZE; offset++) {
+                if (column[offset] == ordinal && ids[offset] != 0) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = offset;
+                }
+            }
+            return count == offsets.length ? offsets : Arrays.copyOf(offsets, count);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cold tier of the task history: append-only, memory-mapped segment files holding entries moved off the heap.
+ * Entries live in the page cache instead, so the OS keeps the recently read ones in memory and drops the rest.
+ * <p>
+ * An entry is addressed by its segment (upper 24 bits) and byte offset (lower 40 bits), and written as
+ * {@code [int payload length][byte type][payload]}. One thread appends; readers only get addresses that were
+ * published after their bytes were written, through the history log's volatile snapshot, so reads need no lock.
+ * <p>
+ * The files are scratch space, not a durable copy: the write-ahead log and snapshots still hold every entry, so
+ * segments left over from an earlier run are deleted when the store opens.
+ */
+public final class HistorySegmentStore implements Closeable {
+
+    private static final String SEGMENT_GLOB = "history-*.seg";
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+
+    private static final byte COMMENT = 1;
+    private static final byte ACTIVITY = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<FileChannel> channels = new ArrayList<>();
+    // Replaced, never modified, when a segment is added
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    // Owned by the appending thread
+    private int writeOffset;
+    private volatile long bytesUsed;
+
+
+    public HistorySegmentStore(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            for (Path segment : stale) {
+                Files.delete(segment);
+            }
+        }
+    }
+
+
+    /**
+     * @return the address of the entry; only valid for this store
+     */
+    long append(Object entry) throws IOException {
+        byte[] payload = encode(entry);
+        int length = HEADER_BYTES + payload.length;
+        MappedByteBuffer[] current = segments;
+        if (current.length == 0 || writeOffset + length > current[current.length - 1].capacity()) {
+            current = addSegment(Math.max(segmentSize, length));
+        }
+        int segment = current.length - 1;
+        MappedByteBuffer buffer = current[segment];
+        buffer.putInt(writeOffset, payload.length);
+        buffer.put(writeOffset + Integer.BYTES, entry instanceof CommentDto ? COMMENT : ACTIVITY);
+        buffer.put(writeOffset + HEADER_BYTES, payload);
+        long address = ((long) segment << OFFSET_BITS) | writeOffset;
+        writeOffset += length;
+        bytesUsed += length;
+        return address;
+    }
+
+
+    Object read(long address) {
+        ByteBuffer buffer = segments[(int) (address >>> OFFSET_BITS)];
+        int offset = (int) (address & OFFSET_MASK);
+        int length = buffer.getInt(offset);
+        byte type = buffer.get(offset + Integer.BYTES);
+        ByteBuffer payload = buffer.slice(offset + HEADER_BYTES, length);
+        Instant timestamp = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+        if (type == COMMENT) {
+            CommentDto comment = new CommentDto();
+            comment.setTimestamp(timestamp);
+            comment.setTaskId(payload.get() != 0 ? payload.getLong() : null);
+            comment.setComment(getString(payload));
+            comment.setCommentedBy(getString(payload));
+            return comment;
+        }
+        ActivityLogDto activity = new ActivityLogDto();
+        activity.setTimestamp(timestamp);
+        activity.setMessage(getString(payload));
+        activity.setCreatedBy(getString(payload));
+        return activity;
+    }
+
+
+    // Reads only the timestamp, for the binary search of a since query
+    Instant timestampAt(long address) {
+        ByteBuffer buffer = segments[(int) (address >>> OFFSET_BITS)];
+        int payload = (int) (address & OFFSET_MASK) + HEADER_BYTES;
+        return Instant.ofEpochSecond(buffer.getLong(payload), buffer.getInt(payload + Long.BYTES));
+    }
+
+
+    /**
+     * Bytes of entries written so far, headers included.
+     */
+    public long bytesUsed() {
+        return bytesUsed;
+    }
+
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+
+    /**
+     * Closes the files. Mappings stay valid until they are garbage collected, so a read racing shutdown still works.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+        channels.clear();
+    }
+
+
+    private synchronized MappedByteBuffer[] addSegment(int size) throws IOException {
+        MappedByteBuffer[] current = segments;
+        Path path = directory.resolve(String.format("history-%06d.seg", current.length));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channels.add(channel);
+        MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segments = grown;
+        writeOffset = 0;
+        return grown;
+    }
+
+
+    private static byte[] encode(Object entry) {
+        Instant timestamp;
+        Long taskId = null;
+        byte[] text;
+        byte[] author;
+        if (entry instanceof CommentDto comment) {
+            timestamp = comment.getTimestamp();
+            taskId = comment.getTaskId();
+            text = utf8(comment.getComment());
+            author = utf8(comment.getCommentedBy());
+        } else if (entry instanceof ActivityLogDto activity) {
+            timestamp = activity.getTimestamp();
+            text = utf8(activity.getMessage());
+            author = utf8(activity.getCreatedBy());
+        } else {
+            throw new IllegalArgumentException("Unsupported history entry: " + entry.getClass());
+        }
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + Byte.BYTES + Long.BYTES
+                + Integer.BYTES * 2 + length(text) + length(author));
+        buf.putLong(timestamp.getEpochSecond());
+        buf.putInt(timestamp.getNano());
+        if (entry instanceof CommentDto) {
+            buf.put((byte) (taskId != null ? 1 : 0));
+            if (taskId != null) {
+                buf.putLong(taskId);
+            }
+        }
+        putString(buf, text);
+        putString(buf, author);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putInt(-1);
+            return;
+        }
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+
+    private static String getString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
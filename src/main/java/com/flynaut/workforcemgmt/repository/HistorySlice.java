@@ -0,0 +1,9 @@
+package com.flynaut.workforcemgmt.repository;
+
+import java.util.List;
+
+/**
+ * A contiguous run of a task's history. {@code nextPosition} is the log position right after the last entry.
+ */
+public record HistorySlice(List<Object> entries, long nextPosition, boolean hasMore) {
+}
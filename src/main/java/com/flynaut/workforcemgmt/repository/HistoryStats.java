@@ -0,0 +1,9 @@
+package com.flynaut.workforcemgmt.repository;
+
+/**
+ * Size of the history store. {@code estimatedBytes} approximates the heap held by entries (objects plus text);
+ * {@code coldEntries} of the entries were moved to a {@link HistorySegmentStore} and only cost their address.
+ */
+public record HistoryStats(long tasks, long comments, long activities, long maxEntriesPerTask, long estimatedBytes,
+                           long coldEntries) {
+}
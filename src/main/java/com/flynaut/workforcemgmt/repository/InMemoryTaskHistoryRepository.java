@@ -0,0 +1,169 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import org.springframework.stereotype.Repository;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+
+@Repository
+public class InMemoryTaskHistoryRepository implements TaskHistoryRepository {
+
+    // Log slot, DTO, Instant and two String headers; Latin-1 text adds a byte per character
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    // Address slot of an entry moved to the cold store
+    private static final int COLD_ENTRY_BYTES = Long.BYTES;
+
+
+    // Comments and activity entries of a task share one log, so history reads need no merge or sort
+    private final Map<Long, TaskHistoryLog> historyStore = new ConcurrentHashMap<>();
+    private volatile MutationLog mutationLog = MutationLog.DISABLED;
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    // Maintained on append so the metrics gauges never walk the store
+    private final LongAdder commentCount = new LongAdder();
+    private final LongAdder activityCount = new LongAdder();
+    private final LongAdder estimatedBytes = new LongAdder();
+    private final LongAdder coldEntries = new LongAdder();
+    private final LongAccumulator maxEntriesPerTask = new LongAccumulator(Math::max, 0);
+
+
+    @Override
+    public CommentDto appendComment(Long taskId, CommentDto comment) {
+        return append(taskId, comment, CommentDto::setTimestamp);
+    }
+
+
+    @Override
+    public ActivityLogDto appendActivity(Long taskId, ActivityLogDto activity) {
+        return append(taskId, activity, ActivityLogDto::setTimestamp);
+    }
+
+
+    @Override
+    public HistorySlice findByTaskId(Long taskId, Instant since, long fromPosition, int limit) {
+        TaskHistoryLog log = historyStore.get(taskId);
+        if (log == null) {
+            return new HistorySlice(Collections.emptyList(), 0, false);
+        }
+        return log.read(since, fromPosition, limit);
+    }
+
+
+    @Override
+    public void forEachEntry(EntryConsumer consumer) {
+        historyStore.forEach((taskId, log) -> log.forEach((entry, position) -> consumer.accept(taskId, position, entry)));
+    }
+
+
+    @Override
+    public void restore(Long taskId, long position, Object entry) {
+        Instant timestamp = entry instanceof CommentDto comment
+                ? comment.getTimestamp()
+                : ((ActivityLogDto) entry).getTimestamp();
+        if (logFor(taskId).restore(position, timestamp, entry)) {
+            countAppended(position, entry);
+        }
+    }
+
+
+    @Override
+    public HistoryStats stats() {
+        return new HistoryStats(historyStore.size(), commentCount.sum(), activityCount.sum(),
+                maxEntriesPerTask.get(), estimatedBytes.sum(), coldEntries.sum());
+    }
+
+
+    @Override
+    public long compact(HistorySegmentStore coldStore, int hotEntries, int minBatch) throws IOException {
+        long moved = 0;
+        for (TaskHistoryLog log : historyStore.values()) {
+            if (log.hotSize() >= hotEntries + minBatch) {
+                moved += log.compact(coldStore, hotEntries, entry -> {
+                    coldEntries.increment();
+                    estimatedBytes.add(COLD_ENTRY_BYTES - estimatedSize(entry));
+                });
+            }
+        }
+        return moved;
+    }
+
+
+    @Override
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+
+    @Override
+    public void addChangeListener(TaskChangeListener changeListener) {
+        changeListeners.add(changeListener);
+    }
+
+
+    @Override
+    public void removeChangeListener(TaskChangeListener changeListener) {
+        changeListeners.remove(changeListener);
+    }
+
+
+    private <T> T append(Long taskId, T entry, BiConsumer<T, Instant> timestampSetter) {
+        MutationLog log = mutationLog;
+        log.beginMutation();
+        T appended;
+        try {
+            appended = logFor(taskId).append(entry, timestampSetter, (value, position) -> {
+                log.historyAppended(taskId, position, value);
+                countAppended(position, value);
+            });
+        } finally {
+            log.endMutation();
+        }
+        // Only once the entry is readable, so a listener never announces history a reader cannot see yet
+        for (TaskChangeListener listener : changeListeners) {
+            listener.historyAppended(taskId);
+        }
+        return appended;
+    }
+
+
+    private void countAppended(long position, Object entry) {
+        maxEntriesPerTask.accumulate(position + 1);
+        if (entry instanceof CommentDto) {
+            commentCount.increment();
+        } else if (entry instanceof ActivityLogDto) {
+            activityCount.increment();
+        }
+        estimatedBytes.add(estimatedSize(entry));
+    }
+
+
+    private static long estimatedSize(Object entry) {
+        if (entry instanceof CommentDto comment) {
+            return ENTRY_OVERHEAD_BYTES + length(comment.getComment()) + length(comment.getCommentedBy());
+        }
+        if (entry instanceof ActivityLogDto activity) {
+            return ENTRY_OVERHEAD_BYTES + length(activity.getMessage()) + length(activity.getCreatedBy());
+        }
+        return 0;
+    }
+
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+
+    private TaskHistoryLog logFor(Long taskId) {
+        return historyStore.computeIfAbsent(taskId, k -> new TaskHistoryLog());
+    }
+}
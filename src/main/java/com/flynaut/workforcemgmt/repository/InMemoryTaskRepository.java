@@ -1,88 +1,360 @@
 package com.flynaut.workforcemgmt.repository;
 
+import com.flynaut.workforcemgmt.common.concurrent.StripedLock;
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
 import com.flynaut.workforcemgmt.model.enums.ReferenceType;
 import com.flynaut.workforcemgmt.model.TaskManagement;
 import com.flynaut.workforcemgmt.model.enums.Priority;
-import com.flynaut.workforcemgmt.model.enums.Task;
 import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import com.flynaut.workforcemgmt.repository.RepositoryMetrics.Operation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
 
 @Repository
+@ConditionalOnProperty(prefix = "task-mgmt.repository", name = "type", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryTaskRepository implements TaskRepository {
 
+    private static final int ROW_LOCK_STRIPES = 1024;
 
     private final Map<Long, TaskManagement> taskStore = new ConcurrentHashMap<>();
     private final AtomicLong idCounter = new AtomicLong(0);
+    private final TaskIndex taskIndex = new TaskIndex();
+    private final StripedLock rowLocks = new StripedLock(ROW_LOCK_STRIPES);
+    private volatile MutationLog mutationLog = MutationLog.DISABLED;
+    private volatile RepositoryMetrics metrics = RepositoryMetrics.DISABLED;
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
 
     public InMemoryTaskRepository() {
         // Seed data
-        createSeedTask(101L, ReferenceType.ORDER, Task.CREATE_INVOICE, 1L, TaskStatus.ASSIGNED, Priority.HIGH);
-        createSeedTask(101L, ReferenceType.ORDER, Task.ARRANGE_PICKUP, 1L, TaskStatus.COMPLETED, Priority.HIGH);
-        createSeedTask(102L, ReferenceType.ORDER, Task.CREATE_INVOICE, 2L, TaskStatus.ASSIGNED, Priority.MEDIUM);
-        createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 2L, TaskStatus.ASSIGNED, Priority.LOW);
-        createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 3L, TaskStatus.ASSIGNED, Priority.LOW); // Duplicate for Bug #1
-        createSeedTask(103L, ReferenceType.ORDER, Task.COLLECT_PAYMENT, 1L, TaskStatus.CANCELLED, Priority.MEDIUM); // For Bug #2
+        SeedTasks.create().forEach(this::save);
     }
 
 
-    private void createSeedTask(Long refId, ReferenceType refType, Task task, Long assigneeId, TaskStatus status, Priority priority) {
-        long newId = idCounter.incrementAndGet();
-        TaskManagement newTask = new TaskManagement();
-        newTask.setId(newId);
-        newTask.setReferenceId(refId);
-        newTask.setReferenceType(refType);
-        newTask.setTask(task);
-        newTask.setAssigneeId(assigneeId);
-        newTask.setStatus(status);
-        newTask.setPriority(priority);
-        newTask.setDescription("This is a seed task.");
-        newTask.setTaskDeadlineTime(System.currentTimeMillis() + 86400000); // 1 day from now
-        taskStore.put(newId, newTask);
+    @Override
+    public Optional<TaskManagement> findById(Long id) {
+        long start = System.nanoTime();
+        TaskManagement task = taskStore.get(id);
+        metrics.record(Operation.FIND_BY_ID, start, 1, task == null ? 0 : 1);
+        return Optional.ofNullable(task);
     }
 
 
     @Override
-    public Optional<TaskManagement> findById(Long id) {
-        return Optional.ofNullable(taskStore.get(id));
+    public TaskManagement save(TaskManagement task) {
+        long start = System.nanoTime();
+        TaskManagement expected = task.getId() == null
+                ? task.toBuilder().id(idCounter.incrementAndGet()).version(0).build()
+                : task;
+        MutationLog log = mutationLog;
+        log.beginMutation();
+        TaskManagement saved;
+        try {
+            saved = compareAndSet(expected, log);
+        } finally {
+            log.endMutation();
+        }
+        metrics.record(Operation.SAVE, start, 0, 1);
+        return saved;
     }
 
 
+    /**
+     * Saves a batch: ids for all new tasks are reserved with a single counter update, the new tasks are
+     * indexed together grouped by index key, and only then made visible in the store. Existing tasks are
+     * compared and set one by one, so a conflict leaves the tasks before it saved.
+     */
     @Override
-    public TaskManagement save(TaskManagement task) {
-        if (task.getId() == null) {
-            task.setId(idCounter.incrementAndGet());
+    public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+        long start = System.nanoTime();
+        TaskManagement[] saved = new TaskManagement[tasks.size()];
+        List<TaskManagement> created = new ArrayList<>();
+        int newTasks = 0;
+        for (TaskManagement task : tasks) {
+            if (task.getId() == null) {
+                newTasks++;
+            }
+        }
+        MutationLog log = mutationLog;
+        log.beginMutation();
+        try {
+            if (newTasks > 0) {
+                long nextId = idCounter.getAndAdd(newTasks) + 1;
+                for (int i = 0; i < saved.length; i++) {
+                    if (tasks.get(i).getId() == null) {
+                        saved[i] = tasks.get(i).toBuilder().id(nextId++).version(1).build();
+                        created.add(saved[i]);
+                    }
+                }
+                taskIndex.indexNew(created);
+                for (TaskManagement task : created) {
+                    publish(task, log);
+                }
+            }
+            for (int i = 0; i < saved.length; i++) {
+                if (saved[i] == null) {
+                    saved[i] = compareAndSet(tasks.get(i), log);
+                }
+            }
+        } finally {
+            log.endMutation();
+        }
+        metrics.record(Operation.SAVE_ALL, start, 0, tasks.size());
+        return Arrays.asList(saved);
+    }
+
+
+    /**
+     * Puts back a task read from durable storage under its original id, without logging it again.
+     */
+    @Override
+    public void restore(TaskManagement task) {
+        idCounter.accumulateAndGet(task.getId(), Math::max);
+        Lock lock = rowLocks.lockFor(task.getId());
+        lock.lock();
+        try {
+            taskIndex.reindex(taskStore.get(task.getId()), task);
+            taskStore.put(task.getId(), task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    @Override
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+
+    @Override
+    public void setMetrics(RepositoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void addChangeListener(TaskChangeListener changeListener) {
+        changeListeners.add(changeListener);
+    }
+
+
+    @Override
+    public void removeChangeListener(TaskChangeListener changeListener) {
+        changeListeners.remove(changeListener);
+    }
+
+
+    @Override
+    public long count() {
+        return taskStore.size();
+    }
+
+
+    /**
+     * Replaces the stored snapshot with {@code task} if the stored version is still {@code task}'s version
+     * (0 for an id that is not stored yet), and returns what was stored, with the version incremented.
+     * The row lock orders the log records of one id exactly like the writes to the store. It is a ReentrantLock
+     * rather than compute(), whose bin monitor would pin a virtual thread blocked on the log.
+     */
+    private TaskManagement compareAndSet(TaskManagement task, MutationLog log) {
+        Lock lock = rowLocks.lockFor(task.getId());
+        lock.lock();
+        try {
+            TaskManagement current = taskStore.get(task.getId());
+            long currentVersion = current == null ? 0 : current.getVersion();
+            if (task.getVersion() != currentVersion) {
+                throw new ConflictException("Task " + task.getId() + " is at version " + currentVersion
+                        + ", not " + task.getVersion());
+            }
+            TaskManagement next = task.withVersion(currentVersion + 1);
+            // Index before publishing, so a task that is visible by id is also reachable through every index
+            taskIndex.reindex(current, next);
+            taskStore.put(next.getId(), next);
+            log.taskSaved(next);
+            taskChanged(current, next);
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // New tasks own freshly reserved ids, so there is nothing to compare
+    private void publish(TaskManagement task, MutationLog log) {
+        Lock lock = rowLocks.lockFor(task.getId());
+        lock.lock();
+        try {
+            taskStore.put(task.getId(), task);
+            log.taskSaved(task);
+            taskChanged(null, task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private void taskChanged(TaskManagement previous, TaskManagement next) {
+        for (TaskChangeListener listener : changeListeners) {
+            listener.taskChanged(previous, next);
         }
-        taskStore.put(task.getId(), task);
-        return task;
     }
 
 
     @Override
     public List<TaskManagement> findAll() {
-        return List.copyOf(taskStore.values());
+        long start = System.nanoTime();
+        List<TaskManagement> tasks = List.copyOf(taskStore.values());
+        metrics.record(Operation.FIND_ALL, start, tasks.size(), tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public Stream<TaskManagement> streamAll() {
+        // Weakly consistent view over the live store: nothing is copied, so exports run in constant memory
+        return taskStore.values().stream();
+    }
+
+
+    @Override
+    public Stream<TaskManagement> streamByPriority(Priority priority) {
+        return taskIndex.idsByPriorityAfter(priority, Long.MIN_VALUE).stream()
+                .map(taskStore::get)
+                .filter(task -> task != null && task.getPriority() == priority);
     }
 
 
     @Override
     public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
-        return taskStore.values().stream()
-                .filter(task -> task.getReferenceId().equals(referenceId) && task.getReferenceType().equals(referenceType))
-                .collect(Collectors.toList());
+        return resolve(Operation.FIND_BY_REFERENCE, System.nanoTime(), taskIndex.idsByReference(referenceId, referenceType));
+    }
+
+
+    @Override
+    public List<TaskManagement> findOpenByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        return resolve(Operation.FIND_OPEN_BY_REFERENCE, System.nanoTime(), taskIndex.openIdsByReference(referenceId, referenceType));
     }
 
 
     @Override
     public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
-        return taskStore.values().stream()
-                .filter(task -> assigneeIds.contains(task.getAssigneeId()))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<TaskManagement> tasks = new ArrayList<>();
+        int scanned = 0;
+        for (Long assigneeId : new LinkedHashSet<>(assigneeIds)) {
+            for (Long id : taskIndex.idsByAssignee(assigneeId)) {
+                scanned++;
+                TaskManagement task = taskStore.get(id);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        metrics.record(Operation.FIND_BY_ASSIGNEES, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public List<KeyedTask> findByAssigneeIdInAndDeadlineBetween(List<Long> assigneeIds, long fromInclusive, long toExclusive,
+                                                                PageCursor after, int limit) {
+        Collection<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        return resolveEntries(Operation.FIND_BY_DEADLINE_BETWEEN, System.nanoTime(), assignees, false,
+                taskIndex.deadlinesBetween(assignees, fromInclusive, toExclusive, toDeadlineEntry(after)), limit);
+    }
+
+
+    @Override
+    public List<KeyedTask> findOpenByAssigneeIdInAndDeadlineBefore(List<Long> assigneeIds, long toExclusive,
+                                                                   PageCursor after, int limit) {
+        Collection<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        return resolveEntries(Operation.FIND_OPEN_BY_DEADLINE_BEFORE, System.nanoTime(), assignees, true,
+                taskIndex.openDeadlinesBefore(assignees, toExclusive, toDeadlineEntry(after)), limit);
+    }
+
+
+    @Override
+    public List<TaskManagement> findByPriority(Priority priority, PageCursor after, int limit) {
+        long start = System.nanoTime();
+        long afterId = after == null ? Long.MIN_VALUE : after.taskId();
+        List<TaskManagement> tasks = new ArrayList<>(Math.min(limit, 1024));
+        int scanned = 0;
+        for (Long id : taskIndex.idsByPriorityAfter(priority, afterId)) {
+            if (tasks.size() == limit) {
+                break;
+            }
+            scanned++;
+            TaskManagement task = taskStore.get(id);
+            // The bucket may briefly lag a concurrent priority change
+            if (task != null && task.getPriority() == priority) {
+                tasks.add(task);
+            }
+        }
+        metrics.record(Operation.FIND_BY_PRIORITY, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public List<TaskManagement> findByStatus(TaskStatus status) {
+        return resolve(Operation.FIND_BY_STATUS, System.nanoTime(), taskIndex.idsByStatus(status));
+    }
+
+
+    /**
+     * Resolves the merged entries until {@code limit} tasks still match the entry they were found under.
+     */
+    private List<KeyedTask> resolveEntries(Operation operation, long start, Collection<Long> assigneeIds, boolean open,
+                                           List<? extends Iterable<TaskIndex.DeadlineEntry>> slices, int limit) {
+        Iterator<TaskIndex.DeadlineEntry> entries = TaskIndex.mergeSorted(slices);
+        List<KeyedTask> tasks = new ArrayList<>(Math.min(limit, 1024));
+        int scanned = 0;
+        while (tasks.size() < limit && entries.hasNext()) {
+            scanned++;
+            TaskIndex.DeadlineEntry entry = entries.next();
+            TaskManagement task = taskStore.get(entry.taskId());
+            // The entry may briefly lag a concurrent deadline, status or assignee change
+            if (task != null && TaskIndex.matches(entry, task, assigneeIds, open)) {
+                tasks.add(new KeyedTask(new PageCursor(entry.deadline(), entry.taskId()), task));
+            }
+        }
+        metrics.record(operation, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    private static TaskIndex.DeadlineEntry toDeadlineEntry(PageCursor cursor) {
+        return cursor == null ? null : new TaskIndex.DeadlineEntry(cursor.sortKey(), cursor.taskId());
+    }
+
+
+    private List<TaskManagement> resolve(Operation operation, long start, Collection<Long> ids) {
+        List<TaskManagement> tasks = new ArrayList<>();
+        int scanned = 0;
+        for (Long id : ids) {
+            scanned++;
+            TaskManagement task = taskStore.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        metrics.record(operation, start, scanned, tasks.size());
+        return tasks;
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+
+/**
+ * A task together with the index key it was found under, which is where a page that ends with it resumes.
+ */
+public record KeyedTask(PageCursor key, TaskManagement task) {
+}
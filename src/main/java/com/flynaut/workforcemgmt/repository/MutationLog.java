@@ -0,0 +1,26 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+
+/**
+ * Receives every change the repositories apply, so that it can be made durable.
+ * Repositories bracket each change with {@link #beginMutation()} / {@link #endMutation()} and report it
+ * from inside their per-key critical section, so the log sees changes to one key in the order they were applied.
+ */
+public interface MutationLog {
+
+    MutationLog DISABLED = new MutationLog() {
+    };
+
+    default void beginMutation() {
+    }
+
+    default void endMutation() {
+    }
+
+    default void taskSaved(TaskManagement task) {
+    }
+
+    default void historyAppended(Long taskId, long position, Object entry) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.flynaut.workforcemgmt.repository;
+
+/**
+ * Receives the cost of each repository operation: its duration and how many tasks it had to look at
+ * compared with how many it returned, which tells index lookups from scans. Implementations must not allocate,
+ * as every call sits on the request path.
+ */
+public interface RepositoryMetrics {
+
+    RepositoryMetrics DISABLED = new RepositoryMetrics() {
+    };
+
+    /**
+     * @param startNanos {@link System#nanoTime()} taken when the operation started
+     */
+    default void record(Operation operation, long startNanos, int scanned, int returned) {
+    }
+
+
+    enum Operation {
+        FIND_BY_ID("findById"),
+        SAVE("save"),
+        SAVE_ALL("saveAll"),
+        FIND_ALL("findAll"),
+        FIND_BY_REFERENCE("findByReferenceIdAndReferenceType"),
+        FIND_OPEN_BY_REFERENCE("findOpenByReferenceIdAndReferenceType"),
+        FIND_BY_ASSIGNEES("findByAssigneeIdIn"),
+        FIND_BY_DEADLINE_BETWEEN("findByAssigneeIdInAndDeadlineBetween"),
+        FIND_OPEN_BY_DEADLINE_BEFORE("findOpenByAssigneeIdInAndDeadlineBefore"),
+        FIND_BY_PRIORITY("findByPriority"),
+        FIND_BY_STATUS("findByStatus");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+}
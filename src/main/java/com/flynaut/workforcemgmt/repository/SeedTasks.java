@@ -0,0 +1,42 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import java.util.List;
+
+/**
+ * Seed data shared by the task repository implementations. Ids are left unset for the repository to assign.
+ */
+final class SeedTasks {
+
+    private SeedTasks() {
+    }
+
+
+    static List<TaskManagement> create() {
+        return List.of(
+                seedTask(101L, ReferenceType.ORDER, Task.CREATE_INVOICE, 1L, TaskStatus.ASSIGNED, Priority.HIGH),
+                seedTask(101L, ReferenceType.ORDER, Task.ARRANGE_PICKUP, 1L, TaskStatus.COMPLETED, Priority.HIGH),
+                seedTask(102L, ReferenceType.ORDER, Task.CREATE_INVOICE, 2L, TaskStatus.ASSIGNED, Priority.MEDIUM),
+                seedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 2L, TaskStatus.ASSIGNED, Priority.LOW),
+                seedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 3L, TaskStatus.ASSIGNED, Priority.LOW), // Duplicate for Bug #1
+                seedTask(103L, ReferenceType.ORDER, Task.COLLECT_PAYMENT, 1L, TaskStatus.CANCELLED, Priority.MEDIUM)); // For Bug #2
+    }
+
+
+    private static TaskManagement seedTask(Long refId, ReferenceType refType, Task task, Long assigneeId, TaskStatus status, Priority priority) {
+        return TaskManagement.builder()
+                .referenceId(refId)
+                .referenceType(refType)
+                .task(task)
+                .assigneeId(assigneeId)
+                .status(status)
+                .priority(priority)
+                .description("This is a seed task.")
+                .taskDeadlineTime(System.currentTimeMillis() + 86400000) // 1 day from now
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.flynaut.workforcemgmt.repository;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.repository.sharded")
+public class ShardedRepositoryProperties {
+    private int shards = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 1024;
+    private int maxBatch = 256;
+}
@@ -0,0 +1,633 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import com.flynaut.workforcemgmt.repository.RepositoryMetrics.Operation;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Task store split into shards, each changed by exactly one writer thread. New tasks are placed by reference, so
+ * the tasks of one reference share a shard, and a task's id encodes its shard: shard {@code s} of {@code n} hands
+ * out the ids {@code s + 1, s + 1 + n, s + 1 + 2n, ...}. Saves become commands on the shard's bounded queue;
+ * the writer applies them in order, so nothing inside a shard is locked and a full queue pushes back on callers.
+ * <p>
+ * The writer takes a batch of queued commands at a time and brackets the whole batch with one
+ * {@link MutationLog#beginMutation()} / {@link MutationLog#endMutation()}, so with persistence enabled a batch
+ * waits for durability once (group commit). Callers are answered only after that.
+ * <p>
+ * Reads never go through the queue: each shard publishes its tasks in a concurrent map and a {@link TaskIndex},
+ * and queries that are not by id fan out over all shards and merge the sorted results.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "task-mgmt.repository", name = "type", havingValue = "sharded")
+@EnableConfigurationProperties(ShardedRepositoryProperties.class)
+public class ShardedTaskRepository implements TaskRepository {
+
+    private final Shard[] shards;
+    private volatile MutationLog mutationLog = MutationLog.DISABLED;
+    private volatile RepositoryMetrics metrics = RepositoryMetrics.DISABLED;
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+
+    public ShardedTaskRepository(ShardedRepositoryProperties properties) {
+        shards = new Shard[Math.max(1, properties.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, properties.getQueueCapacity(), Math.max(1, properties.getMaxBatch()));
+        }
+        // Seed data
+        saveAll(SeedTasks.create());
+    }
+
+
+    /**
+     * Lets every writer finish the commands already queued, then stops it.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+    }
+
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+
+    @Override
+    public Optional<TaskManagement> findById(Long id) {
+        long start = System.nanoTime();
+        TaskManagement task = shardOf(id).tasks.get(id);
+        metrics.record(Operation.FIND_BY_ID, start, 1, task == null ? 0 : 1);
+        return Optional.ofNullable(task);
+    }
+
+
+    @Override
+    public TaskManagement save(TaskManagement task) {
+        long start = System.nanoTime();
+        TaskManagement saved;
+        if (task.getId() == null) {
+            Shard shard = homeShard(task);
+            saved = shard.execute(log -> shard.create(List.of(task), log).get(0));
+        } else {
+            Shard shard = shardOf(task.getId());
+            saved = shard.execute(log -> shard.compareAndSet(task, log));
+        }
+        metrics.record(Operation.SAVE, start, 0, 1);
+        return saved;
+    }
+
+
+    /**
+     * Saves each shard's part of the batch as one command, all shards at once. Within a shard, new tasks are
+     * created first and existing ones compared and set in order, so a conflict leaves the tasks before it saved;
+     * the other shards' parts are saved regardless.
+     */
+    @Override
+    public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+        long start = System.nanoTime();
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskManagement task = tasks.get(i);
+            Shard shard = task.getId() == null ? homeShard(task) : shardOf(task.getId());
+            positions.get(shard.index).add(i);
+        }
+
+        List<CompletableFuture<List<TaskManagement>>> parts = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            List<Integer> part = positions.get(shard.index);
+            List<TaskManagement> shardTasks = new ArrayList<>(part.size());
+            for (int position : part) {
+                shardTasks.add(tasks.get(position));
+            }
+            parts.add(part.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : shard.submit(log -> shard.saveAll(shardTasks, log)));
+        }
+
+        TaskManagement[] saved = new TaskManagement[tasks.size()];
+        RuntimeException failure = null;
+        for (Shard shard : shards) {
+            try {
+                List<TaskManagement> shardSaved = await(parts.get(shard.index));
+                List<Integer> part = positions.get(shard.index);
+                for (int i = 0; i < part.size(); i++) {
+                    saved[part.get(i)] = shardSaved.get(i);
+                }
+            } catch (RuntimeException e) {
+                // Every part is waited for, so no write is still running when the caller sees the failure
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        metrics.record(Operation.SAVE_ALL, start, 0, tasks.size());
+        return Arrays.asList(saved);
+    }
+
+
+    /**
+     * Puts back a task read from durable storage under its original id, without logging it again.
+     */
+    @Override
+    public void restore(TaskManagement task) {
+        Shard shard = shardOf(task.getId());
+        shard.execute(log -> {
+            shard.reserveId(task.getId());
+            shard.taskIndex.reindex(shard.tasks.get(task.getId()), task);
+            shard.tasks.put(task.getId(), task);
+            return task;
+        });
+    }
+
+
+    @Override
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+
+    @Override
+    public void setMetrics(RepositoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void addChangeListener(TaskChangeListener changeListener) {
+        changeListeners.add(changeListener);
+    }
+
+
+    @Override
+    public void removeChangeListener(TaskChangeListener changeListener) {
+        changeListeners.remove(changeListener);
+    }
+
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (Shard shard : shards) {
+            count += shard.tasks.size();
+        }
+        return count;
+    }
+
+
+    @Override
+    public List<TaskManagement> findAll() {
+        long start = System.nanoTime();
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (Shard shard : shards) {
+            tasks.addAll(shard.tasks.values());
+        }
+        metrics.record(Operation.FIND_ALL, start, tasks.size(), tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public Stream<TaskManagement> streamAll() {
+        return Arrays.stream(shards).flatMap(shard -> shard.tasks.values().stream());
+    }
+
+
+    @Override
+    public Stream<TaskManagement> streamByPriority(Priority priority) {
+        Iterator<Long> ids = mergeIds(index -> index.idsByPriorityAfter(priority, Long.MIN_VALUE));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(ids, Spliterator.ORDERED), false)
+                .map(id -> shardOf(id).tasks.get(id))
+                .filter(task -> task != null && task.getPriority() == priority);
+    }
+
+
+    @Override
+    public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        return resolve(Operation.FIND_BY_REFERENCE, System.nanoTime(),
+                mergeIds(index -> index.idsByReference(referenceId, referenceType)), Integer.MAX_VALUE);
+    }
+
+
+    @Override
+    public List<TaskManagement> findOpenByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        return resolve(Operation.FIND_OPEN_BY_REFERENCE, System.nanoTime(),
+                mergeIds(index -> index.openIdsByReference(referenceId, referenceType)), Integer.MAX_VALUE);
+    }
+
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
+        long start = System.nanoTime();
+        List<TaskManagement> tasks = new ArrayList<>();
+        int scanned = 0;
+        for (Long assigneeId : new LinkedHashSet<>(assigneeIds)) {
+            Iterator<Long> ids = mergeIds(index -> index.idsByAssignee(assigneeId));
+            while (ids.hasNext()) {
+                scanned++;
+                Long id = ids.next();
+                TaskManagement task = shardOf(id).tasks.get(id);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        metrics.record(Operation.FIND_BY_ASSIGNEES, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public List<KeyedTask> findByAssigneeIdInAndDeadlineBetween(List<Long> assigneeIds, long fromInclusive, long toExclusive,
+                                                                PageCursor after, int limit) {
+        long start = System.nanoTime();
+        Collection<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        TaskIndex.DeadlineEntry cursor = toDeadlineEntry(after);
+        List<NavigableSet<TaskIndex.DeadlineEntry>> slices = new ArrayList<>();
+        for (Shard shard : shards) {
+            slices.addAll(shard.taskIndex.deadlinesBetween(assignees, fromInclusive, toExclusive, cursor));
+        }
+        return resolveEntries(Operation.FIND_BY_DEADLINE_BETWEEN, start, assignees, false, slices, limit);
+    }
+
+
+    @Override
+    public List<KeyedTask> findOpenByAssigneeIdInAndDeadlineBefore(List<Long> assigneeIds, long toExclusive,
+                                                                   PageCursor after, int limit) {
+        long start = System.nanoTime();
+        Collection<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        TaskIndex.DeadlineEntry cursor = toDeadlineEntry(after);
+        List<NavigableSet<TaskIndex.DeadlineEntry>> slices = new ArrayList<>();
+        for (Shard shard : shards) {
+            slices.addAll(shard.taskIndex.openDeadlinesBefore(assignees, toExclusive, cursor));
+        }
+        return resolveEntries(Operation.FIND_OPEN_BY_DEADLINE_BEFORE, start, assignees, true, slices, limit);
+    }
+
+
+    @Override
+    public List<TaskManagement> findByPriority(Priority priority, PageCursor after, int limit) {
+        long start = System.nanoTime();
+        long afterId = after == null ? Long.MIN_VALUE : after.taskId();
+        Iterator<Long> ids = mergeIds(index -> index.idsByPriorityAfter(priority, afterId));
+        List<TaskManagement> tasks = new ArrayList<>(Math.min(limit, 1024));
+        int scanned = 0;
+        while (tasks.size() < limit && ids.hasNext()) {
+            scanned++;
+            Long id = ids.next();
+            TaskManagement task = shardOf(id).tasks.get(id);
+            // The bucket may briefly lag a concurrent priority change
+            if (task != null && task.getPriority() == priority) {
+                tasks.add(task);
+            }
+        }
+        metrics.record(Operation.FIND_BY_PRIORITY, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    @Override
+    public List<TaskManagement> findByStatus(TaskStatus status) {
+        return resolve(Operation.FIND_BY_STATUS, System.nanoTime(), mergeIds(index -> index.idsByStatus(status)),
+                Integer.MAX_VALUE);
+    }
+
+
+    private Shard shardOf(Long id) {
+        return shards[(int) Math.floorMod(id - 1, (long) shards.length)];
+    }
+
+
+    // Tasks of the same reference land on the same shard
+    private Shard homeShard(TaskManagement task) {
+        long h = (task.getReferenceId() == null ? 0 : task.getReferenceId()) * 0x9E3779B97F4A7C15L;
+        return shards[Math.floorMod((int) (h ^ (h >>> 32)), shards.length)];
+    }
+
+
+    private Iterator<Long> mergeIds(Function<TaskIndex, Collection<Long>> bucket) {
+        List<Collection<Long>> buckets = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            buckets.add(bucket.apply(shard.taskIndex));
+        }
+        return TaskIndex.mergeSorted(buckets);
+    }
+
+
+    private List<TaskManagement> resolve(Operation operation, long start, Iterator<Long> ids, int limit) {
+        List<TaskManagement> tasks = new ArrayList<>();
+        int scanned = 0;
+        while (tasks.size() < limit && ids.hasNext()) {
+            scanned++;
+            Long id = ids.next();
+            TaskManagement task = shardOf(id).tasks.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        metrics.record(operation, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    /**
+     * Resolves the entries of every shard, merged into one order, until {@code limit} tasks still match
+     * the entry they were found under.
+     */
+    private List<KeyedTask> resolveEntries(Operation operation, long start, Collection<Long> assigneeIds, boolean open,
+                                           List<NavigableSet<TaskIndex.DeadlineEntry>> slices, int limit) {
+        Iterator<TaskIndex.DeadlineEntry> entries = TaskIndex.mergeSorted(slices);
+        List<KeyedTask> tasks = new ArrayList<>();
+        int scanned = 0;
+        while (tasks.size() < limit && entries.hasNext()) {
+            scanned++;
+            TaskIndex.DeadlineEntry entry = entries.next();
+            TaskManagement task = shardOf(entry.taskId()).tasks.get(entry.taskId());
+            // The entry may briefly lag a concurrent deadline, status or assignee change
+            if (task != null && TaskIndex.matches(entry, task, assigneeIds, open)) {
+                tasks.add(new KeyedTask(new PageCursor(entry.deadline(), entry.taskId()), task));
+            }
+        }
+        metrics.record(operation, start, scanned, tasks.size());
+        return tasks;
+    }
+
+
+    private static TaskIndex.DeadlineEntry toDeadlineEntry(PageCursor cursor) {
+        return cursor == null ? null : new TaskIndex.DeadlineEntry(cursor.sortKey(), cursor.taskId());
+    }
+
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+
+    private void taskChanged(TaskManagement previous, TaskManagement next) {
+        for (TaskChangeListener listener : changeListeners) {
+            listener.taskChanged(previous, next);
+        }
+    }
+
+
+    /**
+     * One partition of the store. Everything that changes it runs on {@link #writer}; readers only see the
+     * concurrent map and index.
+     */
+    private final class Shard implements Runnable {
+
+        private final int index;
+        private final Map<Long, TaskManagement> tasks = new ConcurrentHashMap<>();
+        private final TaskIndex taskIndex = new TaskIndex();
+        private final BlockingQueue<Command<?>> commands;
+        private final int maxBatch;
+        private final Thread writer;
+        private volatile boolean stopped;
+        // Owned by the writer
+        private long nextSequence;
+
+
+        Shard(int index, int queueCapacity, int maxBatch) {
+            this.index = index;
+            this.commands = new ArrayBlockingQueue<>(queueCapacity);
+            this.maxBatch = maxBatch;
+            this.writer = new Thread(this, "task-shard-" + index);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+
+        /**
+         * Runs {@code work} on the writer and waits for it, durability included. Blocks while the queue is full.
+         */
+        <T> T execute(Function<MutationLog, T> work) {
+            return await(submit(work));
+        }
+
+
+        <T> CompletableFuture<T> submit(Function<MutationLog, T> work) {
+            if (Thread.currentThread() == writer) {
+                // A change listener saving into its own shard; the batch it runs in is already bracketed
+                try {
+                    return CompletableFuture.completedFuture(work.apply(mutationLog));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            if (stopped) {
+                throw stoppedException();
+            }
+            Command<T> command = new Command<>(work);
+            try {
+                commands.put(command);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing a task write", e);
+            }
+            // stop() may have run since the check; if the writer did not take the command, nobody will
+            if (stopped && commands.remove(command)) {
+                command.result.completeExceptionally(stoppedException());
+            }
+            return command.result;
+        }
+
+
+        void stop() throws InterruptedException {
+            if (!stopped) {
+                stopped = true;
+                commands.put(Command.STOP);
+                writer.join();
+            }
+        }
+
+
+        @Override
+        public void run() {
+            List<Command<?>> batch = new ArrayList<>(maxBatch);
+            boolean stopping = false;
+            while (!stopping) {
+                try {
+                    batch.add(commands.take());
+                } catch (InterruptedException e) {
+                    // Only stop() ends the writer; callers may still be waiting on queued commands
+                    continue;
+                }
+                commands.drainTo(batch, maxBatch - 1);
+                MutationLog log = mutationLog;
+                RuntimeException logFailure = null;
+                log.beginMutation();
+                try {
+                    for (Command<?> command : batch) {
+                        if (command == Command.STOP) {
+                            stopping = true;
+                        } else {
+                            command.run(log);
+                        }
+                    }
+                } finally {
+                    try {
+                        log.endMutation();
+                    } catch (RuntimeException e) {
+                        logFailure = e;
+                    }
+                }
+                for (Command<?> command : batch) {
+                    command.complete(logFailure);
+                }
+                batch.clear();
+            }
+            // Queued behind STOP by callers racing stop(), which otherwise would wait forever
+            commands.drainTo(batch);
+            for (Command<?> command : batch) {
+                command.result.completeExceptionally(stoppedException());
+            }
+        }
+
+
+        private IllegalStateException stoppedException() {
+            return new IllegalStateException("Task shard " + index + " is stopped");
+        }
+
+
+        List<TaskManagement> saveAll(List<TaskManagement> shardTasks, MutationLog log) {
+            TaskManagement[] saved = new TaskManagement[shardTasks.size()];
+            List<TaskManagement> newTasks = new ArrayList<>();
+            for (TaskManagement task : shardTasks) {
+                if (task.getId() == null) {
+                    newTasks.add(task);
+                }
+            }
+            Iterator<TaskManagement> created = create(newTasks, log).iterator();
+            for (int i = 0; i < saved.length; i++) {
+                saved[i] = shardTasks.get(i).getId() == null ? created.next() : compareAndSet(shardTasks.get(i), log);
+            }
+            return Arrays.asList(saved);
+        }
+
+
+        List<TaskManagement> create(List<TaskManagement> newTasks, MutationLog log) {
+            List<TaskManagement> created = new ArrayList<>(newTasks.size());
+            for (TaskManagement task : newTasks) {
+                long id = nextSequence++ * shards.length + index + 1;
+                created.add(task.toBuilder().id(id).version(1).build());
+            }
+            taskIndex.indexNew(created);
+            for (TaskManagement task : created) {
+                tasks.put(task.getId(), task);
+                log.taskSaved(task);
+                taskChanged(null, task);
+            }
+            return created;
+        }
+
+
+        /**
+         * Replaces the stored snapshot with {@code task} if the stored version is still {@code task}'s version
+         * (0 for an id that is not stored yet), and returns what was stored, with the version incremented.
+         */
+        TaskManagement compareAndSet(TaskManagement task, MutationLog log) {
+            TaskManagement current = tasks.get(task.getId());
+            long currentVersion = current == null ? 0 : current.getVersion();
+            if (task.getVersion() != currentVersion) {
+                throw new ConflictException("Task " + task.getId() + " is at version " + currentVersion
+                        + ", not " + task.getVersion());
+            }
+            if (current == null) {
+                reserveId(task.getId());
+            }
+            TaskManagement next = task.withVersion(currentVersion + 1);
+            // Index before publishing, so a task that is visible by id is also reachable through every index
+            taskIndex.reindex(current, next);
+            tasks.put(next.getId(), next);
+            log.taskSaved(next);
+            taskChanged(current, next);
+            return next;
+        }
+
+
+        // Ids stored from outside keep the shard from handing them out again
+        void reserveId(long id) {
+            nextSequence = Math.max(nextSequence, (id - 1) / shards.length + 1);
+        }
+    }
+
+
+    private static final class Command<T> {
+
+        static final Command<Void> STOP = new Command<>(log -> null);
+
+        private final Function<MutationLog, T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException failure;
+
+
+        Command(Function<MutationLog, T> work) {
+            this.work = work;
+        }
+
+
+        void run(MutationLog log) {
+            try {
+                value = work.apply(log);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+
+        // Called once the batch is durable, or failed to become durable
+        void complete(RuntimeException logFailure) {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else if (logFailure != null) {
+                result.completeExceptionally(logFailure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+
+/**
+ * Told about every task change a repository applies, and about every history entry appended. It is called from inside the repository's per-task critical
+ * section, after the change is visible, so the changes of one task arrive in version order; it must not block.
+ * Restores from durable storage are not reported.
+ */
+public interface TaskChangeListener {
+
+    TaskChangeListener DISABLED = (previous, next) -> {
+    };
+
+    /**
+     * @param previous the snapshot that was replaced, or null for a new task
+     * @param next     the snapshot now stored
+     */
+    void taskChanged(TaskManagement previous, TaskManagement next);
+
+    /**
+     * Called after a comment or activity entry of {@code taskId} has become readable, outside any lock.
+     */
+    default void historyAppended(Long taskId) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.flynaut.workforcemgmt.repository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Append-only, timestamp-ordered history of a single task.
+ * Appends are serialised by a per-task lock which also assigns the timestamp, so the log is always
+ * in timestamp order. Readers never lock: they work on the immutable snapshot published by the last append.
+ * <p>
+ * Once compacted, the oldest entries sit in a {@link HistorySegmentStore} and the snapshot keeps only their
+ * addresses; the newest stay on the heap. Positions run across both tiers, so readers do not see the difference.
+ */
+final class TaskHistoryLog {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(null, new long[0], 0, new Entry[0], 0);
+    private Instant lastTimestamp = Instant.EPOCH; // guarded by appendLock
+
+
+    /**
+     * Appends the payload with the next timestamp; {@code onAppend} sees it together with its log position
+     * while the lock is still held.
+     */
+    <T> T append(T payload, BiConsumer<T, Instant> timestampSetter, ObjLongConsumer<T> onAppend) {
+        appendLock.lock();
+        try {
+            Instant now = Instant.now();
+            // Keep the log ordered even if the wall clock steps backwards
+            Instant timestamp = now.isBefore(lastTimestamp) ? lastTimestamp : now;
+            timestampSetter.accept(payload, timestamp);
+            long position = snapshot.size();
+            onAppend.accept(payload, position);
+            publish(timestamp, payload);
+            return payload;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+
+    /**
+     * Re-appends an entry read back from durable storage. Positions already present are skipped, so replaying
+     * overlapping sources is harmless.
+     *
+     * @return false when the entry was skipped
+     */
+    boolean restore(long position, Instant timestamp, Object payload) {
+        appendLock.lock();
+        try {
+            if (position != snapshot.size()) {
+                return false;
+            }
+            publish(timestamp, payload);
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+
+    /**
+     * Visits every entry with its log position, oldest first, as of the moment of the call.
+     */
+    void forEach(ObjLongConsumer<Object> consumer) {
+        Snapshot current = snapshot;
+        for (int i = 0; i < current.size(); i++) {
+            consumer.accept(current.payloadAt(i), i);
+        }
+    }
+
+
+    /**
+     * Entries from log position {@code fromPosition} on, skipping those timestamped before {@code since}
+     * when given, oldest first and at most {@code limit}.
+     */
+    HistorySlice read(Instant since, long fromPosition, int limit) {
+        Snapshot current = snapshot;
+        int from = (int) Math.min(current.size(), Math.max(0, fromPosition));
+        if (since != null) {
+            from = Math.max(from, current.firstIndexAtOrAfter(since));
+        }
+        int to = (int) Math.min(current.size(), (long) from + limit);
+        if (from >= to) {
+            return new HistorySlice(Collections.emptyList(), from, false);
+        }
+        List<Object> entries = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            entries.add(current.payloadAt(i));
+        }
+        return new HistorySlice(entries, to, to < current.size());
+    }
+
+
+    int hotSize() {
+        Snapshot current = snapshot;
+        return current.size() - current.coldSize();
+    }
+
+
+    /**
+     * Moves all but the newest {@code keepHot} entries into {@code store}. Entries are written without the lock,
+     * as they never change; the lock is only held to swap in the new snapshot, so appends barely wait.
+     * Only one thread may compact a log at a time, always into the same store.
+     *
+     * @param moved sees every entry moved
+     * @return the number of entries moved
+     */
+    int compact(HistorySegmentStore store, int keepHot, Consumer<Object> moved) throws IOException {
+        Snapshot current = snapshot;
+        if (current.store() != null && current.store() != store) {
+            throw new IllegalStateException("History log is already compacted into another store");
+        }
+        int cut = current.size() - keepHot;
+        if (cut <= current.coldSize()) {
+            return 0;
+        }
+        long[] addresses = Arrays.copyOf(current.coldAddresses(), cut);
+        for (int i = current.coldSize(); i < cut; i++) {
+            Object payload = current.payloadAt(i);
+            addresses[i] = store.append(payload);
+            moved.accept(payload);
+        }
+
+        appendLock.lock();
+        try {
+            // Appends may have landed meanwhile; they all stay hot
+            Snapshot latest = snapshot;
+            int hot = latest.size() - cut;
+            Entry[] entries = new Entry[Math.max(INITIAL_CAPACITY, hot * 2)];
+            System.arraycopy(latest.entries(), cut - latest.coldSize(), entries, 0, hot);
+            snapshot = new Snapshot(store, addresses, cut, entries, latest.size());
+        } finally {
+            appendLock.unlock();
+        }
+        return cut - current.coldSize();
+    }
+
+
+    private void publish(Instant timestamp, Object payload) {
+        if (timestamp.isAfter(lastTimestamp)) {
+            lastTimestamp = timestamp;
+        }
+        Snapshot current = snapshot;
+        Entry[] entries = current.entries();
+        int hot = current.size() - current.coldSize();
+        if (hot == entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(INITIAL_CAPACITY, entries.length * 2));
+        }
+        // Slots past a published size are never read, so the array can be shared with older snapshots
+        entries[hot] = new Entry(timestamp, payload);
+        snapshot = new Snapshot(current.store(), current.coldAddresses(), current.coldSize(), entries,
+                current.size() + 1);
+    }
+
+
+    private record Entry(Instant timestamp, Object payload) {
+    }
+
+
+    /**
+     * Positions below {@code coldSize} are in {@code store} at {@code coldAddresses}; the rest are
+     * {@code entries}, starting at index 0.
+     */
+    private record Snapshot(HistorySegmentStore store, long[] coldAddresses, int coldSize, Entry[] entries, int size) {
+
+        Object payloadAt(int position) {
+            return position < coldSize
+                    ? store.read(coldAddresses[position])
+                    : entries[position - coldSize].payload();
+        }
+
+
+        Instant timestampAt(int position) {
+            return position < coldSize
+                    ? store.timestampAt(coldAddresses[position])
+                    : entries[position - coldSize].timestamp();
+        }
+
+
+        int firstIndexAtOrAfter(Instant since) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestampAt(mid).isBefore(since)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import java.io.IOException;
+import java.time.Instant;
+
+public interface TaskHistoryRepository {
+    CommentDto appendComment(Long taskId, CommentDto comment);
+    ActivityLogDto appendActivity(Long taskId, ActivityLogDto activity);
+    HistorySlice findByTaskId(Long taskId, Instant since, long fromPosition, int limit);
+    void forEachEntry(EntryConsumer consumer);
+    void restore(Long taskId, long position, Object entry);
+    void setMutationLog(MutationLog mutationLog);
+    void addChangeListener(TaskChangeListener changeListener);
+    void removeChangeListener(TaskChangeListener changeListener);
+    HistoryStats stats();
+
+    /**
+     * Moves all but the newest {@code hotEntries} entries of each task into {@code coldStore}, for tasks holding
+     * at least {@code minBatch} entries more than that. Must not run concurrently with itself.
+     *
+     * @return the number of entries moved
+     */
+    long compact(HistorySegmentStore coldStore, int hotEntries, int minBatch) throws IOException;
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(Long taskId, long position, Object entry);
+    }
+}
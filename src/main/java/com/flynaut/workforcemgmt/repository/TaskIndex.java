@@ -0,0 +1,406 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes (assignee, reference, priority, status) from an indexed value to task ids,
+ * plus per-assignee deadline-ordered indexes for date range queries. Buckets are sorted so that
+ * callers can resume a scan after a (key, id) cursor without skipping over earlier entries.
+ * Tasks are immutable snapshots, so a save passes the snapshot it replaces to {@link #reindex} and the
+ * task is moved out of exactly the buckets that snapshot was indexed under.
+ * <p>
+ * A column store keeps the enum columns itself; {@link #forColumnStore()} gives an index without the
+ * priority/status buckets.
+ */
+class TaskIndex {
+
+    private final boolean columnBacked;
+    private final Map<Long, NavigableSet<Long>> byAssignee = new ConcurrentHashMap<>();
+    private final Map<ReferenceKey, NavigableSet<Long>> byReference = new ConcurrentHashMap<>();
+    // Subset of byReference for tasks that are neither COMPLETED nor CANCELLED
+    private final Map<ReferenceKey, NavigableSet<Long>> openByReference = new ConcurrentHashMap<>();
+    private final Map<Priority, NavigableSet<Long>> byPriority = new EnumMap<>(Priority.class);
+    private final Map<TaskStatus, NavigableSet<Long>> byStatus = new EnumMap<>(TaskStatus.class);
+
+    // Non-cancelled tasks with a deadline, and the open (ASSIGNED/STARTED) subset of them
+    private final Map<Long, NavigableSet<DeadlineEntry>> deadlinesByAssignee = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<DeadlineEntry>> openDeadlinesByAssignee = new ConcurrentHashMap<>();
+
+
+    TaskIndex() {
+        this(false);
+    }
+
+
+    private TaskIndex(boolean columnBacked) {
+        this.columnBacked = columnBacked;
+        if (columnBacked) {
+            return;
+        }
+        // Enum buckets are created up front so the EnumMaps are never structurally modified afterwards
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, new ConcurrentSkipListSet<>());
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+    }
+
+
+    static TaskIndex forColumnStore() {
+        return new TaskIndex(true);
+    }
+
+
+    /**
+     * Moves a task from the keys of {@code previous}, the snapshot being replaced (null for a new task),
+     * to those of {@code next}. The caller serialises calls for the same id, so bucket moves cannot interleave.
+     */
+    void reindex(TaskManagement previous, TaskManagement next) {
+        move(next.getId(), previous == null ? null : IndexKey.of(previous), IndexKey.of(next));
+    }
+
+
+    /**
+     * Indexes tasks whose ids were just reserved and are therefore unknown to every other writer.
+     * Ids are grouped per index key first, so each bucket is looked up once for the whole batch.
+     */
+    void indexNew(Collection<TaskManagement> tasks) {
+        Map<Long, List<Long>> assigneeGroups = new HashMap<>();
+        Map<ReferenceKey, List<Long>> referenceGroups = new HashMap<>();
+        Map<ReferenceKey, List<Long>> openReferenceGroups = new HashMap<>();
+        Map<Priority, List<Long>> priorityGroups = new EnumMap<>(Priority.class);
+        Map<TaskStatus, List<Long>> statusGroups = new EnumMap<>(TaskStatus.class);
+        Map<Long, List<DeadlineEntry>> deadlineGroups = new HashMap<>();
+        Map<Long, List<DeadlineEntry>> openDeadlineGroups = new HashMap<>();
+
+        for (TaskManagement task : tasks) {
+            Long id = task.getId();
+            IndexKey key = IndexKey.of(task);
+            group(assigneeGroups, key.assigneeId(), id);
+            group(referenceGroups, key.reference(), id);
+            group(openReferenceGroups, key.openReference(), id);
+            group(priorityGroups, key.priority(), id);
+            group(statusGroups, key.status(), id);
+            AssigneeDeadline deadline = key.deadlineKey();
+            if (deadline != null) {
+                group(deadlineGroups, deadline.assigneeId(), new DeadlineEntry(deadline.deadline(), id));
+            }
+            AssigneeDeadline openDeadline = key.openDeadlineKey();
+            if (openDeadline != null) {
+                group(openDeadlineGroups, openDeadline.assigneeId(), new DeadlineEntry(openDeadline.deadline(), id));
+            }
+        }
+
+        assigneeGroups.forEach((assigneeId, ids) ->
+                byAssignee.computeIfAbsent(assigneeId, k -> new ConcurrentSkipListSet<>()).addAll(ids));
+        referenceGroups.forEach((reference, ids) ->
+                byReference.computeIfAbsent(reference, k -> new ConcurrentSkipListSet<>()).addAll(ids));
+        openReferenceGroups.forEach((reference, ids) ->
+                openByReference.computeIfAbsent(reference, k -> new ConcurrentSkipListSet<>()).addAll(ids));
+        if (!columnBacked) {
+            priorityGroups.forEach((priority, ids) -> byPriority.get(priority).addAll(ids));
+            statusGroups.forEach((status, ids) -> byStatus.get(status).addAll(ids));
+        }
+        deadlineGroups.forEach((assigneeId, entries) ->
+                deadlinesByAssignee.computeIfAbsent(assigneeId, k -> new ConcurrentSkipListSet<>()).addAll(entries));
+        openDeadlineGroups.forEach((assigneeId, entries) ->
+                openDeadlinesByAssignee.computeIfAbsent(assigneeId, k -> new ConcurrentSkipListSet<>()).addAll(entries));
+    }
+
+
+    Set<Long> idsByAssignee(Long assigneeId) {
+        return bucket(byAssignee, assigneeId);
+    }
+
+
+    Set<Long> idsByReference(Long referenceId, ReferenceType referenceType) {
+        return bucket(byReference, new ReferenceKey(referenceId, referenceType));
+    }
+
+
+    Set<Long> openIdsByReference(Long referenceId, ReferenceType referenceType) {
+        return bucket(openByReference, new ReferenceKey(referenceId, referenceType));
+    }
+
+
+    /**
+     * Ids with the given priority greater than {@code afterId}, in id order.
+     */
+    Set<Long> idsByPriorityAfter(Priority priority, long afterId) {
+        NavigableSet<Long> ids = byPriority.get(priority);
+        return ids == null ? Collections.emptySet() : ids.tailSet(afterId, false);
+    }
+
+
+    Set<Long> idsByStatus(TaskStatus status) {
+        return bucket(byStatus, status);
+    }
+
+
+    /**
+     * Per-assignee slices of the entries of non-cancelled tasks with {@code fromInclusive <= deadline < toExclusive},
+     * strictly after {@code after} when given. Each slice is in (deadline, id) order; merge them with {@link #mergeSorted}.
+     */
+    List<NavigableSet<DeadlineEntry>> deadlinesBetween(Collection<Long> assigneeIds, long fromInclusive, long toExclusive,
+                                                       DeadlineEntry after) {
+        DeadlineEntry lower = DeadlineEntry.lowerBound(fromInclusive);
+        DeadlineEntry upper = DeadlineEntry.lowerBound(toExclusive);
+        boolean lowerInclusive = after == null || after.compareTo(lower) < 0;
+        if (!lowerInclusive) {
+            lower = after;
+        }
+        if (lower.compareTo(upper) >= 0) {
+            return Collections.emptyList();
+        }
+        List<NavigableSet<DeadlineEntry>> slices = new ArrayList<>();
+        for (Long assigneeId : assigneeIds) {
+            NavigableSet<DeadlineEntry> deadlines = deadlinesByAssignee.get(assigneeId);
+            if (deadlines != null) {
+                slices.add(deadlines.subSet(lower, lowerInclusive, upper, false));
+            }
+        }
+        return slices;
+    }
+
+
+    /**
+     * Per-assignee slices of the entries of ASSIGNED/STARTED tasks with {@code deadline < toExclusive},
+     * strictly after {@code after} when given. Each slice is in (deadline, id) order; merge them with {@link #mergeSorted}.
+     */
+    List<NavigableSet<DeadlineEntry>> openDeadlinesBefore(Collection<Long> assigneeIds, long toExclusive, DeadlineEntry after) {
+        DeadlineEntry upper = DeadlineEntry.lowerBound(toExclusive);
+        if (after != null && after.compareTo(upper) >= 0) {
+            return Collections.emptyList();
+        }
+        List<NavigableSet<DeadlineEntry>> slices = new ArrayList<>();
+        for (Long assigneeId : assigneeIds) {
+            NavigableSet<DeadlineEntry> deadlines = openDeadlinesByAssignee.get(assigneeId);
+            if (deadlines != null) {
+                slices.add(after == null ? deadlines.headSet(upper, false) : deadlines.subSet(after, false, upper, false));
+            }
+        }
+        return slices;
+    }
+
+
+    /**
+     * Whether {@code task}, read after {@code entry} was found, still belongs at that entry of the requested assignees'
+     * deadline index ({@code open} for the ASSIGNED/STARTED one). Entries move just before a save publishes the new
+     * snapshot, so a read racing a save can pair an entry with the snapshot from before or after the move.
+     */
+    static boolean matches(DeadlineEntry entry, TaskManagement task, Collection<Long> assigneeIds, boolean open) {
+        IndexKey key = IndexKey.of(task);
+        AssigneeDeadline indexed = open ? key.openDeadlineKey() : key.deadlineKey();
+        return indexed != null && indexed.deadline() == entry.deadline() && assigneeIds.contains(indexed.assigneeId());
+    }
+
+
+    /**
+     * Lazy k-way merge of sources that each iterate in ascending order.
+     */
+    static <T extends Comparable<? super T>> Iterator<T> mergeSorted(List<? extends Iterable<T>> sources) {
+        if (sources.size() == 1) {
+            return sources.get(0).iterator();
+        }
+        PriorityQueue<MergeCursor<T>> heads = new PriorityQueue<>(Math.max(1, sources.size()));
+        for (Iterable<T> source : sources) {
+            Iterator<T> it = source.iterator();
+            if (it.hasNext()) {
+                heads.add(new MergeCursor<>(it.next(), it));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                MergeCursor<T> head = heads.remove();
+                if (head.rest().hasNext()) {
+                    heads.add(new MergeCursor<>(head.rest().next(), head.rest()));
+                }
+                return head.current();
+            }
+        };
+    }
+
+
+    private void move(Long id, IndexKey previous, IndexKey next) {
+        moveDeadline(deadlinesByAssignee, id, previous == null ? null : previous.deadlineKey(), next.deadlineKey());
+        moveDeadline(openDeadlinesByAssignee, id, previous == null ? null : previous.openDeadlineKey(), next.openDeadlineKey());
+        ReferenceKey previousOpenReference = previous == null ? null : previous.openReference();
+        if (!Objects.equals(previousOpenReference, next.openReference())) {
+            remove(openByReference, previousOpenReference, id);
+            add(openByReference, next.openReference(), id);
+        }
+        if (previous == null) {
+            add(byAssignee, next.assigneeId(), id);
+            add(byReference, next.reference(), id);
+            if (!columnBacked) {
+                add(byPriority, next.priority(), id);
+                add(byStatus, next.status(), id);
+            }
+            return;
+        }
+        if (!Objects.equals(previous.assigneeId(), next.assigneeId())) {
+            remove(byAssignee, previous.assigneeId(), id);
+            add(byAssignee, next.assigneeId(), id);
+        }
+        if (!Objects.equals(previous.reference(), next.reference())) {
+            remove(byReference, previous.reference(), id);
+            add(byReference, next.reference(), id);
+        }
+        if (columnBacked) {
+            return;
+        }
+        if (previous.priority() != next.priority()) {
+            remove(byPriority, previous.priority(), id);
+            add(byPriority, next.priority(), id);
+        }
+        if (previous.status() != next.status()) {
+            remove(byStatus, previous.status(), id);
+            add(byStatus, next.status(), id);
+        }
+    }
+
+
+    private static void moveDeadline(Map<Long, NavigableSet<DeadlineEntry>> index, Long id,
+                                     AssigneeDeadline previous, AssigneeDeadline next) {
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        if (previous != null) {
+            NavigableSet<DeadlineEntry> deadlines = index.get(previous.assigneeId());
+            if (deadlines != null) {
+                deadlines.remove(new DeadlineEntry(previous.deadline(), id));
+            }
+        }
+        if (next != null) {
+            index.computeIfAbsent(next.assigneeId(), k -> new ConcurrentSkipListSet<>())
+                    .add(new DeadlineEntry(next.deadline(), id));
+        }
+    }
+
+
+    private static <K, V> void group(Map<K, List<V>> groups, K key, V value) {
+        if (key != null) {
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+    }
+
+
+    private static <K> void add(Map<K, NavigableSet<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+
+    private static <K> void remove(Map<K, NavigableSet<Long>> index, K key, Long id) {
+        if (key != null) {
+            // Empty buckets are kept: dropping them could race with a concurrent add to the same key
+            Set<Long> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+
+    private static <K> Set<Long> bucket(Map<K, NavigableSet<Long>> index, K key) {
+        if (key == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> ids = index.get(key);
+        return ids == null ? Collections.emptySet() : ids;
+    }
+
+
+    /**
+     * Entry of a deadline index, ordered by deadline and then task id.
+     */
+    record DeadlineEntry(long deadline, long taskId) implements Comparable<DeadlineEntry> {
+
+        private static final Comparator<DeadlineEntry> ORDER = Comparator
+                .comparingLong(DeadlineEntry::deadline)
+                .thenComparingLong(DeadlineEntry::taskId);
+
+        static DeadlineEntry lowerBound(long deadline) {
+            return new DeadlineEntry(deadline, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(DeadlineEntry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+
+    private record MergeCursor<T extends Comparable<? super T>>(T current, Iterator<T> rest)
+            implements Comparable<MergeCursor<T>> {
+
+        @Override
+        public int compareTo(MergeCursor<T> other) {
+            return current.compareTo(other.current);
+        }
+    }
+
+
+    private record ReferenceKey(Long referenceId, ReferenceType referenceType) {
+    }
+
+
+    private record AssigneeDeadline(Long assigneeId, long deadline) {
+    }
+
+
+    private record IndexKey(Long assigneeId, ReferenceKey reference, Priority priority, TaskStatus status, Long deadline) {
+
+        static IndexKey of(TaskManagement task) {
+            ReferenceKey reference = task.getReferenceId() == null || task.getReferenceType() == null
+                    ? null
+                    : new ReferenceKey(task.getReferenceId(), task.getReferenceType());
+            return new IndexKey(task.getAssigneeId(), reference, task.getPriority(), task.getStatus(), task.getTaskDeadlineTime());
+        }
+
+        ReferenceKey openReference() {
+            return status == TaskStatus.COMPLETED || status == TaskStatus.CANCELLED ? null : reference;
+        }
+
+        AssigneeDeadline deadlineKey() {
+            if (assigneeId == null || deadline == null || status == TaskStatus.CANCELLED) {
+                return null;
+            }
+            return new AssigneeDeadline(assigneeId, deadline);
+        }
+
+        AssigneeDeadline openDeadlineKey() {
+            if (status != TaskStatus.ASSIGNED && status != TaskStatus.STARTED) {
+                return null;
+            }
+            return deadlineKey();
+        }
+    }
+}
@@ -1,14 +1,46 @@
 package com.flynaut.workforcemgmt.repository;
 
 import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
 import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository {
     Optional<TaskManagement> findById(Long id);
+
+    /**
+     * Stores {@code task} if the stored snapshot still has {@code task}'s version and returns what was stored,
+     * with the version incremented. A task without an id is created with a new id at version 1.
+     *
+     * @throws com.flynaut.workforcemgmt.common.exception.ConflictException if the task changed since it was read
+     */
     TaskManagement save(TaskManagement task);
+
+    /**
+     * Like {@link #save} for each task; returns the stored snapshots in the order given.
+     */
+    List<TaskManagement> saveAll(List<TaskManagement> tasks);
+
     List<TaskManagement> findAll();
-    List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, com.flynaut.workforcemgmt.model.enums.ReferenceType referenceType);
+    Stream<TaskManagement> streamAll();
+    Stream<TaskManagement> streamByPriority(Priority priority);
+    List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType);
+    List<TaskManagement> findOpenByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType);
     List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds);
+    List<KeyedTask> findByAssigneeIdInAndDeadlineBetween(List<Long> assigneeIds, long fromInclusive, long toExclusive,
+                                                         PageCursor after, int limit);
+    List<KeyedTask> findOpenByAssigneeIdInAndDeadlineBefore(List<Long> assigneeIds, long toExclusive,
+                                                            PageCursor after, int limit);
+    List<TaskManagement> findByPriority(Priority priority, PageCursor after, int limit);
+    List<TaskManagement> findByStatus(TaskStatus status);
+    void restore(TaskManagement task);
+    void setMutationLog(MutationLog mutationLog);
+    void setMetrics(RepositoryMetrics metrics);
+    void addChangeListener(TaskChangeListener changeListener);
+    void removeChangeListener(TaskChangeListener changeListener);
+    long count();
 }
@@ -0,0 +1,100 @@
+package com.flynaut.workforcemgmt.repository.metrics;
+
+import com.flynaut.workforcemgmt.repository.RepositoryMetrics;
+import com.flynaut.workforcemgmt.repository.TaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the task store: a latency timer and scanned/returned counters per repository operation,
+ * and gauges for the size of the task and history stores.
+ * <p>
+ * Every meter is registered up front and looked up by operation ordinal, so recording allocates nothing.
+ * A high scanned-to-returned ratio on an operation points at a scan where an index lookup was expected.
+ */
+@Component
+public class TaskStoreMetrics implements RepositoryMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final Timer[] timers;
+    private final Counter[] scanned;
+    private final Counter[] returned;
+
+
+    public TaskStoreMetrics(MeterRegistry registry, TaskRepository taskRepository, TaskHistoryRepository taskHistoryRepository) {
+        Operation[] operations = Operation.values();
+        timers = new Timer[operations.length];
+        scanned = new Counter[operations.length];
+        returned = new Counter[operations.length];
+        for (Operation operation : operations) {
+            String name = operation.getMethodName();
+            timers[operation.ordinal()] = Timer.builder("task.repository.operation")
+                    .description("Latency of task repository operations")
+                    .tag("operation", name)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            scanned[operation.ordinal()] = Counter.builder("task.repository.scanned")
+                    .description("Tasks examined by task repository operations")
+                    .tag("operation", name)
+                    .baseUnit("tasks")
+                    .register(registry);
+            returned[operation.ordinal()] = Counter.builder("task.repository.returned")
+                    .description("Tasks returned by task repository operations")
+                    .tag("operation", name)
+                    .baseUnit("tasks")
+                    .register(registry);
+        }
+
+        Gauge.builder("task.store.size", taskRepository, TaskRepository::count)
+                .description("Tasks in the store")
+                .baseUnit("tasks")
+                .register(registry);
+        Gauge.builder("task.history.tasks", taskHistoryRepository, history -> history.stats().tasks())
+                .description("Tasks with at least one history entry")
+                .baseUnit("tasks")
+                .register(registry);
+        Gauge.builder("task.history.entries", taskHistoryRepository, history -> history.stats().comments())
+                .description("History entries by kind")
+                .tag("kind", "comment")
+                .register(registry);
+        Gauge.builder("task.history.entries", taskHistoryRepository, history -> history.stats().activities())
+                .description("History entries by kind")
+                .tag("kind", "activity")
+                .register(registry);
+        Gauge.builder("task.history.max.length", taskHistoryRepository, history -> history.stats().maxEntriesPerTask())
+                .description("Longest history of a single task")
+                .baseUnit("entries")
+                .register(registry);
+        Gauge.builder("task.history.memory", taskHistoryRepository, history -> history.stats().estimatedBytes())
+                .description("Estimated heap held by comments and activity entries")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("task.history.cold.entries", taskHistoryRepository, history -> history.stats().coldEntries())
+                .description("History entries moved off the heap into memory-mapped segments")
+                .baseUnit("entries")
+                .register(registry);
+
+        taskRepository.setMetrics(this);
+    }
+
+
+    @Override
+    public void record(Operation operation, long startNanos, int scannedTasks, int returnedTasks) {
+        int index = operation.ordinal();
+        timers[index].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (scannedTasks > 0) {
+            scanned[index].increment(scannedTasks);
+        }
+        if (returnedTasks > 0) {
+            returned[index].increment(returnedTasks);
+        }
+    }
+}
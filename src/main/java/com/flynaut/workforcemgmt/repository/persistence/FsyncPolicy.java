@@ -0,0 +1,10 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+public enum FsyncPolicy {
+    /** Every write waits until the log is forced to disk; concurrent writers share one force (group commit). */
+    ALWAYS,
+    /** The log is forced in the background every fsync interval; a crash can lose the last interval. */
+    INTERVAL,
+    /** The log is only forced when a segment is full or the application shuts down. */
+    NEVER
+}
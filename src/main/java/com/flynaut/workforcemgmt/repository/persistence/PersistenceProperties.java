@@ -0,0 +1,20 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.persistence")
+public class PersistenceProperties {
+    private boolean enabled = false;
+    private Path directory = Path.of("data");
+    private int segmentSizeMb = 64;
+    private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+    private Duration fsyncInterval = Duration.ofMillis(50);
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+    private int snapshotParts = 16;
+    private int recoveryThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,276 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary encoding shared by the write-ahead log and snapshots.
+ * <p>
+ * A frame is {@code [int payload length][int CRC32C of type+payload][byte type][payload]}. A zero length marks the
+ * unused tail of a pre-allocated segment; a CRC mismatch marks a torn write. Both end the readable part of a file.
+ * Enums are stored as ordinals (-1 for null), so constants may only ever be appended to the enums.
+ */
+final class RecordCodec {
+
+    static final byte TASK = 1;
+    static final byte COMMENT = 2;
+    static final byte ACTIVITY = 3;
+
+    static final int FRAME_HEADER_BYTES = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+    private static final byte HAS_REFERENCE_ID = 1;
+    private static final byte HAS_ASSIGNEE_ID = 1 << 1;
+    private static final byte HAS_DEADLINE = 1 << 2;
+    // Frames written before tasks were versioned lack this flag and decode at version 1
+    private static final byte HAS_VERSION = 1 << 3;
+    private static final byte OVERDUE = 1 << 4;
+
+    private static final Task[] TASKS = Task.values();
+    private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private RecordCodec() {
+    }
+
+
+    record Frame(byte type, ByteBuffer payload) {
+    }
+
+
+    record HistoryRecord(long taskId, long position, Object entry) {
+    }
+
+
+    static byte[] encodeTask(TaskManagement task) {
+        byte[] description = utf8(task.getDescription());
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES * 5 + 5 + Integer.BYTES + length(description));
+        byte flags = HAS_VERSION;
+        if (task.getReferenceId() != null) {
+            flags |= HAS_REFERENCE_ID;
+        }
+        if (task.getAssigneeId() != null) {
+            flags |= HAS_ASSIGNEE_ID;
+        }
+        if (task.getTaskDeadlineTime() != null) {
+            flags |= HAS_DEADLINE;
+        }
+        if (task.isOverdue()) {
+            flags |= OVERDUE;
+        }
+        buf.putLong(task.getId());
+        buf.put(flags);
+        if (task.getReferenceId() != null) {
+            buf.putLong(task.getReferenceId());
+        }
+        if (task.getAssigneeId() != null) {
+            buf.putLong(task.getAssigneeId());
+        }
+        if (task.getTaskDeadlineTime() != null) {
+            buf.putLong(task.getTaskDeadlineTime());
+        }
+        buf.putLong(task.getVersion());
+        buf.put(ordinal(task.getReferenceType()));
+        buf.put(ordinal(task.getTask()));
+        buf.put(ordinal(task.getStatus()));
+        buf.put(ordinal(task.getPriority()));
+        putString(buf, description);
+        return trimmed(buf);
+    }
+
+
+    static TaskManagement decodeTask(ByteBuffer buf) {
+        TaskManagement.TaskManagementBuilder task = TaskManagement.builder().id(buf.getLong());
+        byte flags = buf.get();
+        if ((flags & HAS_REFERENCE_ID) != 0) {
+            task.referenceId(buf.getLong());
+        }
+        if ((flags & HAS_ASSIGNEE_ID) != 0) {
+            task.assigneeId(buf.getLong());
+        }
+        if ((flags & HAS_DEADLINE) != 0) {
+            task.taskDeadlineTime(buf.getLong());
+        }
+        task.version((flags & HAS_VERSION) != 0 ? buf.getLong() : 1);
+        task.overdue((flags & OVERDUE) != 0);
+        task.referenceType(fromOrdinal(REFERENCE_TYPES, buf.get()));
+        task.task(fromOrdinal(TASKS, buf.get()));
+        task.status(fromOrdinal(STATUSES, buf.get()));
+        task.priority(fromOrdinal(PRIORITIES, buf.get()));
+        task.description(getString(buf));
+        return task.build();
+    }
+
+
+    static byte historyType(Object entry) {
+        if (entry instanceof CommentDto) {
+            return COMMENT;
+        }
+        if (entry instanceof ActivityLogDto) {
+            return ACTIVITY;
+        }
+        throw new IllegalArgumentException("Unsupported history entry: " + entry.getClass());
+    }
+
+
+    static byte[] encodeHistory(long taskId, long position, Object entry) {
+        Instant timestamp;
+        byte[] text;
+        byte[] author;
+        if (entry instanceof CommentDto comment) {
+            timestamp = comment.getTimestamp();
+            text = utf8(comment.getComment());
+            author = utf8(comment.getCommentedBy());
+        } else {
+            ActivityLogDto activity = (ActivityLogDto) entry;
+            timestamp = activity.getTimestamp();
+            text = utf8(activity.getMessage());
+            author = utf8(activity.getCreatedBy());
+        }
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES * 3 + Integer.BYTES * 3 + length(text) + length(author));
+        buf.putLong(taskId);
+        buf.putLong(position);
+        buf.putLong(timestamp.getEpochSecond());
+        buf.putInt(timestamp.getNano());
+        putString(buf, text);
+        putString(buf, author);
+        return trimmed(buf);
+    }
+
+
+    static HistoryRecord decodeHistory(byte type, ByteBuffer buf) {
+        long taskId = buf.getLong();
+        long position = buf.getLong();
+        Instant timestamp = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+        String text = getString(buf);
+        String author = getString(buf);
+        if (type == COMMENT) {
+            CommentDto comment = new CommentDto();
+            comment.setTaskId(taskId);
+            comment.setTimestamp(timestamp);
+            comment.setComment(text);
+            comment.setCommentedBy(author);
+            return new HistoryRecord(taskId, position, comment);
+        }
+        ActivityLogDto activity = new ActivityLogDto();
+        activity.setTimestamp(timestamp);
+        activity.setMessage(text);
+        activity.setCreatedBy(author);
+        return new HistoryRecord(taskId, position, activity);
+    }
+
+
+    static int frameLength(byte[] payload) {
+        return FRAME_HEADER_BYTES + payload.length;
+    }
+
+
+    static void writeFrame(ByteBuffer target, byte type, byte[] payload) {
+        target.putInt(payload.length);
+        target.putInt(checksum(type, payload));
+        target.put(type);
+        target.put(payload);
+    }
+
+
+    /**
+     * Reads the frame at the buffer's position and advances past it.
+     *
+     * @return the frame, or null at the end of the written data or at a torn/corrupt frame
+     */
+    static Frame readFrame(ByteBuffer source) {
+        if (source.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int start = source.position();
+        int length = source.getInt(start);
+        if (length <= 0 || length > source.remaining() - FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int storedChecksum = source.getInt(start + Integer.BYTES);
+        byte type = source.get(start + Integer.BYTES * 2);
+        ByteBuffer payload = source.slice(start + FRAME_HEADER_BYTES, length);
+        if (checksum(type, payload.duplicate()) != storedChecksum) {
+            return null;
+        }
+        source.position(start + FRAME_HEADER_BYTES + length);
+        return new Frame(type, payload);
+    }
+
+
+    private static int checksum(byte type, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+
+    private static int checksum(byte type, ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+
+    private static <E> E fromOrdinal(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putInt(-1);
+            return;
+        }
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+
+    private static String getString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static byte[] trimmed(ByteBuffer buf) {
+        if (buf.position() == buf.capacity()) {
+            return buf.array();
+        }
+        byte[] bytes = new byte[buf.position()];
+        System.arraycopy(buf.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,166 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.repository.TaskHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Full-store snapshots in {@code snapshot-<segment>} directories, where {@code segment} is the first WAL segment
+ * not covered by the snapshot. Tasks and their history are split into parts by task id, so a task's frames
+ * always sit in one part and parts can be loaded in parallel. A snapshot only counts once its directory has been
+ * renamed into place, which happens after every part is written and synced.
+ */
+@Slf4j
+final class SnapshotStore {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PART_PREFIX = "part-";
+
+    private final Path directory;
+    private final int parts;
+
+
+    SnapshotStore(Path directory, int parts) {
+        this.directory = directory;
+        this.parts = Math.max(1, parts);
+    }
+
+
+    void write(long segmentNumber, Stream<TaskManagement> tasks, TaskHistoryRepository historyRepository) throws IOException {
+        Path target = directory.resolve(SNAPSHOT_PREFIX + segmentNumber);
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + segmentNumber + TEMP_SUFFIX);
+        deleteRecursively(temp);
+        Files.createDirectories(temp);
+
+        DataOutputStream[] outputs = new DataOutputStream[parts];
+        try {
+            for (int i = 0; i < parts; i++) {
+                outputs[i] = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(temp.resolve(PART_PREFIX + i)), 1 << 16));
+            }
+            Iterator<TaskManagement> it = tasks.iterator();
+            while (it.hasNext()) {
+                TaskManagement task = it.next();
+                writeFrame(outputs[partOf(task.getId())], RecordCodec.TASK, RecordCodec.encodeTask(task));
+            }
+            historyRepository.forEachEntry((taskId, position, entry) -> {
+                try {
+                    writeFrame(outputs[partOf(taskId)], RecordCodec.historyType(entry),
+                            RecordCodec.encodeHistory(taskId, position, entry));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (DataOutputStream output : outputs) {
+                if (output != null) {
+                    output.close();
+                }
+            }
+        }
+
+        for (int i = 0; i < parts; i++) {
+            try (FileChannel channel = FileChannel.open(temp.resolve(PART_PREFIX + i), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * @return the WAL segment number of the newest complete snapshot
+     */
+    Optional<Long> latest() throws IOException {
+        return listSnapshots().stream()
+                .map(SnapshotStore::segmentNumber)
+                .max(Comparator.naturalOrder());
+    }
+
+
+    List<Path> partsOf(long segmentNumber) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(SNAPSHOT_PREFIX + segmentNumber))) {
+            return files.filter(path -> path.getFileName().toString().startsWith(PART_PREFIX)).toList();
+        }
+    }
+
+
+    void deleteOlderThan(long segmentNumber) throws IOException {
+        for (Path snapshot : listSnapshots()) {
+            if (segmentNumber(snapshot) < segmentNumber) {
+                deleteRecursively(snapshot);
+            }
+        }
+    }
+
+
+    /**
+     * Maps a snapshot part or WAL segment read-only for decoding.
+     */
+    static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+
+    private int partOf(Long taskId) {
+        return (int) Math.floorMod(taskId, (long) parts);
+    }
+
+
+    private static void writeFrame(DataOutputStream output, byte type, byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(RecordCodec.frameLength(payload));
+        RecordCodec.writeFrame(frame, type, payload);
+        output.write(frame.array());
+    }
+
+
+    private List<Path> listSnapshots() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && !name.endsWith(TEMP_SUFFIX);
+            }).toList();
+        }
+    }
+
+
+    private static long segmentNumber(Path snapshot) {
+        return Long.parseLong(snapshot.getFileName().toString().substring(SNAPSHOT_PREFIX.length()));
+    }
+
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
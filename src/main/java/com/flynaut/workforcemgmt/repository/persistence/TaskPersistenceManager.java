@@ -0,0 +1,297 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.repository.MutationLog;
+import com.flynaut.workforcemgmt.repository.TaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional durability for the in-memory repositories: every task save and history append is written to the
+ * {@link WriteAheadLog}, the full store is snapshotted periodically so old log segments can be deleted, and on
+ * startup the latest snapshot plus the log tail are replayed in parallel.
+ * <p>
+ * Reads never touch any of this. Writers share the read side of a checkpoint lock; a snapshot takes the write
+ * side only for the instant it rolls the log, so no change can be logged in an old segment yet still be missing
+ * from the store when the snapshot scans it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task-mgmt.persistence", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class TaskPersistenceManager implements MutationLog {
+
+    private final TaskRepository taskRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final PersistenceProperties properties;
+    private final SnapshotStore snapshotStore;
+
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    // LSN of the last frame appended by the current thread's mutation, awaited once the mutation ends
+    private final ThreadLocal<long[]> pendingLsn = ThreadLocal.withInitial(() -> new long[1]);
+
+    // Never nulled once opened: after stop() the closed log stays in place so late writers fail cleanly instead of on null
+    private volatile WriteAheadLog wal;
+    private ScheduledExecutorService snapshotScheduler;
+
+
+    public TaskPersistenceManager(TaskRepository taskRepository, TaskHistoryRepository taskHistoryRepository,
+                                  PersistenceProperties properties) {
+        this.taskRepository = taskRepository;
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.properties = properties;
+        this.snapshotStore = new SnapshotStore(properties.getDirectory(), properties.getSnapshotParts());
+    }
+
+
+    @PostConstruct
+    public void start() throws IOException, InterruptedException {
+        boolean fresh = snapshotStore.latest().isEmpty() && WriteAheadLog.listSegments(properties.getDirectory()).isEmpty();
+        long nextSegment = recover();
+        wal = new WriteAheadLog(properties.getDirectory(), properties.getSegmentSizeMb() * 1024 * 1024,
+                properties.getFsync(), properties.getFsyncInterval().toMillis(), nextSegment);
+        taskRepository.setMutationLog(this);
+        taskHistoryRepository.setMutationLog(this);
+        if (fresh) {
+            // The seed data was created before logging was attached; make it durable so later restarts see the same ids
+            snapshot();
+        }
+
+        long intervalMillis = properties.getSnapshotInterval().toMillis();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        taskRepository.setMutationLog(MutationLog.DISABLED);
+        taskHistoryRepository.setMutationLog(MutationLog.DISABLED);
+        WriteAheadLog current = wal;
+        if (current != null) {
+            checkpointLock.writeLock().lock();
+            try {
+                current.close();
+            } finally {
+                checkpointLock.writeLock().unlock();
+            }
+        }
+    }
+
+
+    @Override
+    public void beginMutation() {
+        checkpointLock.readLock().lock();
+    }
+
+
+    @Override
+    public void endMutation() {
+        checkpointLock.readLock().unlock();
+        long[] lsn = pendingLsn.get();
+        if (lsn[0] != 0) {
+            // Waiting happens outside the repositories' critical sections, so a slow fsync never blocks other keys
+            wal.awaitDurable(lsn[0]);
+            lsn[0] = 0;
+        }
+    }
+
+
+    @Override
+    public void taskSaved(TaskManagement task) {
+        pendingLsn.get()[0] = wal.append(RecordCodec.TASK, RecordCodec.encodeTask(task));
+    }
+
+
+    @Override
+    public void historyAppended(Long taskId, long position, Object entry) {
+        pendingLsn.get()[0] = wal.append(RecordCodec.historyType(entry), RecordCodec.encodeHistory(taskId, position, entry));
+    }
+
+
+    /**
+     * Writes a snapshot and drops the log segments and snapshots it supersedes.
+     */
+    public void snapshot() throws IOException {
+        long segment;
+        checkpointLock.writeLock().lock();
+        try {
+            segment = wal.roll();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        long started = System.nanoTime();
+        snapshotStore.write(segment, taskRepository.streamAll(), taskHistoryRepository);
+        snapshotStore.deleteOlderThan(segment);
+        wal.deleteSegmentsBefore(segment);
+        log.info("Snapshot at WAL segment {} written in {} ms", segment, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.error("Snapshot failed; the write-ahead log keeps growing until one succeeds", e);
+        }
+    }
+
+
+    /**
+     * Loads the latest snapshot and replays the WAL tail after it.
+     *
+     * @return the segment number the new log should start at
+     */
+    private long recover() throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        Path directory = properties.getDirectory();
+        Optional<Long> snapshotSegment = snapshotStore.latest();
+        long firstSegment = snapshotSegment.orElse(0L);
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, properties.getRecoveryThreads()));
+        try {
+            if (snapshotSegment.isPresent()) {
+                // Each part holds all frames of its tasks, in order, so parts replay independently
+                List<Future<Void>> loads = new ArrayList<>();
+                for (Path part : snapshotStore.partsOf(snapshotSegment.get())) {
+                    loads.add(workers.submit(() -> {
+                        Replay replay = decode(SnapshotStore.map(part));
+                        replay.apply(taskRepository, taskHistoryRepository);
+                        return null;
+                    }));
+                }
+                await(loads);
+            }
+
+            List<Path> segments = new ArrayList<>();
+            for (Path segment : WriteAheadLog.listSegments(directory)) {
+                if (WriteAheadLog.segmentNumber(segment) >= firstSegment) {
+                    segments.add(segment);
+                }
+            }
+            // Segments decode in parallel; merging them in segment order keeps the latest state of each task
+            List<Future<Replay>> decoded = new ArrayList<>();
+            for (Path segment : segments) {
+                decoded.add(workers.submit(() -> decode(SnapshotStore.map(segment))));
+            }
+            Replay tail = new Replay();
+            for (Replay replay : await(decoded)) {
+                tail.merge(replay);
+            }
+            List<Future<Void>> applies = new ArrayList<>();
+            for (Replay partition : tail.partition(Math.max(1, properties.getRecoveryThreads()))) {
+                applies.add(workers.submit(() -> {
+                    partition.apply(taskRepository, taskHistoryRepository);
+                    return null;
+                }));
+            }
+            await(applies);
+
+            long nextSegment = segments.isEmpty()
+                    ? firstSegment
+                    : WriteAheadLog.segmentNumber(segments.get(segments.size() - 1)) + 1;
+            log.info("Recovered task store from snapshot {} and {} WAL segments in {} ms",
+                    snapshotSegment.map(String::valueOf).orElse("none"), segments.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return nextSegment;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+
+    private static Replay decode(ByteBuffer buffer) {
+        Replay replay = new Replay();
+        RecordCodec.Frame frame;
+        while ((frame = RecordCodec.readFrame(buffer)) != null) {
+            if (frame.type() == RecordCodec.TASK) {
+                TaskManagement task = RecordCodec.decodeTask(frame.payload());
+                replay.tasks.put(task.getId(), task);
+            } else {
+                RecordCodec.HistoryRecord record = RecordCodec.decodeHistory(frame.type(), frame.payload());
+                replay.history.computeIfAbsent(record.taskId(), k -> new ArrayList<>()).add(record);
+            }
+        }
+        return replay;
+    }
+
+
+    private static <T> List<T> await(List<Future<T>> futures) throws IOException, InterruptedException {
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new UncheckedIOException(new IOException("Recovery failed", e.getCause()));
+            }
+        }
+        return results;
+    }
+
+
+    /**
+     * Decoded frames: the last state of each task and each task's history records in log order.
+     */
+    private static final class Replay {
+        private final Map<Long, TaskManagement> tasks = new HashMap<>();
+        private final Map<Long, List<RecordCodec.HistoryRecord>> history = new HashMap<>();
+
+        void merge(Replay later) {
+            tasks.putAll(later.tasks);
+            later.history.forEach((taskId, records) ->
+                    history.computeIfAbsent(taskId, k -> new ArrayList<>()).addAll(records));
+        }
+
+        List<Replay> partition(int count) {
+            List<Replay> partitions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                partitions.add(new Replay());
+            }
+            tasks.forEach((id, task) -> partitions.get((int) Math.floorMod(id, (long) count)).tasks.put(id, task));
+            history.forEach((taskId, records) ->
+                    partitions.get((int) Math.floorMod(taskId, (long) count)).history.put(taskId, records));
+            return partitions;
+        }
+
+        void apply(TaskRepository taskRepository, TaskHistoryRepository historyRepository) {
+            tasks.values().forEach(taskRepository::restore);
+            history.forEach((taskId, records) -> {
+                for (RecordCodec.HistoryRecord record : records) {
+                    historyRepository.restore(taskId, record.position(), record.entry());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of binary frames on pre-allocated, memory-mapped segment files ({@code wal-<number>.log}).
+ * <p>
+ * Appends copy the frame into the mapped segment under a short lock and return a log sequence number (LSN).
+ * Durability follows the {@link FsyncPolicy}: with {@code ALWAYS} the caller waits in {@link #awaitDurable(long)}
+ * until a background flusher has forced the segment; one force covers every frame appended before it, so
+ * concurrent writers share the cost (group commit).
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private FileChannel channel;           // guarded by appendLock
+    private MappedByteBuffer segment;      // guarded by appendLock
+    private long segmentNumber;            // guarded by appendLock
+    private long appendedLsn;              // guarded by appendLock
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushRequested = flushLock.newCondition();
+    private final Condition flushCompleted = flushLock.newCondition();
+    private boolean flushPending;          // guarded by flushLock
+    private volatile long durableLsn;
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+
+    WriteAheadLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, long firstSegment) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        openSegment(firstSegment);
+        if (fsyncPolicy == FsyncPolicy.NEVER) {
+            this.flusher = null;
+        } else {
+            this.flusher = new Thread(this::runFlusher, "wal-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        }
+    }
+
+
+    /**
+     * @return the LSN just past the appended frame
+     * @throws IllegalStateException once the log is closed
+     */
+    long append(byte type, byte[] payload) {
+        int frameLength = RecordCodec.frameLength(payload);
+        if (frameLength > segmentSize) {
+            throw new IllegalArgumentException("Record of " + frameLength + " bytes exceeds the WAL segment size");
+        }
+        appendLock.lock();
+        try {
+            ensureOpen();
+            // A trailing zero length marks the end of a segment, so always leave room for it
+            if (segment.remaining() < frameLength + Integer.BYTES) {
+                roll();
+            }
+            RecordCodec.writeFrame(segment, type, payload);
+            appendedLsn = lsn(segmentNumber, segment.position());
+            return appendedLsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+
+    /**
+     * Blocks until the frame ending at {@code lsn} is on disk, when the policy requires it.
+     */
+    void awaitDurable(long lsn) {
+        if (fsyncPolicy != FsyncPolicy.ALWAYS || durableLsn >= lsn) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            while (durableLsn < lsn && running) {
+                flushPending = true;
+                flushRequested.signal();
+                flushCompleted.awaitUninterruptibly();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+
+    /**
+     * Forces the current segment and starts a new one. Every frame appended before this call lives in a
+     * segment numbered below the returned one.
+     *
+     * @return the number of the new segment
+     * @throws IllegalStateException once the log is closed
+     */
+    long roll() {
+        appendLock.lock();
+        try {
+            ensureOpen();
+            segment.force();
+            markDurable(appendedLsn);
+            closeChannel();
+            openSegment(segmentNumber + 1);
+            return segmentNumber;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+
+    /**
+     * Deletes segments whose content is fully covered by a snapshot taken at {@code segmentNumber}.
+     */
+    void deleteSegmentsBefore(long segmentNumber) throws IOException {
+        for (Path path : listSegments(directory)) {
+            if (segmentNumber(path) < segmentNumber) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+
+    /**
+     * Stops the flusher and forces what was appended. A closed log rejects appends and rolls, while
+     * {@link #awaitDurable(long)} returns at once, so it can stay in place for writers still holding it.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (flusher != null) {
+            flushLock.lock();
+            try {
+                flushRequested.signal();
+            } finally {
+                flushLock.unlock();
+            }
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        appendLock.lock();
+        try {
+            segment.force();
+            markDurable(appendedLsn);
+            closeChannel();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .toList());
+            segments.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+            return segments;
+        }
+    }
+
+
+    static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+
+    private void runFlusher() {
+        while (running) {
+            flushLock.lock();
+            try {
+                if (!flushPending) {
+                    if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+                        flushRequested.awaitNanos(fsyncIntervalNanos);
+                    } else {
+                        flushRequested.await();
+                    }
+                }
+                flushPending = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                flushLock.unlock();
+            }
+
+            MappedByteBuffer target;
+            long targetLsn;
+            appendLock.lock();
+            try {
+                target = segment;
+                targetLsn = appendedLsn;
+            } finally {
+                appendLock.unlock();
+            }
+            if (targetLsn > durableLsn) {
+                // Frames of earlier segments were forced when the segment was rolled
+                target.force();
+            }
+            markDurable(targetLsn);
+        }
+    }
+
+
+    private void markDurable(long lsn) {
+        flushLock.lock();
+        try {
+            if (lsn > durableLsn) {
+                durableLsn = lsn;
+            }
+            flushCompleted.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+
+    private void openSegment(long number) {
+        try {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segmentNumber = number;
+            appendedLsn = lsn(number, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open WAL segment " + number + " in " + directory, e);
+        }
+    }
+
+
+    private void ensureOpen() {
+        // close() clears the flag before taking appendLock, so a check under the lock never races a closed channel
+        if (!running) {
+            throw new IllegalStateException("The write-ahead log in " + directory + " is closed");
+        }
+    }
+
+
+    private void closeChannel() {
+        try {
+            // The mapping stays valid after the channel is closed, which the flusher may still rely on
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close WAL segment {}", segmentNumber, e);
+        }
+    }
+
+
+    private static long lsn(long segmentNumber, int offset) {
+        return (segmentNumber << 32) | offset;
+    }
+}
@@ -0,0 +1,109 @@
+package com.flynaut.workforcemgmt.repository.tiering;
+
+import com.flynaut.workforcemgmt.repository.HistorySegmentStore;
+import com.flynaut.workforcemgmt.repository.HistoryStats;
+import com.flynaut.workforcemgmt.repository.TaskHistoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the heap held by task history bounded: every task keeps its newest entries in memory, and older ones are
+ * periodically moved into memory-mapped segments, where reads still find them. A task is only compacted once it
+ * has a batch of entries to move, so a busy task is not rewritten on every run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task-mgmt.history.tiering", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(HistoryTieringProperties.class)
+public class HistoryTieringManager {
+
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final HistoryTieringProperties properties;
+    private final MeterRegistry registry;
+    private HistorySegmentStore coldStore;
+    private ScheduledExecutorService compactionScheduler;
+
+
+    public HistoryTieringManager(TaskHistoryRepository taskHistoryRepository, HistoryTieringProperties properties,
+                                 MeterRegistry registry) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+
+    @PostConstruct
+    public void start() throws IOException {
+        coldStore = new HistorySegmentStore(properties.getDirectory(), (int) properties.getSegmentSize().toBytes());
+        Gauge.builder("task.history.cold.bytes", coldStore, HistorySegmentStore::bytesUsed)
+                .description("Bytes of history entries in memory-mapped segments")
+                .baseUnit("bytes")
+                .register(registry);
+        compactionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-history-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getCompactionInterval().toMillis();
+        compactionScheduler.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (compactionScheduler != null) {
+            // Not shutdownNow: an interrupt while a segment is being mapped would close its channel
+            compactionScheduler.shutdown();
+            compactionScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        if (coldStore != null) {
+            coldStore.close();
+        }
+    }
+
+
+    /**
+     * Runs one compaction pass over all tasks.
+     *
+     * @return the number of entries moved out of the heap
+     */
+    public synchronized long compact() throws IOException {
+        long started = System.nanoTime();
+        HistoryStats before = taskHistoryRepository.stats();
+        long moved = taskHistoryRepository.compact(coldStore, properties.getHotEntries(), properties.getMinBatch());
+        if (moved > 0) {
+            HistoryStats after = taskHistoryRepository.stats();
+            log.info("Moved {} history entries to segments in {} ms; estimated heap {} KB -> {} KB, {} KB in {} segments",
+                    moved, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                    before.estimatedBytes() / 1024, after.estimatedBytes() / 1024,
+                    coldStore.bytesUsed() / 1024, coldStore.segmentCount());
+        }
+        return moved;
+    }
+
+
+    public HistorySegmentStore coldStore() {
+        return coldStore;
+    }
+
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            // An exception would cancel the periodic run; the entries stay on the heap until the next one
+            log.error("History compaction failed", e);
+        }
+    }
+}
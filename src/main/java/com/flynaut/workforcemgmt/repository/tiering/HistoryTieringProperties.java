@@ -0,0 +1,19 @@
+package com.flynaut.workforcemgmt.repository.tiering;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.history.tiering")
+public class HistoryTieringProperties {
+    private boolean enabled = false;
+    private Path directory = Path.of("data/history-cold");
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private int hotEntries = 256;
+    private int minBatch = 256;
+    private Duration compactionInterval = Duration.ofSeconds(30);
+}
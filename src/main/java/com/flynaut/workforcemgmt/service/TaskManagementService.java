@@ -1,18 +1,25 @@
 package com.flynaut.workforcemgmt.service;
 
 import com.flynaut.workforcemgmt.dto.*;
+import com.flynaut.workforcemgmt.model.TaskManagement;
 import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TaskManagementService {
     List<TaskManagementDto> createTasks(TaskCreateRequest request);
     List<TaskManagementDto> updateTasks(UpdateTaskRequest request);
     String assignByReference(AssignByReferenceRequest request);
-    List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request);
+    List<AssignByReferenceResultDto> assignByReferenceBulk(BulkAssignByReferenceRequest request);
+    PagedResult<TaskManagement> fetchTasksByDate(TaskFetchByDateRequest request);
     TaskManagementDto findTaskById(Long id);
-    TaskManagementDto updatePriority(Long taskId, Priority priority);
-    List<TaskManagementDto> fetchTasksByPriority(Priority priority);
+    TaskManagementDto updatePriority(Long taskId, Priority priority, Long expectedVersion);
+    PagedResult<TaskManagement> fetchTasksByPriority(Priority priority, String cursor, Integer limit);
+    Stream<TaskManagement> streamTasks(Priority priority, TaskStatus status, List<Long> assigneeIds);
     void addComment(Long taskId, CommentDto commentDto);
-    List<Object> getTaskHistory(Long taskId);
+    PagedResult<Object> getTaskHistory(Long taskId, Long since, String cursor, Integer limit);
+    boolean markOverdue(Long taskId, long deadline, boolean escalatePriority);
 }
\ No newline at end of file
@@ -0,0 +1,352 @@
+package com.flynaut.workforcemgmt.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.exception.ServiceUnavailableException;
+import com.flynaut.workforcemgmt.common.format.WireFormat;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.response.Response;
+import com.flynaut.workforcemgmt.repository.TaskChangeListener;
+import com.flynaut.workforcemgmt.repository.TaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serialized bodies of the task read endpoints, keyed by query and wire format, with ETag and 304 handling.
+ * <p>
+ * Every key belongs to a scope whose stamp is bumped after each change that can alter its responses: a task's
+ * stamp when the task is saved, its history stamp when a comment or activity entry is appended, and a priority's
+ * stamp when a task enters, leaves or changes within that priority. An entry records the stamp read before its
+ * body was rendered, and only serves while the stamp is unchanged, so nothing has to be evicted on a write and a
+ * write that races a render makes that render stale rather than cached. Task and history stamps are striped by
+ * id to keep their memory fixed; a stripe collision only costs the other task a miss.
+ * <p>
+ * Renders are single-flight: concurrent requests for the same variant at the same stamp share the render already
+ * in progress and its serialized body, so a burst of identical reads of a task costs one lookup and one
+ * serialization. {@link #serveAsync} renders on the cache's own pool and returns at once, so request threads are
+ * not held while a render runs or while they wait for someone else's. The pool's queue is bounded: a render that
+ * finds it full fails with {@link ServiceUnavailableException}, and so does every read sharing it.
+ * <p>
+ * Entries are weighed by body size and evicted once the configured size is reached. Hits, misses (including
+ * stale entries), evictions, reads that joined a render in flight and 304 responses are exported as Micrometer
+ * meters under {@code task-responses}.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache implements TaskChangeListener {
+
+    private static final int STAMP_STRIPES = 1 << 16;
+    // Key, entry, ETag and the cache's own node, charged on top of the body
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+    private static final String CACHE_NAME = "task-responses";
+
+    public enum Scope {
+        TASK, PRIORITY, HISTORY
+    }
+
+    public record Key(Scope scope, long id, String query) {
+
+        public static Key task(long taskId) {
+            return new Key(Scope.TASK, taskId, "");
+        }
+
+        public static Key priority(Priority priority, String cursor, Integer limit) {
+            return new Key(Scope.PRIORITY, priority.ordinal(), cursor + "|" + limit);
+        }
+
+        public static Key history(long taskId, Long since, String cursor, Integer limit) {
+            return new Key(Scope.HISTORY, taskId, since + "|" + cursor + "|" + limit);
+        }
+    }
+
+    private record Variant(Key key, WireFormat format) {
+    }
+
+    private record Entry(long stamp, String eTag, byte[] body) {
+    }
+
+    private record Flight(Variant variant, long stamp) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    // Stamps restart from zero with the process, so ETags not taken from the task carry the instance too
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray taskStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLongArray historyStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLongArray priorityStamps = new AtomicLongArray(Priority.values().length);
+
+    // Recorded by hand, because a present entry with an old stamp is a miss
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+    private final Cache<Variant, Entry> cache;
+    private final Map<Flight, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService renderPool;
+    private final Counter notModified;
+    private final Counter coalesced;
+
+
+    public ResponseCache(TaskRepository taskRepository, TaskHistoryRepository taskHistoryRepository,
+                         ObjectMapper objectMapper, MeterRegistry registry, ResponseCacheProperties properties) {
+        this.taskRepository = taskRepository;
+        this.taskHistoryRepository = taskHistoryRepository;
+        for (WireFormat format : WireFormat.values()) {
+            mappers.put(format, format.mapperFrom(objectMapper));
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Variant variant, Entry entry) ->
+                        ENTRY_OVERHEAD_BYTES + variant.key().query().length() + entry.body().length)
+                // Evict on the writing thread, so the size bound holds even while the common pool is busy
+                .executor(Runnable::run)
+                .recordStats(() -> stats)
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        this.notModified = Counter.builder("task.response.not.modified")
+                .description("Conditional reads answered with 304 Not Modified")
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+        this.coalesced = Counter.builder("task.response.coalesced")
+                .description("Reads that shared a render already in flight instead of rendering again")
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "task-response-render-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        int renderThreads = Math.max(1, properties.getRenderThreads());
+        // Bounded, so a burst of distinct reads is turned away instead of queueing without limit
+        this.renderPool = new ThreadPoolExecutor(renderThreads, renderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getRenderQueueCapacity())), threadFactory);
+    }
+
+
+    @PostConstruct
+    public void start() {
+        taskRepository.addChangeListener(this);
+        taskHistoryRepository.addChangeListener(this);
+    }
+
+
+    @PreDestroy
+    public void stop() {
+        taskRepository.removeChangeListener(this);
+        taskHistoryRepository.removeChangeListener(this);
+        renderPool.shutdownNow();
+        // Renders dropped from the pool's queue would leave their readers waiting until the request times out
+        IllegalStateException stopped = new IllegalStateException("Response cache is stopped");
+        inFlight.values().forEach(rendering -> rendering.completeExceptionally(stopped));
+        inFlight.clear();
+    }
+
+
+    /**
+     * Serves the response of {@code key} with an ETag derived from its stamp.
+     */
+    public <T> ResponseEntity<byte[]> serve(Key key, String accept, String ifNoneMatch, Supplier<Response<T>> render) {
+        return serve(key, accept, ifNoneMatch, render, null);
+    }
+
+
+    /**
+     * Serves the response of {@code key}, rendering and serializing it only if its scope changed since it was
+     * cached, and answers 304 without a body when {@code ifNoneMatch} holds the current ETag. The body is encoded
+     * in the format {@code accept} prefers; every format of a response shares its ETag. A render runs on the
+     * calling thread, unless an identical one is in flight, which the caller waits for.
+     *
+     * @param eTagOf computes the ETag of a rendered response; null to derive it from the stamp
+     */
+    public <T> ResponseEntity<byte[]> serve(Key key, String accept, String ifNoneMatch, Supplier<Response<T>> render,
+                                            Function<Response<T>, String> eTagOf) {
+        Variant variant = new Variant(key, WireFormat.negotiate(accept));
+        CompletableFuture<Entry> entry = entry(variant, render, eTagOf, Runnable::run);
+        try {
+            return respond(variant, entry.join(), ifNoneMatch);
+        } catch (CompletionException e) {
+            // The render's own exception, so the exception handler maps it as if it had been thrown here
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * Like {@link #serve}, but completes later instead of blocking: a render runs on the cache's pool, and a read
+     * that finds an identical render in flight completes with it. A hit returns a future that is already done.
+     */
+    public <T> CompletableFuture<ResponseEntity<byte[]>> serveAsync(Key key, String accept, String ifNoneMatch,
+                                                                    Supplier<Response<T>> render,
+                                                                    Function<Response<T>, String> eTagOf) {
+        Variant variant = new Variant(key, WireFormat.negotiate(accept));
+        return entry(variant, render, eTagOf, renderPool).thenApply(entry -> respond(variant, entry, ifNoneMatch));
+    }
+
+
+    // The cached entry if its scope is unchanged, else the render in flight for this stamp, else a new render
+    private <T> CompletableFuture<Entry> entry(Variant variant, Supplier<Response<T>> render,
+                                               Function<Response<T>, String> eTagOf, Executor executor) {
+        // Read before rendering: a change that lands meanwhile bumps the stamp, so the entry cannot outlive it
+        long stamp = stamp(variant.key());
+        Entry entry = cache.asMap().get(variant);
+        if (entry != null && entry.stamp() == stamp) {
+            stats.recordHits(1);
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        Flight flight = new Flight(variant, stamp);
+        CompletableFuture<Entry> rendering = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = inFlight.putIfAbsent(flight, rendering);
+        if (leader != null) {
+            coalesced.increment();
+            return leader;
+        }
+        stats.recordMisses(1);
+        try {
+            executor.execute(() -> render(flight, rendering, render, eTagOf));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(flight, rendering);
+            rendering.completeExceptionally(renderPool.isShutdown()
+                    ? new IllegalStateException("Response cache is stopped")
+                    : new ServiceUnavailableException("Too many reads are waiting to be rendered, retry shortly"));
+        }
+        return rendering;
+    }
+
+
+    private <T> void render(Flight flight, CompletableFuture<Entry> rendering, Supplier<Response<T>> render,
+                            Function<Response<T>, String> eTagOf) {
+        try {
+            Response<T> response = render.get();
+            String eTag = eTagOf != null ? eTagOf.apply(response) : "\"" + instanceId + "-" + flight.stamp() + "\"";
+            Entry entry = new Entry(flight.stamp(), eTag, serialize(response, flight.variant().format()));
+            // A slow render must not replace a newer one that finished first
+            cache.asMap().merge(flight.variant(), entry,
+                    (cached, rendered) -> cached.stamp() > rendered.stamp() ? cached : rendered);
+            rendering.complete(entry);
+        } catch (RuntimeException | Error e) {
+            // Every read waiting on this render fails the same way, e.g. with the task not found
+            rendering.completeExceptionally(e);
+        } finally {
+            // Only once the entry is cached, so a read arriving now hits instead of rendering again
+            inFlight.remove(flight, rendering);
+        }
+    }
+
+
+    private ResponseEntity<byte[]> respond(Variant variant, Entry entry, String ifNoneMatch) {
+        if (matches(ifNoneMatch, entry.eTag())) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.eTag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.eTag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(variant.format().mediaType())
+                .body(entry.body());
+    }
+
+
+    @Override
+    public void taskChanged(TaskManagement previous, TaskManagement next) {
+        taskStamps.incrementAndGet(stripe(next.getId()));
+        bumpPriority(next.getPriority());
+        if (previous != null && previous.getPriority() != next.getPriority()) {
+            bumpPriority(previous.getPriority());
+        }
+    }
+
+
+    @Override
+    public void historyAppended(Long taskId) {
+        historyStamps.incrementAndGet(stripe(taskId));
+    }
+
+
+    private long stamp(Key key) {
+        return switch (key.scope()) {
+            case TASK -> taskStamps.get(stripe(key.id()));
+            case HISTORY -> historyStamps.get(stripe(key.id()));
+            case PRIORITY -> priorityStamps.get((int) key.id());
+        };
+    }
+
+
+    private void bumpPriority(Priority priority) {
+        if (priority != null) {
+            priorityStamps.incrementAndGet(priority.ordinal());
+        }
+    }
+
+
+    private byte[] serialize(Response<?> response, WireFormat format) {
+        try {
+            return mappers.get(format).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (STAMP_STRIPES - 1);
+    }
+
+
+    // If-None-Match holds a list of tags, possibly weak, or "*"
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
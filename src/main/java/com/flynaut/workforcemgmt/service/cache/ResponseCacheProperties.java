@@ -0,0 +1,14 @@
+package com.flynaut.workforcemgmt.service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.cache")
+public class ResponseCacheProperties {
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private int renderThreads = Runtime.getRuntime().availableProcessors();
+    // Renders waiting for a thread; reads beyond it are answered 503
+    private int renderQueueCapacity = 1024;
+}
@@ -0,0 +1,190 @@
+package com.flynaut.workforcemgmt.service.deadline;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.TaskChangeListener;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import com.flynaut.workforcemgmt.service.TaskManagementService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reacts to task deadlines as they pass: the task is marked overdue, its priority optionally raised one step, and
+ * an activity entry is recorded.
+ * <p>
+ * Every open task with a deadline has one timeout in a {@link TimingWheel}. The repository change hook only queues
+ * a schedule or cancel command, so saves never wait on the wheel; a single thread applies the queued commands
+ * and advances the wheel once per tick, which keeps the wheel and its id lookup free of locks. Expired deadlines
+ * are handed to a small worker pool, because marking a task is a save that may wait on the write-ahead log.
+ * Nothing ever scans the store except once at startup, since restores from durable storage are not reported.
+ * <p>
+ * Marking a task overdue is a save, so deadlines only start firing once every listener has loaded the stored
+ * tasks: listeners load them once all singletons are created, and the tick starts with the lifecycle beans, which
+ * Spring starts after that. A save landing during a load could otherwise be counted twice, or queue a command
+ * that the load's older snapshot then overrides.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task-mgmt.deadlines", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineEngine implements TaskChangeListener, SmartInitializingSingleton, SmartLifecycle {
+
+    private static final long CANCEL = Long.MIN_VALUE;
+
+    private record Command(long taskId, long deadline) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final TaskManagementService taskManagementService;
+    private final DeadlineProperties properties;
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+    // Owned by the wheel thread
+    private final TimingWheel wheel;
+    private final Map<Long, TimingWheel.Timeout> pending = new HashMap<>();
+    private volatile int pendingCount;
+
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService workers;
+    private volatile boolean running;
+
+
+    public DeadlineEngine(TaskRepository taskRepository, TaskManagementService taskManagementService,
+                          DeadlineProperties properties) {
+        this.taskRepository = taskRepository;
+        this.taskManagementService = taskManagementService;
+        this.properties = properties;
+        this.wheel = new TimingWheel(properties.getTick().toMillis(), System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "task-deadline-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        follow();
+    }
+
+
+    /**
+     * Follows changes and schedules the deadlines of the tasks already stored.
+     */
+    public void follow() {
+        taskRepository.addChangeListener(this);
+        try (Stream<TaskManagement> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> taskChanged(null, task));
+        }
+    }
+
+
+    /**
+     * Starts firing deadlines.
+     */
+    @Override
+    public void start() {
+        long tickMillis = properties.getTick().toMillis();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+
+    @PreDestroy
+    @Override
+    public void stop() {
+        running = false;
+        taskRepository.removeChangeListener(this);
+        ticker.shutdownNow();
+        workers.shutdownNow();
+    }
+
+
+    // Called under the task's row lock, so the commands of one task are queued in the order of its versions
+    @Override
+    public void taskChanged(TaskManagement previous, TaskManagement next) {
+        Long previousDeadline = previous == null ? null : pendingDeadline(previous);
+        Long nextDeadline = pendingDeadline(next);
+        if (Objects.equals(previousDeadline, nextDeadline)) {
+            return;
+        }
+        commands.add(new Command(next.getId(), nextDeadline != null ? nextDeadline : CANCEL));
+    }
+
+
+    /**
+     * Deadlines scheduled and not yet fired, as of the last tick.
+     */
+    public int pendingDeadlines() {
+        return pendingCount;
+    }
+
+
+    void tick() {
+        try {
+            Command command;
+            while ((command = commands.poll()) != null) {
+                TimingWheel.Timeout previous = pending.remove(command.taskId());
+                if (previous != null) {
+                    wheel.cancel(previous);
+                }
+                if (command.deadline() != CANCEL) {
+                    pending.put(command.taskId(), wheel.schedule(command.taskId(), command.deadline()));
+                }
+            }
+            wheel.advance(System.currentTimeMillis(), timeout -> {
+                pending.remove(timeout.taskId);
+                workers.execute(() -> fire(timeout.taskId, timeout.deadline));
+            });
+            pendingCount = wheel.size();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic tick and stop every later deadline
+            log.error("Deadline tick failed", e);
+        }
+    }
+
+
+    private void fire(long taskId, long deadline) {
+        try {
+            taskManagementService.markOverdue(taskId, deadline, properties.isEscalatePriority());
+        } catch (RuntimeException e) {
+            log.warn("Could not mark task {} overdue: {}", taskId, e.getMessage());
+        }
+    }
+
+
+    // Open tasks that are not overdue yet wait for their deadline
+    private static Long pendingDeadline(TaskManagement task) {
+        boolean open = task.getStatus() == TaskStatus.ASSIGNED || task.getStatus() == TaskStatus.STARTED;
+        return open && !task.isOverdue() ? task.getTaskDeadlineTime() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.flynaut.workforcemgmt.service.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.deadlines")
+public class DeadlineProperties {
+    private boolean enabled = true;
+    private Duration tick = Duration.ofMillis(100);
+    private boolean escalatePriority = false;
+    private int workerThreads = 2;
+}
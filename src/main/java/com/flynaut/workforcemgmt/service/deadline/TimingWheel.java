@@ -0,0 +1,156 @@
+package com.flynaut.workforcemgmt.service.deadline;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck). Level 0 has one slot per tick, and every slot of a higher level
+ * spans a full turn of the level below it, so six levels of 64 slots cover far more than any task deadline.
+ * A timeout sits in a doubly linked slot list, which makes scheduling and cancelling O(1) whatever the number of
+ * pending timeouts; when a level wraps around, the next slot of the level above is cascaded into the lower levels.
+ * Advancing costs one step per elapsed tick plus the timeouts cascaded or expired.
+ * <p>
+ * Not thread safe: one thread applies every change and advances the wheel.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    static final class Timeout {
+        final long taskId;
+        final long deadline;
+        private final long expiryTick;
+        private int level;
+        private int index;
+        private Timeout previous;
+        private Timeout next;
+        private boolean linked;
+
+        private Timeout(long taskId, long deadline, long expiryTick) {
+            this.taskId = taskId;
+            this.deadline = deadline;
+            this.expiryTick = expiryTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+    // Every tick before this one has been processed
+    private long currentTick;
+    private int size;
+
+
+    TimingWheel(long tickMillis, long originMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+    }
+
+
+    /**
+     * @param deadline epoch millis; the timeout expires on the first tick at or after it, or on the next tick if it
+     *                 has already passed
+     */
+    Timeout schedule(long taskId, long deadline) {
+        long expiryTick = Math.max(0, Math.floorDiv(deadline - originMillis + tickMillis - 1, tickMillis));
+        Timeout timeout = new Timeout(taskId, deadline, expiryTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+
+    void cancel(Timeout timeout) {
+        if (timeout.linked) {
+            unlink(timeout);
+            size--;
+        }
+    }
+
+
+    /**
+     * Processes every tick up to {@code nowMillis}, handing each expired timeout to {@code expired}.
+     */
+    void advance(long nowMillis, Consumer<Timeout> expired) {
+        long lastTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        while (currentTick <= lastTick) {
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & MASK);
+            }
+            int index = (int) currentTick & MASK;
+            Timeout timeout = slots[0][index];
+            slots[0][index] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.linked = false;
+                timeout.previous = null;
+                timeout.next = null;
+                if (timeout.expiryTick <= currentTick) {
+                    size--;
+                    expired.accept(timeout);
+                } else {
+                    place(timeout);
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+    }
+
+
+    int size() {
+        return size;
+    }
+
+
+    private void cascade(int level, int index) {
+        Timeout timeout = slots[level][index];
+        slots[level][index] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.linked = false;
+            timeout.previous = null;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+
+    // Picks the lowest level whose span covers the remaining ticks; overdue timeouts go into the current slot
+    private void place(Timeout timeout) {
+        long delta = Math.min(Math.max(0, timeout.expiryTick - currentTick), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        timeout.level = level;
+        timeout.index = (int) (tick >>> (SLOT_BITS * level)) & MASK;
+        Timeout head = slots[level][timeout.index];
+        timeout.next = head;
+        if (head != null) {
+            head.previous = timeout;
+        }
+        slots[level][timeout.index] = timeout;
+        timeout.linked = true;
+    }
+
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.level][timeout.index] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.linked = false;
+    }
+}
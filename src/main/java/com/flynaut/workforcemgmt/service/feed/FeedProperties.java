@@ -0,0 +1,17 @@
+package com.flynaut.workforcemgmt.service.feed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.feed")
+public class FeedProperties {
+    private int replayCapacity = 16_384;
+    private int subscriberBuffer = 1_024;
+    private int senderThreads = 32;
+    private int maxAssigneesPerSubscription = 1_000;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+}
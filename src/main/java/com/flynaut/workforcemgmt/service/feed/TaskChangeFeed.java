@@ -0,0 +1,477 @@
+package com.flynaut.workforcemgmt.service.feed;
+
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.dto.TaskChangeEventDto;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapper;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.TaskChangeType;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.TaskChangeListener;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes task changes to SSE subscribers, each filtered by a set of assignees. A change is delivered to the
+ * subscribers of the task's assignee and, on a reassignment, of the previous assignee too.
+ * <p>
+ * Every change gets the next sequence number and goes into a fixed-size replay journal, so a client that
+ * reconnects with {@code Last-Event-ID} receives what it missed. A write only claims its sequence and stores the
+ * task in the journal ring, so writers never wait on each other or on subscribers; one dispatcher thread follows
+ * the ring in sequence order, turns entries into events and hands them to their subscribers. Should writers lap
+ * the dispatcher, the subscribers that missed events are ended and get a reset when they reconnect. Event ids carry the start time of this instance;
+ * an id from another instance, or one older than the journal, gets a {@code reset} event telling the client to
+ * refetch its tasks before relying on the feed again.
+ * <p>
+ * Each subscriber has a bounded buffer. A subscriber whose buffer is full is a slow consumer: it stops receiving
+ * events, its stream is ended once the buffer has been sent, and it catches up by reconnecting with the id of the
+ * last event it received. Publishing therefore never waits on a client. Sending runs on a small pool of platform
+ * threads because {@link SseEmitter#send} holds a monitor while it writes, which would pin a virtual thread.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(FeedProperties.class)
+public class TaskChangeFeed implements TaskChangeListener {
+
+    // Bounds how long a missed wake-up could delay the dispatcher
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TaskRepository taskRepository;
+    private final ITaskManagementMapper taskMapper;
+    private final FeedProperties properties;
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    // Written by any writer, read by the dispatcher and by replays
+    private final AtomicLong sequencer = new AtomicLong();
+    private final AtomicReferenceArray<Entry> journal;
+    private final AtomicBoolean dispatcherParked = new AtomicBoolean();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    // Guards the subscriber registry and dispatched, so a replay and live delivery meet without a gap
+    private final ReentrantLock lock = new ReentrantLock();
+    private long dispatched;
+    private final Map<Long, List<Subscriber>> subscribersByAssignee = new HashMap<>();
+    private final Set<Subscriber> subscribers = new HashSet<>();
+
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+
+    public TaskChangeFeed(TaskRepository taskRepository, ITaskManagementMapper taskMapper, FeedProperties properties) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.properties = properties;
+        this.journal = new AtomicReferenceArray<>(properties.getReplayCapacity());
+        this.dispatcher = new Thread(this::dispatch, "feed-dispatcher");
+        this.dispatcher.setDaemon(true);
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "feed-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        dispatcher.start();
+        taskRepository.addChangeListener(this);
+    }
+
+
+    @PreDestroy
+    public void stop() {
+        taskRepository.removeChangeListener(this);
+        running = false;
+        LockSupport.unpark(dispatcher);
+        heartbeats.shutdownNow();
+        List<Subscriber> open;
+        lock.lock();
+        try {
+            open = new ArrayList<>(subscribers);
+        } finally {
+            lock.unlock();
+        }
+        open.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+
+    /**
+     * Opens a stream of changes to the tasks of {@code assigneeIds}, starting after {@code lastEventId} if given.
+     */
+    public SseEmitter subscribe(Collection<Long> assigneeIds, String lastEventId) {
+        if (assigneeIds == null || assigneeIds.isEmpty()) {
+            throw new BadRequestException("assignee_ids is required");
+        }
+        Set<Long> assignees = new LinkedHashSet<>(assigneeIds);
+        if (assignees.size() > properties.getMaxAssigneesPerSubscription()) {
+            throw new BadRequestException("At most " + properties.getMaxAssigneesPerSubscription()
+                    + " assignees can be followed by one subscription");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, assignees, properties.getSubscriberBuffer());
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        lock.lock();
+        try {
+            for (Long assigneeId : assignees) {
+                subscribersByAssignee.computeIfAbsent(assigneeId, k -> new ArrayList<>()).add(subscriber);
+            }
+            subscribers.add(subscriber);
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Nothing is written until the first send, so without this the client would not see the stream open
+        subscriber.heartbeatDue = true;
+        schedule(subscriber);
+        return emitter;
+    }
+
+
+    // Runs inside the writer's save, so it only publishes; mapping and fan-out happen on the dispatcher
+    @Override
+    public void taskChanged(TaskManagement previous, TaskManagement next) {
+        Long previousAssigneeId = previous == null ? null : previous.getAssigneeId();
+        boolean reassigned = previous != null && !Objects.equals(previousAssigneeId, next.getAssigneeId());
+        long sequence = sequencer.incrementAndGet();
+        // A volatile store rather than a plain release, so the dispatcher cannot park after missing it
+        journal.set(slot(sequence), new Entry(sequence, next.getAssigneeId(), reassigned ? previousAssigneeId : null,
+                typeOf(previous, next), next));
+        if (dispatcherParked.get()) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+
+    /**
+     * Follows the journal ring in sequence order and delivers each entry to its subscribers.
+     */
+    private void dispatch() {
+        long next = 1;
+        while (running) {
+            Entry entry = journal.get(slot(next));
+            if (entry == null || entry.sequence() < next) {
+                // Not yet published; park, unless it was published while announcing so
+                dispatcherParked.set(true);
+                entry = journal.get(slot(next));
+                if (entry == null || entry.sequence() < next) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                dispatcherParked.set(false);
+                continue;
+            }
+            try {
+                if (entry.sequence() > next) {
+                    next = skipLapped(next);
+                } else {
+                    dispatch(entry);
+                    next++;
+                }
+            } catch (RuntimeException e) {
+                // One entry that cannot be mapped must not stop the feed
+                log.error("Failed to dispatch change {}", next, e);
+                next++;
+            }
+        }
+    }
+
+
+    private void dispatch(Entry entry) {
+        lock.lock();
+        try {
+            dispatched = entry.sequence();
+            List<Subscriber> current = subscribersByAssignee.get(entry.assigneeId());
+            List<Subscriber> previous = entry.previousAssigneeId() == null
+                    ? null : subscribersByAssignee.get(entry.previousAssigneeId());
+            if (current == null && previous == null) {
+                return;
+            }
+            TaskChangeEventDto event = event(entry);
+            List<Subscriber> overflowed = new ArrayList<>();
+            deliver(entry, event, current, overflowed);
+            deliver(entry, event, previous, overflowed);
+            overflowed.forEach(this::unregister);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // Writers overwrote entries before they were dispatched: every subscriber may have missed some
+    private long skipLapped(long next) {
+        long resume = Math.max(next + 1, sequencer.get() - journal.length() + 1);
+        log.warn("Change feed fell {} events behind; ending all subscriptions", resume - next);
+        lock.lock();
+        try {
+            dispatched = resume - 1;
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                // Reconnecting with its last id gets the subscriber a reset, as that id is older than the journal
+                subscriber.overflowed = true;
+                unregister(subscriber);
+                schedule(subscriber);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return resume;
+    }
+
+
+    private TaskChangeEventDto event(Entry entry) {
+        TaskManagementDto task = taskMapper.modelToDto(entry.task());
+        return new TaskChangeEventDto(eventId(entry.sequence()), entry.type(), entry.previousAssigneeId(), task);
+    }
+
+
+    private int slot(long sequence) {
+        return (int) (sequence % journal.length());
+    }
+
+
+    private static TaskChangeType typeOf(TaskManagement previous, TaskManagement next) {
+        if (previous == null) {
+            return TaskChangeType.CREATED;
+        }
+        if (next.getStatus() == TaskStatus.CANCELLED && previous.getStatus() != TaskStatus.CANCELLED) {
+            return TaskChangeType.CANCELLED;
+        }
+        if (next.isOverdue() && !previous.isOverdue()) {
+            return TaskChangeType.OVERDUE;
+        }
+        if (!Objects.equals(previous.getAssigneeId(), next.getAssigneeId())) {
+            return TaskChangeType.REASSIGNED;
+        }
+        if (previous.getPriority() != next.getPriority()) {
+            return TaskChangeType.PRIORITY_CHANGED;
+        }
+        return TaskChangeType.UPDATED;
+    }
+
+
+    // Callers hold the lock
+    private void deliver(Entry entry, TaskChangeEventDto event, List<Subscriber> targets, List<Subscriber> overflowed) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            // A subscriber following both the old and the new assignee gets a reassignment once
+            if (subscriber.lastSequence >= entry.sequence()) {
+                continue;
+            }
+            subscriber.lastSequence = entry.sequence();
+            if (!subscriber.buffer.offer(event)) {
+                subscriber.overflowed = true;
+                overflowed.add(subscriber);
+            }
+            schedule(subscriber);
+        }
+    }
+
+
+    // Callers hold the lock; the subscriber is registered, so live events after dispatched follow the replay
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long oldest = Math.max(1, dispatched - journal.length() + 1);
+        long after = sequenceOf(lastEventId);
+        if (after < oldest - 1 || after > dispatched) {
+            reset(subscriber);
+            return;
+        }
+        List<Subscriber> overflowed = new ArrayList<>(1);
+        for (long sequence = after + 1; sequence <= dispatched && overflowed.isEmpty(); sequence++) {
+            Entry entry = journal.get(slot(sequence));
+            if (entry == null || entry.sequence() != sequence) {
+                // Overwritten by a write the dispatcher has not reached yet
+                subscriber.buffer.clear();
+                reset(subscriber);
+                return;
+            }
+            if (subscriber.follows(entry)) {
+                deliver(entry, event(entry), List.of(subscriber), overflowed);
+            }
+        }
+        overflowed.forEach(this::unregister);
+        subscriber.lastSequence = Math.max(subscriber.lastSequence, dispatched);
+    }
+
+
+    // Callers hold the lock
+    private void reset(Subscriber subscriber) {
+        subscriber.buffer.offer(new TaskChangeEventDto(eventId(dispatched), TaskChangeType.RESET, null, null));
+        subscriber.lastSequence = dispatched;
+    }
+
+
+    // -1 for an id this instance did not issue, which always gets a reset
+    private long sequenceOf(String eventId) {
+        int dash = eventId.indexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(instanceId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    private String eventId(long sequence) {
+        return instanceId + "-" + sequence;
+    }
+
+
+    private void heartbeat() {
+        List<Subscriber> open;
+        lock.lock();
+        try {
+            open = new ArrayList<>(subscribers);
+        } finally {
+            lock.unlock();
+        }
+        for (Subscriber subscriber : open) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+
+    /**
+     * Sends everything buffered for one subscriber. At most one send runs per subscriber at a time.
+     */
+    private void send(Subscriber subscriber) {
+        try {
+            while (true) {
+                TaskChangeEventDto event;
+                while ((event = subscriber.buffer.poll()) != null) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(event.getEventId())
+                            .name(event.getType().eventName())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (subscriber.overflowed) {
+                    // The client reconnects with the last id it got and is replayed the rest from the journal
+                    subscriber.emitter.complete();
+                    return;
+                }
+                if (subscriber.heartbeatDue) {
+                    subscriber.heartbeatDue = false;
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+                subscriber.scheduled.set(false);
+                // Recheck after releasing, or an event offered in between would wait for the next heartbeat
+                if (subscriber.buffer.isEmpty() || !subscriber.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping change feed subscriber: {}", e.getMessage());
+            unsubscribe(subscriber);
+        }
+    }
+
+
+    private void unsubscribe(Subscriber subscriber) {
+        lock.lock();
+        try {
+            unregister(subscriber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // Callers hold the lock
+    private void unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long assigneeId : subscriber.assigneeIds) {
+            List<Subscriber> list = subscribersByAssignee.get(assigneeId);
+            if (list != null) {
+                list.remove(subscriber);
+                if (list.isEmpty()) {
+                    subscribersByAssignee.remove(assigneeId);
+                }
+            }
+        }
+    }
+
+
+    private record Entry(long sequence, Long assigneeId, Long previousAssigneeId, TaskChangeType type,
+                         TaskManagement task) {
+    }
+
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> assigneeIds;
+        private final ArrayBlockingQueue<TaskChangeEventDto> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+        // Guarded by the feed lock
+        private long lastSequence;
+
+        Subscriber(SseEmitter emitter, Set<Long> assigneeIds, int bufferSize) {
+            this.emitter = emitter;
+            this.assigneeIds = assigneeIds;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean follows(Entry entry) {
+            return entry != null && (assigneeIds.contains(entry.assigneeId())
+                    || (entry.previousAssigneeId() != null && assigneeIds.contains(entry.previousAssigneeId())));
+        }
+    }
+}
@@ -1,40 +1,84 @@
 package com.flynaut.workforcemgmt.service.impl;
 
+import com.flynaut.workforcemgmt.common.concurrent.StripedLock;
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
 import com.flynaut.workforcemgmt.common.exception.ResourceNotFoundException;
 import com.flynaut.workforcemgmt.dto.*;
 import com.flynaut.workforcemgmt.mapper.ITaskManagementMapper;
 import com.flynaut.workforcemgmt.model.TaskManagement;
 import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
 import com.flynaut.workforcemgmt.model.enums.Task;
 import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
+import com.flynaut.workforcemgmt.model.response.Pagination;
+import com.flynaut.workforcemgmt.repository.HistorySlice;
+import com.flynaut.workforcemgmt.repository.KeyedTask;
+import com.flynaut.workforcemgmt.repository.TaskHistoryRepository;
 import com.flynaut.workforcemgmt.repository.TaskRepository;
 import com.flynaut.workforcemgmt.service.TaskManagementService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+@Slf4j
 @Service
 public class TaskManagementServiceImpl implements TaskManagementService {
 
+    private static final int REFERENCE_LOCK_STRIPES = 256;
+    private static final int MAX_UPDATE_ATTEMPTS = 16;
+
     private final TaskRepository taskRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final StripedLock referenceLocks = new StripedLock(REFERENCE_LOCK_STRIPES);
 
     @Autowired
     private ITaskManagementMapper taskMapper;
 
-    private final Map<Long, List<CommentDto>> commentStore = new HashMap<>();
-    private final Map<Long, List<ActivityLogDto>> activityStore = new HashMap<>();
+    @Value("${task-mgmt.pagination.default-limit:100}")
+    private int defaultPageLimit = 100;
+
+    @Value("${task-mgmt.pagination.max-limit:1000}")
+    private int maxPageLimit = 1000;
+
+    @Value("${task-mgmt.bulk.max-assignments:10000}")
+    private int maxBulkAssignments = 10000;
 
+    // Bulk assignments run here rather than in the common pool, whose workers parallel streams elsewhere rely on
+    private final ForkJoinPool bulkAssignPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("task-bulk-assign-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
 
-    public TaskManagementServiceImpl(TaskRepository taskRepository, ITaskManagementMapper taskMapper) {
+
+    public TaskManagementServiceImpl(TaskRepository taskRepository, TaskHistoryRepository taskHistoryRepository,
+                                     ITaskManagementMapper taskMapper) {
         this.taskRepository = taskRepository;
+        this.taskHistoryRepository = taskHistoryRepository;
         this.taskMapper = taskMapper;
     }
 
+    @PreDestroy
+    public void stop() {
+        bulkAssignPool.shutdown();
+    }
+
     @Override
     public TaskManagementDto findTaskById(Long id) {
         TaskManagement task = taskRepository.findById(id)
@@ -44,19 +88,22 @@ public class TaskManagementServiceImpl implements TaskManagementService {
 
     @Override
     public List<TaskManagementDto> createTasks(TaskCreateRequest createRequest) {
-        List<TaskManagement> createdTasks = new ArrayList<>();
+        List<TaskManagement> newTasks = new ArrayList<>();
         for (TaskCreateRequest.RequestItem item : createRequest.getRequests()) {
-            TaskManagement newTask = new TaskManagement();
-            newTask.setReferenceId(item.getReferenceId());
-            newTask.setReferenceType(item.getReferenceType());
-            newTask.setTask(item.getTask());
-            newTask.setAssigneeId(item.getAssigneeId());
-            newTask.setPriority(item.getPriority());
-            newTask.setTaskDeadlineTime(item.getTaskDeadlineTime());
-            newTask.setStatus(TaskStatus.ASSIGNED);
-            newTask.setDescription("New task created.");
-            createdTasks.add(taskRepository.save(newTask));
-            System.out.println("Saving Task: " + newTask);
+            newTasks.add(TaskManagement.builder()
+                    .referenceId(item.getReferenceId())
+                    .referenceType(item.getReferenceType())
+                    .task(item.getTask())
+                    .assigneeId(item.getAssigneeId())
+                    .priority(item.getPriority())
+                    .taskDeadlineTime(item.getTaskDeadlineTime())
+                    .status(TaskStatus.ASSIGNED)
+                    .description("New task created.")
+                    .build());
+        }
+        List<TaskManagement> createdTasks = taskRepository.saveAll(newTasks);
+        if (log.isDebugEnabled()) {
+            createdTasks.forEach(task -> log.debug("Saved task: {}", task));
         }
         return taskMapper.modelListToDtoList(createdTasks);
     }
@@ -87,165 +134,416 @@ public class TaskManagementServiceImpl implements TaskManagementService {
 
     @Override
     public List<TaskManagementDto> updateTasks(UpdateTaskRequest updateRequest) {
-        List<TaskManagement> updatedTasks = new ArrayList<>();
-
-        for (UpdateTaskRequest.RequestItem item : updateRequest.getRequests()) {
-            TaskManagement task = taskRepository.findById(item.getTaskId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + item.getTaskId()));
+        List<UpdateTaskRequest.RequestItem> items = updateRequest.getRequests();
+        TaskManagement[] updated = new TaskManagement[items.size()];
+        List<Integer> pending = new ArrayList<>(items.size());
+        for (int index = 0; index < items.size(); index++) {
+            pending.add(index);
+        }
 
-            // Only update fields if they are not null
-            if (item.getTaskStatus() != null) {
-                task.setStatus(item.getTaskStatus());
+        // The whole request is one saveAll; only items that lost a race are rebuilt from a fresh read and sent again
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<TaskManagement> batch = new ArrayList<>(pending.size());
+            for (int index : pending) {
+                batch.add(applyUpdate(items.get(index)));
             }
-            if (item.getDescription() != null) {
-                task.setDescription(item.getDescription());
+            try {
+                List<TaskManagement> saved = taskRepository.saveAll(batch);
+                for (int i = 0; i < saved.size(); i++) {
+                    updated[pending.get(i)] = saved.get(i);
+                }
+                pending = List.of();
+            } catch (ConflictException e) {
+                if (attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                pending = unsaved(batch, pending, updated);
             }
+        }
 
-            // 🛡️ Defensive coding to ensure no nulls before mapping (optional fallback values or validations)
-            if (task.getTask() == null) {
-                throw new IllegalStateException("Task type cannot be null for task ID: " + task.getId());
-                // OR: task.setTask(Task.CREATE_INVOICE); // fallback default
-            }
-            if (task.getReferenceType() == null) {
-                throw new IllegalStateException("ReferenceType cannot be null for task ID: " + task.getId());
-            }
-            if (task.getPriority() == null) {
-                throw new IllegalStateException("Priority cannot be null for task ID: " + task.getId());
-            }
+        List<TaskManagement> updatedTasks = Arrays.asList(updated);
+        if (log.isDebugEnabled()) {
+            updatedTasks.forEach(task -> log.debug("Updated task {}: task={}, referenceType={}, priority={}",
+                    task.getId(), task.getTask(), task.getReferenceType(), task.getPriority()));
+        }
+
+        return taskMapper.modelListToDtoList(updatedTasks);
+    }
 
-            TaskManagement savedTask = taskRepository.save(task);
-            updatedTasks.add(savedTask);
 
-            // Debug logs
-            System.out.println("✅ Updating Task ID: " + savedTask.getId());
-            System.out.println("Task: " + savedTask.getTask());
-            System.out.println("ReferenceType: " + savedTask.getReferenceType());
-            System.out.println("Priority: " + savedTask.getPriority());
+    // The snapshot to store for one update item, built at the version the client read or, without one, the current one
+    private TaskManagement applyUpdate(UpdateTaskRequest.RequestItem item) {
+        TaskManagement task = taskRepository.findById(item.getTaskId())
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + item.getTaskId()));
+        if (item.getVersion() != null && task.getVersion() != item.getVersion()) {
+            throw new ConflictException("Task " + task.getId() + " is at version " + task.getVersion()
+                    + ", not " + item.getVersion());
         }
 
-        return taskMapper.modelListToDtoList(updatedTasks);
+        // 🛡️ Defensive coding to ensure no nulls before mapping (optional fallback values or validations)
+        if (task.getTask() == null) {
+            throw new IllegalStateException("Task type cannot be null for task ID: " + task.getId());
+            // OR: task = task.withTask(Task.CREATE_INVOICE); // fallback default
+        }
+        if (task.getReferenceType() == null) {
+            throw new IllegalStateException("ReferenceType cannot be null for task ID: " + task.getId());
+        }
+        if (task.getPriority() == null) {
+            throw new IllegalStateException("Priority cannot be null for task ID: " + task.getId());
+        }
+
+        // Only update fields if they are not null
+        if (item.getTaskStatus() != null) {
+            task = task.withStatus(item.getTaskStatus());
+        }
+        if (item.getDescription() != null) {
+            task = task.withDescription(item.getDescription());
+        }
+        return task;
     }
 
+
+    /**
+     * A batch stops at its first conflict, and sharded stores carry on in the other shards, so which items were
+     * stored is read back: an item whose stored row is exactly what was sent, one version up, is done.
+     *
+     * @return the positions of the items still to be saved
+     */
+    private List<Integer> unsaved(List<TaskManagement> batch, List<Integer> positions, TaskManagement[] updated) {
+        List<Integer> unsaved = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            TaskManagement sent = batch.get(i);
+            TaskManagement stored = taskRepository.findById(sent.getId()).orElse(null);
+            if (sent.withVersion(sent.getVersion() + 1).equals(stored)) {
+                updated[positions.get(i)] = stored;
+            } else {
+                unsaved.add(positions.get(i));
+            }
+        }
+        return unsaved;
+    }
+
+
     @Override
     public String assignByReference(AssignByReferenceRequest request) {
-        List<Task> applicableTasks = Task.getTasksByReferenceType(request.getReferenceType());
-        List<TaskManagement> existingTasks = taskRepository.findByReferenceIdAndReferenceType(
-                request.getReferenceId(), request.getReferenceType());
-
-        for (Task taskType : applicableTasks) {
-            Optional<TaskManagement> existingTaskOpt = existingTasks.stream()
-                    .filter(t -> t.getTask() == taskType && t.getStatus() != TaskStatus.COMPLETED && t.getStatus() != TaskStatus.CANCELLED)
-                    .findFirst();
-
-            existingTaskOpt.ifPresent(taskToCancel -> {
-                taskToCancel.setStatus(TaskStatus.CANCELLED);
-                taskRepository.save(taskToCancel);
-            });
-
-            TaskManagement newTask = new TaskManagement();
-            newTask.setReferenceId(request.getReferenceId());
-            newTask.setReferenceType(request.getReferenceType());
-            newTask.setTask(taskType);
-            newTask.setAssigneeId(request.getAssigneeId());
-            newTask.setStatus(TaskStatus.ASSIGNED);
-            taskRepository.save(newTask);
-        }
+        assign(request);
         return "Tasks assigned successfully for reference " + request.getReferenceId();
     }
 
     @Override
-    public List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request) {
-        List<TaskManagement> tasks = taskRepository.findByAssigneeIdIn(request.getAssigneeIds());
-
-        LocalDate startDate = Instant.ofEpochMilli(request.getStartDate())
-                .atZone(ZoneId.systemDefault())
-                .toLocalDate();
-
-        LocalDate endDate = Instant.ofEpochMilli(request.getEndDate())
-                .atZone(ZoneId.systemDefault())
-                .toLocalDate();
-
-        List<TaskManagement> filteredTasks = tasks.stream()
-                .filter(task -> {
-                    if (task.getStatus() == TaskStatus.CANCELLED || task.getTaskDeadlineTime() == null) {
-                        return false;
-                    }
+    public List<AssignByReferenceResultDto> assignByReferenceBulk(BulkAssignByReferenceRequest request) {
+        List<AssignByReferenceRequest> items = request.getRequests();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("requests must not be empty");
+        }
+        if (items.size() > maxBulkAssignments) {
+            throw new BadRequestException("At most " + maxBulkAssignments + " references per request");
+        }
 
-                    LocalDate taskDate = Instant.ofEpochMilli(task.getTaskDeadlineTime())
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDate();
+        // Items for the same reference stay in one partition in batch order, so the last of them decides the
+        // assignee; different references only meet on the reference lock stripes and run in parallel
+        AssignByReferenceResultDto[] results = new AssignByReferenceResultDto[items.size()];
+        Map<ReferenceKey, List<Integer>> partitions = new LinkedHashMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            AssignByReferenceRequest item = items.get(index);
+            if (item == null || item.getReferenceId() == null || item.getReferenceType() == null
+                    || item.getAssigneeId() == null) {
+                results[index] = failure(item, "reference_id, reference_type and assignee_id are required");
+                continue;
+            }
+            partitions.computeIfAbsent(new ReferenceKey(item.getReferenceId(), item.getReferenceType()),
+                    key -> new ArrayList<>()).add(index);
+        }
+        bulkAssignPool.submit(() -> partitions.values().parallelStream().forEach(partition -> {
+            for (int index : partition) {
+                results[index] = assignItem(items.get(index));
+            }
+        })).join();
+        return Arrays.asList(results);
+    }
 
-                    boolean isWithinRange = !taskDate.isBefore(startDate) && !taskDate.isAfter(endDate);
-                    boolean isOpenAndBefore =
-                            (task.getStatus() == TaskStatus.ASSIGNED || task.getStatus() == TaskStatus.STARTED)
-                                    && taskDate.isBefore(startDate);
+    @Override
+    public PagedResult<TaskManagement> fetchTasksByDate(TaskFetchByDateRequest request) {
+        ZoneId zone = ZoneId.systemDefault();
+        long rangeStart = startOfDay(request.getStartDate(), zone).toInstant().toEpochMilli();
+        long rangeEnd = startOfDay(request.getEndDate(), zone).plusDays(1).toInstant().toEpochMilli();
+        int limit = pageLimit(request.getLimit());
+        PageCursor after = PageCursor.decode(request.getCursor());
+
+        // Pages run in (deadline, id) order: open tasks due before the range carry over first,
+        // followed by every non-cancelled task due within it. One extra row tells us whether more follow.
+        List<KeyedTask> tasks = new ArrayList<>();
+        if (after == null || after.sortKey() < rangeStart) {
+            tasks.addAll(taskRepository.findOpenByAssigneeIdInAndDeadlineBefore(
+                    request.getAssigneeIds(), rangeStart, after, limit + 1));
+        }
+        if (tasks.size() <= limit) {
+            PageCursor inRangeAfter = after != null && after.sortKey() >= rangeStart ? after : null;
+            tasks.addAll(taskRepository.findByAssigneeIdInAndDeadlineBetween(
+                    request.getAssigneeIds(), rangeStart, rangeEnd, inRangeAfter, limit + 1 - tasks.size()));
+        }
 
-                    return isWithinRange || isOpenAndBefore;
-                })
-                .collect(Collectors.toList());
+        return toKeyedPage(tasks, limit);
+    }
 
-        return taskMapper.modelListToDtoList(filteredTasks);
+    private static ZonedDateTime startOfDay(Long epochMillis, ZoneId zone) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate().atStartOfDay(zone);
     }
 
     // ✅ New Feature 1: Update Task Priority
     @Override
-    public TaskManagementDto updatePriority(Long taskId, Priority priority) {
-        TaskManagement task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-        task.setPriority(priority);
-        TaskManagement updated = taskRepository.save(task);
+    public TaskManagementDto updatePriority(Long taskId, Priority priority, Long expectedVersion) {
+        TaskManagement updated = update(taskId, expectedVersion, task -> task.withPriority(priority));
         return taskMapper.modelToDto(updated);
     }
 
     // ✅ New Feature 2: Fetch Tasks by Priority
     @Override
-    public List<TaskManagementDto> fetchTasksByPriority(Priority priority) {
-        List<TaskManagement> allTasks = taskRepository.findAll();
-        List<TaskManagement> filtered = allTasks.stream()
-                .filter(task -> priority.equals(task.getPriority()))
-                .collect(Collectors.toList());
-        return taskMapper.modelListToDtoList(filtered);
+    public PagedResult<TaskManagement> fetchTasksByPriority(Priority priority, String cursor, Integer limit) {
+        int pageLimit = pageLimit(limit);
+        List<TaskManagement> tasks = taskRepository.findByPriority(priority, PageCursor.decode(cursor), pageLimit + 1);
+        return toPage(tasks, pageLimit, task -> new PageCursor(task.getId(), task.getId()));
+    }
+
+    @Override
+    public Stream<TaskManagement> streamTasks(Priority priority, TaskStatus status, List<Long> assigneeIds) {
+        Stream<TaskManagement> tasks = priority != null
+                ? taskRepository.streamByPriority(priority)
+                : taskRepository.streamAll();
+        if (status != null) {
+            tasks = tasks.filter(task -> task.getStatus() == status);
+        }
+        if (assigneeIds != null && !assigneeIds.isEmpty()) {
+            Set<Long> assignees = new HashSet<>(assigneeIds);
+            tasks = tasks.filter(task -> assignees.contains(task.getAssigneeId()));
+        }
+        // Snapshots are written as they are pulled, without a DTO copy
+        return tasks;
     }
 
     @Override
     public void addComment(Long taskId, CommentDto commentDto) {
-        commentDto.setTimestamp(Instant.now());
         commentDto.setTaskId(taskId);
         if (commentDto.getCommentedBy() == null) {
             commentDto.setCommentedBy("System"); // Fallback if missing
         }
 
-        commentStore.computeIfAbsent(taskId, k -> new ArrayList<>()).add(commentDto);
+        // The history repository stamps the timestamp so the per-task log stays in time order
+        taskHistoryRepository.appendComment(taskId, commentDto);
 
         logActivity(taskId, "Comment added", commentDto.getCommentedBy());
     }
 
     @Override
-    public List<Object> getTaskHistory(Long taskId) {
-        List<CommentDto> comments = commentStore.getOrDefault(taskId, new ArrayList<>());
-        List<ActivityLogDto> activities = activityStore.getOrDefault(taskId, new ArrayList<>());
+    public PagedResult<Object> getTaskHistory(Long taskId, Long since, String cursor, Integer limit) {
+        // since is exclusive at millisecond precision: entries are stamped with sub-millisecond timestamps, so an
+        // inclusive bound would hand a poller passing its last seen millisecond that entry again
+        Instant sinceInstant = since == null ? null : Instant.ofEpochMilli(since).plusMillis(1);
+        int pageLimit = pageLimit(limit);
+        // History cursors carry the log position to resume from, which is stable because the log is append-only
+        PageCursor after = PageCursor.decode(cursor);
+        if (after != null && after.taskId() != taskId) {
+            throw new BadRequestException("Cursor does not belong to task " + taskId);
+        }
+        HistorySlice slice = taskHistoryRepository.findByTaskId(
+                taskId, sinceInstant, after == null ? 0 : after.sortKey(), pageLimit);
 
-        List<Object> fullHistory = new ArrayList<>();
-        fullHistory.addAll(comments);
-        fullHistory.addAll(activities);
+        String nextCursor = slice.hasMore() ? new PageCursor(slice.nextPosition(), taskId).encode() : null;
+        return new PagedResult<>(slice.entries(), new Pagination(pageLimit, slice.hasMore(), nextCursor));
+    }
 
-        fullHistory.sort((a, b) -> {
-            Instant timeA = (a instanceof CommentDto) ? ((CommentDto) a).getTimestamp() : ((ActivityLogDto) a).getTimestamp();
-            Instant timeB = (b instanceof CommentDto) ? ((CommentDto) b).getTimestamp() : ((ActivityLogDto) b).getTimestamp();
-            return timeA.compareTo(timeB);
-        });
 
-        return fullHistory;
+    /**
+     * Marks an open task overdue when its deadline fired, optionally raising its priority one step, and records
+     * it in the task's history. Does nothing if the task was closed, already marked, or its deadline moved since
+     * the deadline was scheduled.
+     *
+     * @return whether the task was marked
+     */
+    @Override
+    public boolean markOverdue(Long taskId, long deadline, boolean escalatePriority) {
+        for (int attempt = 1; ; attempt++) {
+            TaskManagement current = taskRepository.findById(taskId).orElse(null);
+            if (current == null || current.isOverdue() || !Objects.equals(current.getTaskDeadlineTime(), deadline)
+                    || (current.getStatus() != TaskStatus.ASSIGNED && current.getStatus() != TaskStatus.STARTED)) {
+                return false;
+            }
+            TaskManagement overdue = current.withOverdue(true);
+            if (escalatePriority && current.getPriority() != null && current.getPriority() != Priority.HIGH) {
+                overdue = overdue.withPriority(Priority.values()[current.getPriority().ordinal() + 1]);
+            }
+            try {
+                taskRepository.save(overdue);
+            } catch (ConflictException e) {
+                if (attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            logActivity(taskId, overdue.getPriority() == current.getPriority()
+                    ? "Deadline passed, task is overdue"
+                    : "Deadline passed, task is overdue; priority raised to " + overdue.getPriority(), "system");
+            return true;
+        }
+    }
+
+
+    /**
+     * Read-modify-write of one task. With an expected version the write only succeeds if the task is still at
+     * that version; without one, a concurrent change is picked up by reading again and reapplying {@code change}.
+     */
+    private TaskManagement update(Long taskId, Long expectedVersion, UnaryOperator<TaskManagement> change) {
+        for (int attempt = 1; ; attempt++) {
+            TaskManagement current = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                throw new ConflictException("Task " + taskId + " is at version " + current.getVersion()
+                        + ", not " + expectedVersion);
+            }
+            try {
+                return taskRepository.save(change.apply(current));
+            } catch (ConflictException e) {
+                if (expectedVersion != null || attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Cancels the open tasks of the reference and creates a fresh set for the new assignee.
+     */
+    private Assignment assign(AssignByReferenceRequest request) {
+        List<Task> applicableTasks = Task.getTasksByReferenceType(request.getReferenceType());
+
+        // Read-cancel-create must be atomic per reference, or two concurrent reassignments both create tasks
+        Lock lock = referenceLocks.lockFor(new ReferenceKey(request.getReferenceId(), request.getReferenceType()));
+        lock.lock();
+        try {
+            int cancelled = cancelOpenTasks(request.getReferenceId(), request.getReferenceType(), applicableTasks);
+
+            List<TaskManagement> newTasks = new ArrayList<>();
+            for (Task taskType : applicableTasks) {
+                newTasks.add(TaskManagement.builder()
+                        .referenceId(request.getReferenceId())
+                        .referenceType(request.getReferenceType())
+                        .task(taskType)
+                        .assigneeId(request.getAssigneeId())
+                        .status(TaskStatus.ASSIGNED)
+                        .build());
+            }
+            taskRepository.saveAll(newTasks);
+            return new Assignment(cancelled, newTasks.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // A failed item must not fail the rest of the batch
+    private AssignByReferenceResultDto assignItem(AssignByReferenceRequest item) {
+        try {
+            Assignment assignment = assign(item);
+            AssignByReferenceResultDto result = resultFor(item);
+            result.setSuccess(true);
+            result.setCancelledTasks(assignment.cancelled());
+            result.setCreatedTasks(assignment.created());
+            return result;
+        } catch (RuntimeException e) {
+            log.warn("Bulk assignment of reference {} failed: {}", item.getReferenceId(), e.getMessage());
+            return failure(item, e.getMessage());
+        }
+    }
+
+
+    private static AssignByReferenceResultDto failure(AssignByReferenceRequest item, String error) {
+        AssignByReferenceResultDto result = resultFor(item);
+        result.setError(error);
+        return result;
+    }
+
+
+    private static AssignByReferenceResultDto resultFor(AssignByReferenceRequest item) {
+        AssignByReferenceResultDto result = new AssignByReferenceResultDto();
+        if (item != null) {
+            result.setReferenceId(item.getReferenceId());
+            result.setReferenceType(item.getReferenceType());
+            result.setAssigneeId(item.getAssigneeId());
+        }
+        return result;
+    }
+
+
+    // Callers hold the reference lock; only other updates to the same tasks can make a cancellation conflict
+    private int cancelOpenTasks(Long referenceId, ReferenceType referenceType, List<Task> taskTypes) {
+        for (int attempt = 1; ; attempt++) {
+            List<TaskManagement> cancellations = new ArrayList<>();
+            for (TaskManagement existing : taskRepository.findOpenByReferenceIdAndReferenceType(referenceId, referenceType)) {
+                if (existing.getTask() != null && taskTypes.contains(existing.getTask())) {
+                    cancellations.add(existing.withStatus(TaskStatus.CANCELLED));
+                }
+            }
+            try {
+                taskRepository.saveAll(cancellations);
+                return cancellations.size();
+            } catch (ConflictException e) {
+                // Tasks cancelled before the conflict are no longer open, so the retry skips them
+                if (attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private int pageLimit(Integer requested) {
+        if (requested == null) {
+            return defaultPageLimit;
+        }
+        if (requested <= 0) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(requested, maxPageLimit);
+    }
+
+
+    /**
+     * Trims the extra look-ahead row off {@code tasks}. The snapshots are returned as they are: immutable, and
+     * serialized in DTO form by {@link com.flynaut.workforcemgmt.common.format.TaskManagementSerializer}.
+     */
+    private PagedResult<TaskManagement> toPage(List<TaskManagement> tasks, int limit,
+                                               Function<TaskManagement, PageCursor> cursorOf) {
+        boolean hasMore = tasks.size() > limit;
+        List<TaskManagement> page = hasMore ? tasks.subList(0, limit) : tasks;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new PagedResult<>(page, new Pagination(limit, hasMore, nextCursor));
+    }
+
+
+    // The next cursor is the index key the last task was found under, not its current deadline
+    private PagedResult<TaskManagement> toKeyedPage(List<KeyedTask> tasks, int limit) {
+        boolean hasMore = tasks.size() > limit;
+        List<KeyedTask> page = hasMore ? tasks.subList(0, limit) : tasks;
+        String nextCursor = hasMore ? page.get(page.size() - 1).key().encode() : null;
+        return new PagedResult<>(page.stream().map(KeyedTask::task).toList(), new Pagination(limit, hasMore, nextCursor));
     }
 
 
     private void logActivity(Long taskId, String message, String createdBy) {
-        ActivityLogDto log = new ActivityLogDto();
-        log.setMessage(message);
-        log.setCreatedBy(createdBy);
-        log.setTimestamp(Instant.now());
+        ActivityLogDto activity = new ActivityLogDto();
+        activity.setMessage(message);
+        activity.setCreatedBy(createdBy);
+
+        taskHistoryRepository.appendActivity(taskId, activity);
+    }
+
+
+    private record ReferenceKey(Long referenceId, ReferenceType referenceType) {
+    }
+
 
-        activityStore.computeIfAbsent(taskId, k -> new ArrayList<>()).add(log);
+    private record Assignment(int cancelled, int created) {
     }
 
 }
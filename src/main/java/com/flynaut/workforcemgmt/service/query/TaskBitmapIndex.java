@@ -0,0 +1,377 @@
+package com.flynaut.workforcemgmt.service.query;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.repository.TaskChangeListener;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Compressed bitmaps of task ids for each status, priority, task type, reference type, assignee and deadline
+ * bucket, kept up to date from the repository's change hook. Ids are handed out in ascending runs, so the bitmaps
+ * stay a few bits per task, and intersecting them costs far less than looking at the tasks. Reference ids have
+ * a handful of tasks each, which the repository's own reference index finds without a bitmap per reference.
+ * <p>
+ * Bitmaps hold ids as unsigned 32-bit values, which leaves room for four billion tasks.
+ * <p>
+ * The change hook runs inside every save, so it only queues the change: one maintainer thread applies queued
+ * changes in order under the write lock, and a query first applies whatever is still queued, so it sees every
+ * save that completed before it started. Writers therefore never wait on the lock, which queries hold for reading
+ * only while they count or copy bitmaps, never while they fetch tasks. Queries check every candidate against the
+ * stored task, so a change still queued cannot produce a wrong result. Deadlines are bucketed, so a deadline range
+ * covers whole buckets and its tasks must be checked against it.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(TaskQueryProperties.class)
+public class TaskBitmapIndex implements TaskChangeListener, SmartInitializingSingleton {
+
+    enum Field {
+        STATUS(TaskManagement::getStatus),
+        PRIORITY(TaskManagement::getPriority),
+        TASK(TaskManagement::getTask),
+        REFERENCE_TYPE(TaskManagement::getReferenceType),
+        ASSIGNEE(TaskManagement::getAssigneeId);
+
+        private final Function<TaskManagement, Object> key;
+
+        Field(Function<TaskManagement, Object> key) {
+            this.key = key;
+        }
+    }
+
+    private record Change(TaskManagement previous, TaskManagement next) {
+    }
+
+    private static final Field[] FIELDS = Field.values();
+    private static final long MAX_ID = 0xFFFF_FFFFL;
+    private static final int SEED_BATCH = 4_096;
+    // Bounds how long a missed wake-up could leave changes queued
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TaskRepository taskRepository;
+    private final long deadlineBucketMillis;
+    // Polled only under the write lock, so changes are applied in the order they were saved
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean maintainerParked = new AtomicBoolean();
+    private final Thread maintainer = new Thread(this::maintain, "task-index-maintainer");
+    private volatile boolean running = true;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // All guarded by lock
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Field, Map<Object, RoaringBitmap>> byField = new EnumMap<>(Field.class);
+    private final NavigableMap<Long, RoaringBitmap> byDeadlineBucket = new TreeMap<>();
+
+
+    public TaskBitmapIndex(TaskRepository taskRepository, TaskQueryProperties properties) {
+        this.taskRepository = taskRepository;
+        this.deadlineBucketMillis = Math.max(1, properties.getDeadlineBucket().toMillis());
+        for (Field field : FIELDS) {
+            byField.put(field, new HashMap<>());
+        }
+        maintainer.setDaemon(true);
+    }
+
+
+    // Restores are not reported to listeners, so the stored tasks are indexed once the store is recovered
+    @Override
+    public void afterSingletonsInstantiated() {
+        start();
+    }
+
+
+    /**
+     * Follows changes from now on, then indexes the stored tasks. A task saved meanwhile may be seen both ways;
+     * a stored task whose id is already indexed is skipped, as its queued change is at least as recent.
+     */
+    public void start() {
+        taskRepository.addChangeListener(this);
+        maintainer.start();
+        List<TaskManagement> batch = new ArrayList<>(SEED_BATCH);
+        try (Stream<TaskManagement> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> {
+                batch.add(task);
+                if (batch.size() == SEED_BATCH) {
+                    seed(batch);
+                }
+            });
+        }
+        seed(batch);
+    }
+
+
+    @PreDestroy
+    public void stop() {
+        taskRepository.removeChangeListener(this);
+        running = false;
+        LockSupport.unpark(maintainer);
+    }
+
+
+    // Runs inside the writer's save, so it only queues the change
+    @Override
+    public void taskChanged(TaskManagement previous, TaskManagement next) {
+        pending.add(new Change(previous, next));
+        if (maintainerParked.get()) {
+            LockSupport.unpark(maintainer);
+        }
+    }
+
+
+    /**
+     * Applies the changes queued so far, so a query sees every save that completed before it.
+     */
+    void catchUp() {
+        if (!pending.isEmpty()) {
+            applyPending();
+        }
+    }
+
+
+    private void maintain() {
+        while (running) {
+            if (pending.isEmpty()) {
+                // Park, unless a change was queued while announcing so
+                maintainerParked.set(true);
+                if (pending.isEmpty()) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                maintainerParked.set(false);
+                continue;
+            }
+            applyPending();
+        }
+    }
+
+
+    private void applyPending() {
+        lock.writeLock().lock();
+        try {
+            Change change;
+            while ((change = pending.poll()) != null) {
+                apply(change.previous(), change.next());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    private void seed(List<TaskManagement> batch) {
+        lock.writeLock().lock();
+        try {
+            for (TaskManagement task : batch) {
+                if (task.getId() > MAX_ID || !all.contains((int) (long) task.getId())) {
+                    apply(null, task);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        batch.clear();
+    }
+
+
+    // Callers hold the write lock
+    private void apply(TaskManagement previous, TaskManagement next) {
+        long taskId = next.getId();
+        if (taskId < 0 || taskId > MAX_ID) {
+            // The save has happened; the task stays out of query results rather than failing it
+            log.error("Task id {} is outside the range of the bitmap index; not indexing it", taskId);
+            return;
+        }
+        int id = (int) taskId;
+        try {
+            all.add(id);
+            for (Field field : FIELDS) {
+                Object before = previous == null ? null : field.key.apply(previous);
+                Object after = field.key.apply(next);
+                if (previous == null || !Objects.equals(before, after)) {
+                    Map<Object, RoaringBitmap> bitmaps = byField.get(field);
+                    remove(bitmaps, before, id);
+                    add(bitmaps, after, id);
+                }
+            }
+            Long bucketBefore = previous == null ? null : bucket(previous.getTaskDeadlineTime());
+            Long bucketAfter = bucket(next.getTaskDeadlineTime());
+            if (previous == null || !Objects.equals(bucketBefore, bucketAfter)) {
+                remove(byDeadlineBucket, bucketBefore, id);
+                add(byDeadlineBucket, bucketAfter, id);
+            }
+        } catch (RuntimeException e) {
+            // A change that cannot be applied must not stop the ones queued behind it
+            log.error("Failed to index task {}", taskId, e);
+        }
+    }
+
+
+    long size() {
+        lock.readLock().lock();
+        try {
+            return all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // Tasks whose field has one of the keys
+    long count(Field field, Collection<?> keys) {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (Object key : keys) {
+                RoaringBitmap bitmap = byField.get(field).get(key);
+                count += bitmap == null ? 0 : bitmap.getLongCardinality();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    RoaringBitmap union(Field field, Collection<?> keys) {
+        RoaringBitmap union = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            for (Object key : keys) {
+                RoaringBitmap bitmap = byField.get(field).get(key);
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return union;
+    }
+
+
+    // Tasks in the deadline buckets that overlap [fromInclusive, toExclusive), a superset of those in the range
+    long countDeadlines(long fromInclusive, long toExclusive) {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (RoaringBitmap bitmap : deadlineBuckets(fromInclusive, toExclusive)) {
+                count += bitmap.getLongCardinality();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    RoaringBitmap deadlines(long fromInclusive, long toExclusive) {
+        RoaringBitmap union = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            deadlineBuckets(fromInclusive, toExclusive).forEach(union::or);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return union;
+    }
+
+
+    /**
+     * Fills {@code ids} with the next task ids from {@code fromInclusive} on, in ascending order.
+     *
+     * @return how many were filled, 0 once there are none left
+     */
+    int ids(long fromInclusive, long[] ids) {
+        lock.readLock().lock();
+        try {
+            PeekableIntIterator it = iteratorFrom(all, fromInclusive);
+            int count = 0;
+            while (count < ids.length && it.hasNext()) {
+                ids[count++] = Integer.toUnsignedLong(it.next());
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // Callers hold the read lock
+    private Collection<RoaringBitmap> deadlineBuckets(long fromInclusive, long toExclusive) {
+        if (fromInclusive >= toExclusive) {
+            return List.of();
+        }
+        return byDeadlineBucket.subMap(bucket(fromInclusive), true, bucket(toExclusive - 1), true).values();
+    }
+
+
+    // The ids in bitmap from fromInclusive on, in ascending order; read them with Integer.toUnsignedLong
+    static PeekableIntIterator iteratorFrom(RoaringBitmap bitmap, long fromInclusive) {
+        if (fromInclusive > MAX_ID) {
+            return new RoaringBitmap().getIntIterator();
+        }
+        PeekableIntIterator it = bitmap.getIntIterator();
+        it.advanceIfNeeded((int) Math.max(0, fromInclusive));
+        return it;
+    }
+
+
+    static int toBit(long id) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalStateException("Task id " + id + " is outside the range of the bitmap index");
+        }
+        return (int) id;
+    }
+
+
+    private Long bucket(Long deadline) {
+        return deadline == null ? null : Math.floorDiv(deadline, deadlineBucketMillis);
+    }
+
+
+    // Callers hold the write lock
+    private static <K> void add(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        if (key != null) {
+            bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+        }
+    }
+
+
+    // Callers hold the write lock
+    private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            // Drop emptied bitmaps, so assignees who moved on do not accumulate
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+}
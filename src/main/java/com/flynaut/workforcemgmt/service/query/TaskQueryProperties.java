@@ -0,0 +1,13 @@
+package com.flynaut.workforcemgmt.service.query;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.query")
+public class TaskQueryProperties {
+    private Duration deadlineBucket = Duration.ofHours(1);
+    private double scanSelectivity = 0.5;
+}
@@ -0,0 +1,242 @@
+package com.flynaut.workforcemgmt.service.query;
+
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.dto.QueryPlanDto;
+import com.flynaut.workforcemgmt.dto.TaskQueryRequest;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
+import com.flynaut.workforcemgmt.model.response.Pagination;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import com.flynaut.workforcemgmt.service.query.TaskBitmapIndex.Field;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@code /task-mgmt/query}: any combination of status set, priority set, task type, reference type,
+ * assignee set, reference id and deadline range, paged in task id order.
+ * <p>
+ * The planner estimates how many tasks each predicate matches from the bitmap cardinalities and starts from the
+ * most selective one: an ID index (the repository's reference index, assignees, deadline buckets) gives an INDEX
+ * plan, an enum bitmap a BITMAP plan. The other predicates' bitmaps are intersected into the candidates in order of
+ * selectivity, except those most tasks match, which would prune too little to be worth the copy. When not even the
+ * most selective predicate rules out most tasks, walking every task id in order finds a page sooner than building
+ * the intersection, so the query falls back to a scan. Every candidate is checked against all predicates on the
+ * task as stored, so estimates, bucketed deadlines and changes racing the query never produce a wrong result.
+ */
+@Component
+public class TaskQueryService {
+
+    // A predicate matched by more tasks than this fraction is checked per task rather than intersected
+    private static final double RECHECK_SELECTIVITY = 0.9;
+    private static final int SCAN_BATCH = 256;
+
+    private final TaskRepository taskRepository;
+    private final TaskBitmapIndex index;
+    private final double scanSelectivity;
+
+    @Value("${task-mgmt.pagination.default-limit:100}")
+    private int defaultPageLimit = 100;
+
+    @Value("${task-mgmt.pagination.max-limit:1000}")
+    private int maxPageLimit = 1000;
+
+    public record Result(PagedResult<TaskManagement> page, QueryPlanDto plan) {
+    }
+
+    private record IndexedPredicate(String description, long estimate, boolean idIndex, Supplier<RoaringBitmap> bitmap) {
+    }
+
+
+    public TaskQueryService(TaskRepository taskRepository, TaskBitmapIndex index, TaskQueryProperties properties) {
+        this.taskRepository = taskRepository;
+        this.index = index;
+        this.scanSelectivity = properties.getScanSelectivity();
+    }
+
+
+    /**
+     * @return the page, and the plan it was found with if the request asked to explain
+     */
+    public Result query(TaskQueryRequest request) {
+        long deadlineFrom = request.getDeadlineFrom() == null ? Long.MIN_VALUE : request.getDeadlineFrom();
+        long deadlineTo = request.getDeadlineTo() == null ? Long.MAX_VALUE : request.getDeadlineTo();
+        if (deadlineFrom >= deadlineTo) {
+            throw new BadRequestException("deadline_from must be before deadline_to");
+        }
+        int limit = pageLimit(request.getLimit());
+        PageCursor after = PageCursor.decode(request.getCursor());
+        // Task ids start at 1
+        long fromId = after == null ? 0 : after.taskId() + 1;
+        Predicate<TaskManagement> matcher = matcher(request);
+        index.catchUp();
+
+        List<IndexedPredicate> predicates = predicates(request, deadlineFrom, deadlineTo);
+        predicates.sort(Comparator.comparingLong(IndexedPredicate::estimate));
+        long total = index.size();
+        List<QueryPlanDto.PredicatePlan> steps = new ArrayList<>();
+        List<TaskManagement> tasks = new ArrayList<>(limit + 1);
+        long examined;
+        Long candidateCount = null;
+        QueryPlanDto.Strategy strategy;
+
+        if (predicates.isEmpty() || predicates.get(0).estimate() > scanSelectivity * total) {
+            strategy = QueryPlanDto.Strategy.SCAN;
+            predicates.forEach(predicate -> steps.add(step(predicate, QueryPlanDto.Step.RECHECK)));
+            examined = scan(matcher, fromId, limit, tasks);
+        } else {
+            IndexedPredicate driver = predicates.get(0);
+            strategy = driver.idIndex() ? QueryPlanDto.Strategy.INDEX : QueryPlanDto.Strategy.BITMAP;
+            steps.add(step(driver, QueryPlanDto.Step.DRIVE));
+            RoaringBitmap candidates = driver.bitmap().get();
+            for (IndexedPredicate predicate : predicates.subList(1, predicates.size())) {
+                // Checking a handful of candidates costs less than copying another bitmap
+                boolean intersect = predicate.estimate() <= RECHECK_SELECTIVITY * total
+                        && candidates.getLongCardinality() > limit;
+                if (intersect) {
+                    candidates.and(predicate.bitmap().get());
+                }
+                steps.add(step(predicate, intersect ? QueryPlanDto.Step.INTERSECT : QueryPlanDto.Step.RECHECK));
+            }
+            candidateCount = candidates.getLongCardinality();
+            examined = fetch(matcher, TaskBitmapIndex.iteratorFrom(candidates, fromId), limit, tasks);
+        }
+
+        boolean hasMore = tasks.size() > limit;
+        List<TaskManagement> page = hasMore ? tasks.subList(0, limit) : tasks;
+        String nextCursor = hasMore ? new PageCursor(page.get(limit - 1).getId(), page.get(limit - 1).getId()).encode() : null;
+        QueryPlanDto plan = request.isExplain()
+                ? new QueryPlanDto(strategy, total, steps, candidateCount, examined)
+                : null;
+        return new Result(new PagedResult<>(page, new Pagination(limit, hasMore, nextCursor)), plan);
+    }
+
+
+    private List<IndexedPredicate> predicates(TaskQueryRequest request, long deadlineFrom, long deadlineTo) {
+        List<IndexedPredicate> predicates = new ArrayList<>();
+        if (request.getReferenceId() != null) {
+            RoaringBitmap ids = new RoaringBitmap();
+            List<ReferenceType> referenceTypes = request.getReferenceType() != null
+                    ? List.of(request.getReferenceType())
+                    : List.of(ReferenceType.values());
+            for (ReferenceType referenceType : referenceTypes) {
+                taskRepository.findByReferenceIdAndReferenceType(request.getReferenceId(), referenceType)
+                        .forEach(task -> ids.add(TaskBitmapIndex.toBit(task.getId())));
+            }
+            predicates.add(new IndexedPredicate("reference_id = " + request.getReferenceId(), ids.getLongCardinality(),
+                    true, () -> ids));
+        }
+        if (request.getAssigneeIds() != null && !request.getAssigneeIds().isEmpty()) {
+            addIndexed(predicates, Field.ASSIGNEE, "assignee_ids", new LinkedHashSet<>(request.getAssigneeIds()), true);
+        }
+        if (request.getDeadlineFrom() != null || request.getDeadlineTo() != null) {
+            predicates.add(new IndexedPredicate("deadline in [" + request.getDeadlineFrom() + ", " + request.getDeadlineTo() + ")",
+                    index.countDeadlines(deadlineFrom, deadlineTo), true, () -> index.deadlines(deadlineFrom, deadlineTo)));
+        }
+        // A set holding every value rules nothing out
+        if (request.getStatuses() != null && !request.getStatuses().isEmpty()
+                && request.getStatuses().size() < TaskStatus.values().length) {
+            addIndexed(predicates, Field.STATUS, "statuses", request.getStatuses(), false);
+        }
+        if (request.getPriorities() != null && !request.getPriorities().isEmpty()
+                && request.getPriorities().size() < Priority.values().length) {
+            addIndexed(predicates, Field.PRIORITY, "priorities", request.getPriorities(), false);
+        }
+        if (request.getTask() != null) {
+            addIndexed(predicates, Field.TASK, "task", Set.of(request.getTask()), false);
+        }
+        if (request.getReferenceType() != null) {
+            addIndexed(predicates, Field.REFERENCE_TYPE, "reference_type", Set.of(request.getReferenceType()), false);
+        }
+        return predicates;
+    }
+
+
+    private void addIndexed(List<IndexedPredicate> predicates, Field field, String name, Collection<?> keys, boolean idIndex) {
+        String description = keys.size() == 1 ? name + " = " + keys.iterator().next() : name + " in " + keys;
+        predicates.add(new IndexedPredicate(description, index.count(field, keys), idIndex, () -> index.union(field, keys)));
+    }
+
+
+    // Every task id from fromId on, a batch at a time, so the index's read lock is not held while tasks are fetched
+    private long scan(Predicate<TaskManagement> matcher, long fromId, int limit, List<TaskManagement> tasks) {
+        long[] ids = new long[SCAN_BATCH];
+        long examined = 0;
+        int count;
+        while (tasks.size() <= limit && (count = index.ids(fromId, ids)) > 0) {
+            for (int i = 0; i < count && tasks.size() <= limit; i++) {
+                examined++;
+                taskRepository.findById(ids[i]).filter(matcher).ifPresent(tasks::add);
+            }
+            fromId = ids[count - 1] + 1;
+        }
+        return examined;
+    }
+
+
+    // Up to limit + 1 matching tasks, the extra one telling whether there is another page
+    private long fetch(Predicate<TaskManagement> matcher, PeekableIntIterator candidates, int limit, List<TaskManagement> tasks) {
+        long examined = 0;
+        while (tasks.size() <= limit && candidates.hasNext()) {
+            examined++;
+            taskRepository.findById(Integer.toUnsignedLong(candidates.next())).filter(matcher).ifPresent(tasks::add);
+        }
+        return examined;
+    }
+
+
+    // All the predicates, checked on the task as stored
+    private static Predicate<TaskManagement> matcher(TaskQueryRequest request) {
+        Set<TaskStatus> statuses = request.getStatuses() == null || request.getStatuses().isEmpty() ? null : request.getStatuses();
+        Set<Priority> priorities = request.getPriorities() == null || request.getPriorities().isEmpty() ? null : request.getPriorities();
+        Set<Long> assignees = request.getAssigneeIds() == null || request.getAssigneeIds().isEmpty()
+                ? null : new HashSet<>(request.getAssigneeIds());
+        return task -> (statuses == null || statuses.contains(task.getStatus()))
+                && (priorities == null || priorities.contains(task.getPriority()))
+                && (request.getTask() == null || request.getTask() == task.getTask())
+                && (request.getReferenceType() == null || request.getReferenceType() == task.getReferenceType())
+                && (assignees == null || assignees.contains(task.getAssigneeId()))
+                && (request.getReferenceId() == null || request.getReferenceId().equals(task.getReferenceId()))
+                && inDeadlineRange(task.getTaskDeadlineTime(), request.getDeadlineFrom(), request.getDeadlineTo());
+    }
+
+
+    private static boolean inDeadlineRange(Long deadline, Long fromInclusive, Long toExclusive) {
+        if (fromInclusive == null && toExclusive == null) {
+            return true;
+        }
+        return deadline != null && (fromInclusive == null || deadline >= fromInclusive)
+                && (toExclusive == null || deadline < toExclusive);
+    }
+
+
+    private static QueryPlanDto.PredicatePlan step(IndexedPredicate predicate, QueryPlanDto.Step step) {
+        return new QueryPlanDto.PredicatePlan(predicate.description(), predicate.estimate(), step);
+    }
+
+
+    private int pageLimit(Integer requested) {
+        if (requested == null) {
+            return defaultPageLimit;
+        }
+        if (requested <= 0) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(requested, maxPageLimit);
+    }
+}
@@ -0,0 +1,88 @@
+package com.flynaut.workforcemgmt.service.stats;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts open tasks whose deadline has passed, without rescanning tasks as time goes by. Pending deadlines are
+ * counted in buckets of one resolution each; {@link #sweep} moves every bucket whose time is up into the overdue
+ * total, after which changes to deadlines in that range go straight to the total. Reading is a single sum, and the
+ * count lags real time by at most one resolution plus the sweep delay.
+ */
+final class OverdueCounter {
+
+    private static final class Bucket {
+        final ReentrantLock lock = new ReentrantLock();
+        long count; // guarded by lock
+        boolean swept; // guarded by lock
+    }
+
+    private final long resolutionMillis;
+    private final ConcurrentSkipListMap<Long, Bucket> pending = new ConcurrentSkipListMap<>();
+    private final LongAdder overdue = new LongAdder();
+    // Buckets below this index have been swept; written only by the sweeping thread
+    private volatile long sweptBefore = Long.MIN_VALUE;
+
+
+    OverdueCounter(long resolutionMillis) {
+        this.resolutionMillis = resolutionMillis;
+    }
+
+
+    void add(long deadline, int delta) {
+        long index = Math.floorDiv(deadline, resolutionMillis);
+        if (index < sweptBefore) {
+            overdue.add(delta);
+            return;
+        }
+        Bucket bucket = pending.computeIfAbsent(index, i -> new Bucket());
+        bucket.lock.lock();
+        try {
+            if (!bucket.swept) {
+                if (index >= sweptBefore) {
+                    bucket.count += delta;
+                    return;
+                }
+                // Created just after a sweep went past its index, so fold it here
+                overdue.add(bucket.count);
+                bucket.swept = true;
+                pending.remove(index, bucket);
+            }
+        } finally {
+            bucket.lock.unlock();
+        }
+        // The bucket's tasks are already in the total
+        overdue.add(delta);
+    }
+
+
+    void sweep(long nowMillis) {
+        long before = Math.floorDiv(nowMillis, resolutionMillis);
+        if (before <= sweptBefore) {
+            return;
+        }
+        sweptBefore = before;
+        Iterator<Map.Entry<Long, Bucket>> due = pending.headMap(before).entrySet().iterator();
+        while (due.hasNext()) {
+            Bucket bucket = due.next().getValue();
+            bucket.lock.lock();
+            try {
+                if (!bucket.swept) {
+                    overdue.add(bucket.count);
+                    bucket.swept = true;
+                }
+            } finally {
+                bucket.lock.unlock();
+            }
+            due.remove();
+        }
+    }
+
+
+    long overdue() {
+        return overdue.sum();
+    }
+}
@@ -0,0 +1,227 @@
+package com.flynaut.workforcemgmt.service.stats;
+
+import com.flynaut.workforcemgmt.dto.TaskStatisticsDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.TaskChangeListener;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Task counts by status, priority, task type and assignee, kept up to date from the repository's change hook
+ * so a read costs the same however many tasks are stored.
+ * <p>
+ * Counts are striped over cells like a LongAdder, picked by task id, so concurrent writers rarely share a cell.
+ * Each change is applied to one cell as a whole (old snapshot out, new one in) under that cell's lock, so a read,
+ * which sums the cells one at a time, sees every change either entirely or not at all: the per-status,
+ * per-priority and per-type counts always add up to the same total, however many dimensions one save changed.
+ * Overdue counts come from an {@link OverdueCounter} and follow time at its resolution.
+ */
+@Component
+@EnableConfigurationProperties(TaskStatisticsProperties.class)
+public class TaskStatistics implements TaskChangeListener, SmartInitializingSingleton {
+
+    private static final int CELLS = 64;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Task[] TASKS = Task.values();
+
+    private static final class Cell {
+        final ReentrantLock lock = new ReentrantLock();
+        // All guarded by lock
+        long total;
+        final long[] byStatus = new long[STATUSES.length];
+        final long[] byPriority = new long[PRIORITIES.length];
+        final long[] byTask = new long[TASKS.length];
+        final Map<Long, long[]> openByAssignee = new HashMap<>();
+    }
+
+    private final TaskRepository taskRepository;
+    private final long resolutionMillis;
+    private final Cell[] cells = new Cell[CELLS];
+    private final OverdueCounter overdue;
+    private final ScheduledExecutorService sweeper;
+
+
+    public TaskStatistics(TaskRepository taskRepository, TaskStatisticsProperties properties) {
+        this.taskRepository = taskRepository;
+        this.resolutionMillis = properties.getOverdueResolution().toMillis();
+        for (int i = 0; i < CELLS; i++) {
+            cells[i] = new Cell();
+        }
+        this.overdue = new OverdueCounter(resolutionMillis);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-stats-overdue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Counts the tasks already stored and starts following changes. Restores from durable storage are not
+     * reported to listeners, so this runs once every bean is initialized and the store is recovered, and before
+     * the server accepts requests. Background writers (the deadline engine's tick, startup imports) are lifecycle
+     * beans, which Spring starts only after this: a save landing between following and counting would be counted
+     * twice.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        start();
+    }
+
+
+    public void start() {
+        taskRepository.addChangeListener(this);
+        try (Stream<TaskManagement> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> taskChanged(null, task));
+        }
+        sweepOverdue();
+        sweeper.scheduleWithFixedDelay(this::sweepOverdue, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @PreDestroy
+    public void stop() {
+        taskRepository.removeChangeListener(this);
+        sweeper.shutdownNow();
+    }
+
+
+    @Override
+    public void taskChanged(TaskManagement previous, TaskManagement next) {
+        Cell cell = cells[cellFor(next.getId())];
+        cell.lock.lock();
+        try {
+            if (previous != null) {
+                count(cell, previous, -1);
+            }
+            count(cell, next, 1);
+        } finally {
+            cell.lock.unlock();
+        }
+
+        Long previousDeadline = previous != null && isOpen(previous) ? previous.getTaskDeadlineTime() : null;
+        Long nextDeadline = isOpen(next) ? next.getTaskDeadlineTime() : null;
+        if (!Objects.equals(previousDeadline, nextDeadline)) {
+            if (previousDeadline != null) {
+                overdue.add(previousDeadline, -1);
+            }
+            if (nextDeadline != null) {
+                overdue.add(nextDeadline, 1);
+            }
+        }
+    }
+
+
+    /**
+     * @param assigneeIds assignees to report open counts for; null or empty for all of them
+     */
+    public TaskStatisticsDto snapshot(Collection<Long> assigneeIds) {
+        boolean allAssignees = assigneeIds == null || assigneeIds.isEmpty();
+        long total = 0;
+        long[] byStatus = new long[STATUSES.length];
+        long[] byPriority = new long[PRIORITIES.length];
+        long[] byTask = new long[TASKS.length];
+        Map<Long, Long> openByAssignee = new HashMap<>();
+        if (!allAssignees) {
+            assigneeIds.forEach(id -> openByAssignee.put(id, 0L));
+        }
+
+        for (Cell cell : cells) {
+            cell.lock.lock();
+            try {
+                total += cell.total;
+                add(byStatus, cell.byStatus);
+                add(byPriority, cell.byPriority);
+                add(byTask, cell.byTask);
+                if (allAssignees) {
+                    cell.openByAssignee.forEach((id, count) -> openByAssignee.merge(id, count[0], Long::sum));
+                } else {
+                    for (Long id : assigneeIds) {
+                        long[] count = cell.openByAssignee.get(id);
+                        if (count != null) {
+                            openByAssignee.merge(id, count[0], Long::sum);
+                        }
+                    }
+                }
+            } finally {
+                cell.lock.unlock();
+            }
+        }
+
+        long open = byStatus[TaskStatus.ASSIGNED.ordinal()] + byStatus[TaskStatus.STARTED.ordinal()];
+        return new TaskStatisticsDto(total, open, overdue.overdue(), toMap(TaskStatus.class, STATUSES, byStatus),
+                toMap(Priority.class, PRIORITIES, byPriority), toMap(Task.class, TASKS, byTask), openByAssignee);
+    }
+
+
+    void sweepOverdue() {
+        overdue.sweep(System.currentTimeMillis());
+    }
+
+
+    // Callers hold the cell's lock
+    private static void count(Cell cell, TaskManagement task, int delta) {
+        cell.total += delta;
+        if (task.getStatus() != null) {
+            cell.byStatus[task.getStatus().ordinal()] += delta;
+        }
+        if (task.getPriority() != null) {
+            cell.byPriority[task.getPriority().ordinal()] += delta;
+        }
+        if (task.getTask() != null) {
+            cell.byTask[task.getTask().ordinal()] += delta;
+        }
+        if (task.getAssigneeId() != null && isOpen(task)) {
+            long[] count = cell.openByAssignee.computeIfAbsent(task.getAssigneeId(), id -> new long[1]);
+            count[0] += delta;
+            // Drop assignees without open work, so the map tracks current workload rather than history
+            if (count[0] == 0) {
+                cell.openByAssignee.remove(task.getAssigneeId());
+            }
+        }
+    }
+
+
+    private static boolean isOpen(TaskManagement task) {
+        return task.getStatus() == TaskStatus.ASSIGNED || task.getStatus() == TaskStatus.STARTED;
+    }
+
+
+    private static void add(long[] sums, long[] counts) {
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] += counts[i];
+        }
+    }
+
+
+    private static <E extends Enum<E>> Map<E, Long> toMap(Class<E> type, E[] values, long[] counts) {
+        Map<E, Long> map = new EnumMap<>(type);
+        for (E value : values) {
+            map.put(value, counts[value.ordinal()]);
+        }
+        return map;
+    }
+
+
+    private static int cellFor(long taskId) {
+        return (int) (taskId ^ (taskId >>> 32)) & (CELLS - 1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.flynaut.workforcemgmt.service.stats;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.stats")
+public class TaskStatisticsProperties {
+    private Duration overdueResolution = Duration.ofSeconds(1);
+}
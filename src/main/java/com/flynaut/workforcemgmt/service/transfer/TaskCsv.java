@@ -0,0 +1,173 @@
+package com.flynaut.workforcemgmt.service.transfer;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CSV form of a task: the columns of {@link #COLUMNS}, in any order on import as long as the header names them.
+ * Null is an empty field and the empty string a quoted empty field, so both survive a round trip.
+ */
+final class TaskCsv {
+
+    static final String[] COLUMNS = {"id", "version", "reference_id", "reference_type", "task", "description",
+            "status", "assignee_id", "task_deadline_time", "priority", "overdue"};
+    static final byte[] HEADER = (String.join(",", COLUMNS) + "\n").getBytes(StandardCharsets.UTF_8);
+
+    private static final int REFERENCE_ID = 2;
+    private static final int REFERENCE_TYPE = 3;
+    private static final int TASK = 4;
+    private static final int DESCRIPTION = 5;
+    private static final int STATUS = 6;
+    private static final int ASSIGNEE_ID = 7;
+    private static final int TASK_DEADLINE_TIME = 8;
+    private static final int PRIORITY = 9;
+    private static final int OVERDUE = 10;
+
+    // Position in a record of each of COLUMNS, -1 when the file does not have it
+    private final int[] positions;
+    private final int fieldCount;
+
+
+    private TaskCsv(int[] positions, int fieldCount) {
+        this.positions = positions;
+        this.fieldCount = fieldCount;
+    }
+
+
+    /**
+     * @throws IllegalArgumentException if the header lacks a required column
+     */
+    static TaskCsv fromHeader(byte[] bytes, int from, int to) {
+        List<String> names = split(bytes, from, to);
+        int[] positions = new int[COLUMNS.length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < names.size(); i++) {
+            int column = Arrays.asList(COLUMNS).indexOf(names.get(i) == null ? "" : names.get(i).trim());
+            if (column >= 0) {
+                positions[column] = i;
+            }
+        }
+        for (int required : new int[]{REFERENCE_ID, REFERENCE_TYPE, TASK}) {
+            if (positions[required] < 0) {
+                throw new IllegalArgumentException("CSV header has no " + COLUMNS[required] + " column");
+            }
+        }
+        return new TaskCsv(positions, names.size());
+    }
+
+
+    /**
+     * Parses the record in {@code bytes[from, to)}, line terminator excluded.
+     *
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    TaskManagement parse(byte[] bytes, int from, int to) {
+        List<String> fields = split(bytes, from, to);
+        if (fields.size() != fieldCount) {
+            throw new IllegalArgumentException("expected " + fieldCount + " fields, found " + fields.size());
+        }
+        return TaskImporter.newTask(
+                TaskImporter.parseLong(field(fields, REFERENCE_ID), COLUMNS[REFERENCE_ID]),
+                field(fields, REFERENCE_TYPE), field(fields, TASK), field(fields, DESCRIPTION), field(fields, STATUS),
+                TaskImporter.parseLong(field(fields, ASSIGNEE_ID), COLUMNS[ASSIGNEE_ID]),
+                TaskImporter.parseLong(field(fields, TASK_DEADLINE_TIME), COLUMNS[TASK_DEADLINE_TIME]),
+                field(fields, PRIORITY), field(fields, OVERDUE));
+    }
+
+
+    static void write(TaskManagement task, StringBuilder out) {
+        out.append(orEmpty(task.getId())).append(',')
+                .append(task.getVersion()).append(',')
+                .append(orEmpty(task.getReferenceId())).append(',')
+                .append(orEmpty(task.getReferenceType())).append(',')
+                .append(orEmpty(task.getTask())).append(',');
+        quote(task.getDescription(), out);
+        out.append(',')
+                .append(orEmpty(task.getStatus())).append(',')
+                .append(orEmpty(task.getAssigneeId())).append(',')
+                .append(orEmpty(task.getTaskDeadlineTime())).append(',')
+                .append(orEmpty(task.getPriority())).append(',')
+                .append(task.isOverdue())
+                .append('\n');
+    }
+
+
+    private String field(List<String> fields, int column) {
+        return positions[column] < 0 ? null : fields.get(positions[column]);
+    }
+
+
+    private static Object orEmpty(Object value) {
+        return value == null ? "" : value;
+    }
+
+
+    private static void quote(String value, StringBuilder out) {
+        if (value == null) {
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+
+    // Fields of one record; null for an empty unquoted field
+    private static List<String> split(byte[] bytes, int from, int to) {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        int i = from;
+        while (true) {
+            if (i < to && bytes[i] == '"') {
+                StringBuilder value = new StringBuilder();
+                int start = ++i;
+                while (true) {
+                    if (i >= to) {
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    if (bytes[i] == '"') {
+                        value.append(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+                        if (i + 1 < to && bytes[i + 1] == '"') {
+                            value.append('"');
+                            i += 2;
+                            start = i;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+                if (i < to && bytes[i] != ',') {
+                    throw new IllegalArgumentException("unexpected character after quoted field");
+                }
+                fields.add(value.toString());
+            } else {
+                int start = i;
+                while (i < to && bytes[i] != ',') {
+                    if (bytes[i] == '"') {
+                        throw new IllegalArgumentException("quote inside unquoted field");
+                    }
+                    i++;
+                }
+                fields.add(i == start ? null : new String(bytes, start, i - start, StandardCharsets.UTF_8));
+            }
+            if (i >= to) {
+                return fields;
+            }
+            i++; // the comma
+        }
+    }
+}
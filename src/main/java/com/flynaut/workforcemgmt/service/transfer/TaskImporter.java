@@ -0,0 +1,377 @@
+package com.flynaut.workforcemgmt.service.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Loads tasks from an NDJSON or CSV file in parallel. The file is memory-mapped in slices of the chunk size;
+ * each slice's records start after the first record boundary in it, so every record belongs to exactly one
+ * slice, the one it starts in. Slices are parsed on the pool straight from the mapping: only the record being parsed
+ * is copied, into a buffer each slice reuses, as the parsers read from an array. Their tasks are created through
+ * {@link TaskRepository#saveAll}, a batch at a time, which reserves the ids and builds the indexes per batch.
+ * <p>
+ * JSON strings cannot hold a raw newline, so every newline ends an NDJSON record. A quoted CSV field can, so for
+ * CSV the quotes before each slice are counted first, in parallel, and a newline only ends a record outside quotes.
+ * <p>
+ * A malformed record is counted and reported with its line number and the import goes on; imported tasks get
+ * new ids, as the file's ids and versions belong to the store they were exported from.
+ */
+final class TaskImporter {
+
+    private final TaskRepository taskRepository;
+    private final ObjectReader dtoReader;
+    private final ExecutorService pool;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    private record LineError(long line, String message) {
+    }
+
+    // Lines are counted within the slice; the import adds the lines of the slices before it
+    private record SliceResult(long lines, long imported, long malformed, List<LineError> errors) {
+    }
+
+    record Result(long imported, long malformed, List<String> errors) {
+    }
+
+
+    TaskImporter(TaskRepository taskRepository, ObjectReader dtoReader, ExecutorService pool, int chunkSize,
+                 int batchSize, int maxReportedErrors) {
+        this.taskRepository = taskRepository;
+        this.dtoReader = dtoReader;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+
+    /**
+     * @throws IllegalArgumentException if a CSV file has no usable header
+     */
+    Result importFile(Path file, TransferFormat format) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return new Result(0, 0, List.of());
+            }
+            int sliceCount = (int) ((size + chunkSize - 1) / chunkSize);
+            MappedByteBuffer[] slices = new MappedByteBuffer[sliceCount];
+            for (int i = 0; i < sliceCount; i++) {
+                long position = (long) i * chunkSize;
+                slices[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, size - position));
+            }
+            boolean csv = format == TransferFormat.CSV;
+            boolean[] startsInQuotes = csv ? quoteStates(slices) : new boolean[sliceCount];
+
+            TaskCsv header = null;
+            long[] starts = new long[sliceCount + 1];
+            starts[sliceCount] = size;
+            if (csv) {
+                long headerEnd = recordEnd(slices, 0, false, csv, size);
+                byte[] headerBytes = copy(slices, 0, headerEnd, new byte[(int) headerEnd]);
+                header = TaskCsv.fromHeader(headerBytes, 0, (int) headerEnd);
+                starts[0] = Math.min(size, headerEnd + 1);
+            }
+            for (int i = 1; i < sliceCount; i++) {
+                long boundary = recordEnd(slices, (long) i * chunkSize, startsInQuotes[i], csv, size);
+                starts[i] = Math.max(starts[i - 1], Math.min(size, boundary + 1));
+            }
+
+            TaskCsv csvHeader = header;
+            List<Future<SliceResult>> results = new ArrayList<>(sliceCount);
+            for (int i = 0; i < sliceCount; i++) {
+                long from = starts[i];
+                long to = starts[i + 1];
+                results.add(pool.submit((Callable<SliceResult>) () -> importSlice(slices, from, to, csvHeader)));
+            }
+            return combine(results, csv);
+        }
+    }
+
+
+    // The records starting in [from, to), which may run on into the next slices
+    private SliceResult importSlice(MappedByteBuffer[] slices, long from, long to, TaskCsv csvHeader) {
+        SliceImport slice = new SliceImport(slices, csvHeader);
+        boolean inQuotes = false;
+        long recordStart = from;
+        for (int k = (int) (from / chunkSize); k < slices.length && (long) k * chunkSize < to; k++) {
+            MappedByteBuffer mapped = slices[k];
+            long base = (long) k * chunkSize;
+            for (int i = (int) Math.max(0, from - base), end = (int) Math.min(mapped.limit(), to - base); i < end; i++) {
+                byte b = mapped.get(i);
+                if (b == '"' && csvHeader != null) {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n') {
+                    if (inQuotes) {
+                        slice.lines++;
+                    } else {
+                        slice.record(recordStart, base + i);
+                        recordStart = base + i + 1;
+                    }
+                }
+            }
+        }
+        if (recordStart < to) {
+            slice.record(recordStart, to);
+        }
+        return slice.finish();
+    }
+
+
+    // Parsing state of one slice; lines are counted within the slice
+    private final class SliceImport {
+        private final MappedByteBuffer[] slices;
+        private final TaskCsv csvHeader;
+        private final List<LineError> errors = new ArrayList<>();
+        private List<TaskManagement> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        private byte[] buffer = new byte[1024];
+        private long lines;
+        private long recordLine;
+        private long imported;
+        private long malformed;
+
+
+        SliceImport(MappedByteBuffer[] slices, TaskCsv csvHeader) {
+            this.slices = slices;
+            this.csvHeader = csvHeader;
+        }
+
+
+        void record(long from, long to) {
+            buffer = copy(slices, from, to, buffer);
+            int length = (int) (to - from);
+            if (!isBlank(buffer, 0, length)) {
+                try {
+                    batch.add(csvHeader != null ? csvHeader.parse(buffer, 0, length) : parseJson(buffer, 0, length));
+                } catch (IllegalArgumentException e) {
+                    malformed++;
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add(new LineError(recordLine, e.getMessage()));
+                    }
+                }
+                if (batch.size() == batchSize) {
+                    imported += taskRepository.saveAll(batch).size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            recordLine = ++lines;
+        }
+
+
+        SliceResult finish() {
+            if (!batch.isEmpty()) {
+                imported += taskRepository.saveAll(batch).size();
+            }
+            return new SliceResult(lines, imported, malformed, errors);
+        }
+    }
+
+
+    private TaskManagement parseJson(byte[] bytes, int from, int to) {
+        TaskManagementDto dto;
+        try {
+            dto = dtoReader.readValue(bytes, from, to - from);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        if (dto == null) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        return newTask(dto.getReferenceId(), name(dto.getReferenceType()), name(dto.getTask()), dto.getDescription(),
+                name(dto.getStatus()), dto.getAssigneeId(), dto.getTaskDeadlineTime(), name(dto.getPriority()),
+                dto.getOverdue() == null ? null : dto.getOverdue().toString());
+    }
+
+
+    /**
+     * A new task from the fields of a record; tasks without a status are ASSIGNED.
+     *
+     * @throws IllegalArgumentException if a required field is missing or a value is not valid
+     */
+    static TaskManagement newTask(Long referenceId, String referenceType, String task, String description, String status,
+                                  Long assigneeId, Long taskDeadlineTime, String priority, String overdue) {
+        if (referenceId == null) {
+            throw new IllegalArgumentException("reference_id is missing");
+        }
+        return TaskManagement.builder()
+                .referenceId(referenceId)
+                .referenceType(parseEnum(ReferenceType.class, referenceType, "reference_type", true))
+                .task(parseEnum(Task.class, task, "task", true))
+                .description(description)
+                .status(status == null ? TaskStatus.ASSIGNED : parseEnum(TaskStatus.class, status, "status", true))
+                .assigneeId(assigneeId)
+                .taskDeadlineTime(taskDeadlineTime)
+                .priority(parseEnum(Priority.class, priority, "priority", false))
+                .overdue(parseBoolean(overdue))
+                .build();
+    }
+
+
+    static Long parseLong(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column, boolean required) {
+        if (value == null) {
+            if (required) {
+                throw new IllegalArgumentException(column + " is missing");
+            }
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + column + ": " + value);
+        }
+    }
+
+
+    private static boolean parseBoolean(String value) {
+        if (value == null || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new IllegalArgumentException("overdue is not true or false: " + value);
+    }
+
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+
+    private Result combine(List<Future<SliceResult>> results, boolean csv) throws InterruptedException, IOException {
+        long imported = 0;
+        long malformed = 0;
+        // The CSV header is line 1
+        long linesBefore = csv ? 1 : 0;
+        List<LineError> errors = new ArrayList<>();
+        for (Future<SliceResult> future : results) {
+            SliceResult slice;
+            try {
+                slice = future.get();
+            } catch (ExecutionException e) {
+                // Slices after this one keep importing; their tasks are not rolled back
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IOException(e.getCause());
+            }
+            imported += slice.imported();
+            malformed += slice.malformed();
+            for (LineError error : slice.errors()) {
+                errors.add(new LineError(linesBefore + error.line() + 1, error.message()));
+            }
+            linesBefore += slice.lines();
+        }
+        return new Result(imported, malformed, errors.stream()
+                .sorted(Comparator.comparingLong(LineError::line))
+                .limit(maxReportedErrors)
+                .map(error -> "line " + error.line() + ": " + error.message())
+                .toList());
+    }
+
+
+    // Whether each slice starts inside a quoted field, from the parity of the quotes in all slices before it
+    private boolean[] quoteStates(MappedByteBuffer[] slices) throws InterruptedException, IOException {
+        List<Future<Integer>> counts = new ArrayList<>(slices.length);
+        for (MappedByteBuffer slice : slices) {
+            counts.add(pool.submit(() -> {
+                int quotes = 0;
+                for (int i = 0, n = slice.limit(); i < n; i++) {
+                    if (slice.get(i) == '"') {
+                        quotes++;
+                    }
+                }
+                return quotes;
+            }));
+        }
+        boolean[] startsInQuotes = new boolean[slices.length];
+        boolean inQuotes = false;
+        for (int i = 0; i < slices.length; i++) {
+            startsInQuotes[i] = inQuotes;
+            try {
+                inQuotes ^= (counts.get(i).get() & 1) == 1;
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+        return startsInQuotes;
+    }
+
+
+    // Offset of the first newline at or after from that ends a record, or size if there is none
+    private long recordEnd(MappedByteBuffer[] slices, long from, boolean inQuotes, boolean csv, long size) {
+        for (long position = from; position < size; position++) {
+            byte b = slices[(int) (position / chunkSize)].get((int) (position % chunkSize));
+            if (b == '"' && csv) {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                return position;
+            }
+        }
+        return size;
+    }
+
+
+    // Copies [from, to) into buffer, or into a larger one it returns if it does not fit
+    private byte[] copy(MappedByteBuffer[] slices, long from, long to, byte[] buffer) {
+        int length = (int) (to - from);
+        byte[] bytes = buffer.length >= length ? buffer : new byte[Math.max(length, buffer.length * 2)];
+        int copied = 0;
+        while (copied < length) {
+            long position = from + copied;
+            // Records rarely cross a slice end, but one that does is copied from both slices
+            MappedByteBuffer slice = slices[(int) (position / chunkSize)];
+            int offset = (int) (position % chunkSize);
+            int count = Math.min(length - copied, slice.limit() - offset);
+            slice.get(offset, bytes, copied, count);
+            copied += count;
+        }
+        return bytes;
+    }
+
+
+    private static boolean isBlank(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\t' && bytes[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
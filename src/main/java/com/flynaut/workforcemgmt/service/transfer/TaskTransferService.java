@@ -0,0 +1,263 @@
+package com.flynaut.workforcemgmt.service.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.common.exception.ResourceNotFoundException;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.dto.TransferRequest;
+import com.flynaut.workforcemgmt.dto.TransferResultDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import and export of tasks as NDJSON or CSV files in the transfer directory, from the admin endpoints
+ * or, for imports, at startup. Both run on their own pool, sized to the processors by default.
+ * <p>
+ * An export first copies the stored snapshots in one pass, so the file holds every task exactly once at one
+ * version however long writing takes. Chunks of it are serialised in parallel and written in order to a
+ * temporary file of that export's own, which then replaces the target at once: readers never see a partial
+ * export, and a failed one leaves nothing behind.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(TransferProperties.class)
+public class TaskTransferService implements SmartLifecycle {
+
+    private final TaskRepository taskRepository;
+    private final NdjsonWriter ndjsonWriter;
+    private final TransferProperties properties;
+    private final ExecutorService pool;
+    private final TaskImporter importer;
+    private volatile boolean running;
+
+
+    public TaskTransferService(TaskRepository taskRepository, ObjectMapper objectMapper, NdjsonWriter ndjsonWriter,
+                               TransferProperties properties) {
+        this.taskRepository = taskRepository;
+        this.ndjsonWriter = ndjsonWriter;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "task-transfer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int chunkSize = (int) Math.min(Integer.MAX_VALUE, Math.max(4096, properties.getChunkSize().toBytes()));
+        this.importer = new TaskImporter(taskRepository, objectMapper.readerFor(TaskManagementDto.class), pool,
+                chunkSize, Math.max(1, properties.getBatchSize()), properties.getMaxReportedErrors());
+    }
+
+
+    // After persistence has recovered the store, so imported tasks come on top of it, and after every change
+    // listener has loaded the stored tasks, which an import running alongside would be counted twice by
+    @Override
+    public void start() {
+        running = true;
+        for (String file : properties.getImportOnStartup()) {
+            TransferRequest request = new TransferRequest();
+            request.setFile(file);
+            try {
+                importTasks(request);
+            } catch (IOException | RuntimeException e) {
+                log.error("Startup import of {} failed", file, e);
+            }
+        }
+    }
+
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+
+    // Before the web server, so requests see the imported tasks as they did when imports ran during initialization
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+
+    @PreDestroy
+    @Override
+    public void stop() {
+        running = false;
+        pool.shutdownNow();
+    }
+
+
+    public TransferResultDto importTasks(TransferRequest request) throws IOException {
+        Path file = resolve(request);
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Import file not found: " + request.getFile());
+        }
+        TransferFormat format = formatOf(request);
+        long started = System.nanoTime();
+        TaskImporter.Result result;
+        try {
+            result = importer.importFile(file, format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing " + request.getFile(), e);
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Imported {} tasks from {} in {} ms ({} malformed records)", result.imported(), file, millis,
+                result.malformed());
+        return resultOf(request, format, result.imported(), result.malformed(), result.errors(), millis);
+    }
+
+
+    public TransferResultDto exportTasks(TransferRequest request) throws IOException {
+        Path file = resolve(request);
+        TransferFormat format = formatOf(request);
+        long started = System.nanoTime();
+        List<TaskManagement> snapshot;
+        try (Stream<TaskManagement> tasks = taskRepository.streamAll()) {
+            snapshot = tasks.toList();
+        }
+
+        Files.createDirectories(file.getParent());
+        // A temporary file of its own, so concurrent exports to the same target never write into one file
+        Path temporary = Files.createTempFile(file.getParent(), file.getFileName() + ".", ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                if (format == TransferFormat.CSV) {
+                    writeFully(out, ByteBuffer.wrap(TaskCsv.HEADER));
+                }
+                int chunkTasks = Math.max(1, properties.getExportChunkTasks());
+                int window = chunkTasks * Math.max(1, properties.getParallelism());
+                // A window of chunks at a time, so only that much serialised output is held in memory
+                for (int windowStart = 0; windowStart < snapshot.size(); windowStart += window) {
+                    List<Future<ByteBuffer>> chunks = new ArrayList<>();
+                    for (int from = windowStart; from < Math.min(snapshot.size(), windowStart + window); from += chunkTasks) {
+                        List<TaskManagement> chunk = snapshot.subList(from, Math.min(snapshot.size(), from + chunkTasks));
+                        chunks.add(pool.submit(() -> serialize(chunk, format)));
+                    }
+                    for (Future<ByteBuffer> chunk : chunks) {
+                        writeFully(out, await(chunk));
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                deleteQuietly(temporary);
+            }
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Exported {} tasks to {} in {} ms", snapshot.size(), file, millis);
+        return resultOf(request, format, snapshot.size(), 0, List.of(), millis);
+    }
+
+
+    // Cleanup after a failed export must not hide the failure itself
+    private static void deleteQuietly(Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", temporary, e);
+        }
+    }
+
+
+    private ByteBuffer serialize(List<TaskManagement> chunk, TransferFormat format) throws IOException {
+        if (format == TransferFormat.CSV) {
+            StringBuilder csv = new StringBuilder(chunk.size() * 128);
+            for (TaskManagement task : chunk) {
+                TaskCsv.write(task, csv);
+            }
+            return ByteBuffer.wrap(csv.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream(chunk.size() * 256);
+        ndjsonWriter.write(chunk.stream(), ndjson);
+        return ByteBuffer.wrap(ndjson.toByteArray());
+    }
+
+
+    // Only files inside the transfer directory can be read or written
+    private Path resolve(TransferRequest request) {
+        if (request.getFile() == null || request.getFile().isBlank()) {
+            throw new BadRequestException("file is required");
+        }
+        Path directory = properties.getDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(request.getFile()).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new BadRequestException("file must be inside the transfer directory");
+        }
+        return file;
+    }
+
+
+    private static TransferFormat formatOf(TransferRequest request) {
+        return request.getFormat() != null ? request.getFormat() : TransferFormat.of(request.getFile());
+    }
+
+
+    private static TransferResultDto resultOf(TransferRequest request, TransferFormat format, long records,
+                                              long malformed, List<String> errors, long millis) {
+        TransferResultDto result = new TransferResultDto();
+        result.setFile(request.getFile());
+        result.setFormat(format);
+        result.setRecords(records);
+        result.setMalformed(malformed);
+        result.setErrors(errors);
+        result.setDurationMillis(millis);
+        return result;
+    }
+
+
+    private static void writeFully(FileChannel out, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting tasks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
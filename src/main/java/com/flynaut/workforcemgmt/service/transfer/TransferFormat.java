@@ -0,0 +1,26 @@
+package com.flynaut.workforcemgmt.service.transfer;
+
+/**
+ * File formats of bulk import and export. Both hold one task per record with the fields of
+ * {@link com.flynaut.workforcemgmt.dto.TaskManagementDto} under their snake_case names.
+ */
+public enum TransferFormat {
+
+    /**
+     * One JSON object per line, as written by the NDJSON export.
+     */
+    NDJSON,
+
+    /**
+     * RFC 4180 CSV with a header row naming the columns. An empty field is null; a quoted empty field is "".
+     */
+    CSV;
+
+
+    /**
+     * CSV for a {@code .csv} file name, NDJSON otherwise.
+     */
+    public static TransferFormat of(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,21 @@
+package com.flynaut.workforcemgmt.service.transfer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task-mgmt.transfer")
+public class TransferProperties {
+    private Path directory = Path.of("data/transfer");
+    private List<String> importOnStartup = new ArrayList<>();
+    private DataSize chunkSize = DataSize.ofMegabytes(16);
+    private int batchSize = 10_000;
+    private int exportChunkTasks = 50_000;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxReportedErrors = 100;
+}
@@ -1,4 +1,4 @@
-package com.flynaut.workforcemgmt.WorkforcemgmtApplication;
+package com.flynaut.workforcemgmt;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
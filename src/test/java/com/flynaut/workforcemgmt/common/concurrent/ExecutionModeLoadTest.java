@@ -0,0 +1,164 @@
+package com.flynaut.workforcemgmt.common.concurrent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.WorkforcemgmtApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop load against the running application in both execution modes. Writes go through the WAL with
+ * {@code fsync=always}, so every comment blocks its request thread on the disk, which is where a bounded
+ * platform pool and virtual threads differ. Clients come from {@code -Dload.clients} (comma separated) and each
+ * level runs for {@code -Dload.seconds}; results are printed and written to build/reports/load.
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final int WARMUP_SECONDS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        int[] clientLevels = Arrays.stream(System.getProperty("load.clients", "1000,10000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int seconds = Integer.getInteger("load.seconds", 20);
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        for (String mode : List.of("platform", "virtual")) {
+            try (ConfigurableApplicationContext context = start(mode)) {
+                URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/task-mgmt/");
+                run(base, Math.min(100, clientLevels[0]), WARMUP_SECONDS);
+                for (int clients : clientLevels) {
+                    Result result = run(base, clients, seconds);
+                    System.out.printf("LOAD mode=%s clients=%,d requests=%,d errors=%,d throughput=%,.0f req/s p50=%.2f ms p99=%.2f ms%n",
+                            mode, clients, result.requests(), result.errors(), result.throughput(), result.p50Millis(), result.p99Millis());
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("mode", mode);
+                    row.put("clients", clients);
+                    row.put("seconds", seconds);
+                    row.put("requests", result.requests());
+                    row.put("errors", result.errors());
+                    row.put("throughput", result.throughput());
+                    row.put("p50_ms", result.p50Millis());
+                    row.put("p99_ms", result.p99Millis());
+                    results.add(row);
+                    assertThat(result.requests()).isPositive();
+                }
+            }
+        }
+
+        Path report = Path.of("build", "reports", "load", "execution-mode.json");
+        Files.createDirectories(report.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), results);
+    }
+
+    private ConfigurableApplicationContext start(String mode) {
+        return new SpringApplicationBuilder(WorkforcemgmtApplication.class)
+                .properties(
+                        "server.port=0",
+                        "task-mgmt.execution.mode=" + mode,
+                        "task-mgmt.persistence.enabled=true",
+                        "task-mgmt.persistence.fsync=always",
+                        "task-mgmt.persistence.directory=" + directory.resolve(mode),
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static Result run(URI base, int clients, int seconds) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        long started = System.nanoTime();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long taskId = 1 + c % 5;
+                futures.add(clientThreads.submit(() -> client(http, base, taskId, deadline)));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        // Each client returns its latencies in nanos, with the error count in the last slot
+        long errors = 0;
+        int total = 0;
+        List<long[]> perClient = new ArrayList<>(clients);
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            errors += latencies[latencies.length - 1];
+            total += latencies.length - 1;
+            perClient.add(latencies);
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] latencies : perClient) {
+            System.arraycopy(latencies, 0, all, offset, latencies.length - 1);
+            offset += latencies.length - 1;
+        }
+        Arrays.sort(all);
+        return new Result(total, errors, total / (elapsed / 1e9), percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static long[] client(HttpClient http, URI base, long taskId, long deadline) {
+        HttpRequest read = HttpRequest.newBuilder(base.resolve(String.valueOf(taskId))).GET().build();
+        HttpRequest write = HttpRequest.newBuilder(base.resolve("addComment"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"task_id\":" + taskId + ",\"comment\":\"load\",\"commented_by\":\"load-test\"}"))
+                .build();
+        long[] latencies = new long[64];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(count % 2 == 0 ? read : write, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            } catch (Exception e) {
+                errors++;
+            }
+            if (count == latencies.length - 1) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        latencies = Arrays.copyOf(latencies, count + 1);
+        latencies[count] = errors;
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(long requests, long errors, double throughput, double p50Millis, double p99Millis) {
+    }
+}
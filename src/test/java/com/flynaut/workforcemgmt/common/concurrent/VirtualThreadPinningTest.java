@@ -0,0 +1,121 @@
+package com.flynaut.workforcemgmt.common.concurrent;
+
+import com.flynaut.workforcemgmt.dto.AssignByReferenceRequest;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.dto.TaskCreateRequest;
+import com.flynaut.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.repository.persistence.FsyncPolicy;
+import com.flynaut.workforcemgmt.repository.persistence.PersistenceProperties;
+import com.flynaut.workforcemgmt.repository.persistence.TaskPersistenceManager;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the write and read paths from many virtual threads, with the WAL forcing every write so that threads
+ * really block, and fails if JFR reports a virtual thread parking while pinned to its carrier.
+ */
+class VirtualThreadPinningTest {
+
+    private static final int CLIENTS = 200;
+    private static final int CALLS_PER_CLIENT = 25;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void hotPathsDoNotPinVirtualThreads() throws Exception {
+        InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+        InMemoryTaskHistoryRepository historyRepository = new InMemoryTaskHistoryRepository();
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setFsync(FsyncPolicy.ALWAYS);
+        properties.setSegmentSizeMb(8);
+        TaskPersistenceManager persistence = new TaskPersistenceManager(taskRepository, historyRepository, properties);
+        persistence.start();
+        TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+                taskRepository, historyRepository, new ITaskManagementMapperImpl());
+
+        List<String> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.add(String.valueOf(event.getStackTrace())));
+            recording.startAsync();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> calls = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    long client = c;
+                    calls.add(clients.submit(() -> {
+                        for (int i = 0; i < CALLS_PER_CLIENT; i++) {
+                            service.createTasks(createRequest(client));
+                            service.assignByReference(assignRequest(client % 16, client));
+                            CommentDto comment = new CommentDto();
+                            comment.setComment("call " + i);
+                            service.addComment(1L + client % 8, comment);
+                            service.fetchTasksByDate(fetchRequest(client));
+                            service.getTaskHistory(1L + client % 8, null, null, 10);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> call : calls) {
+                    call.get();
+                }
+            }
+            recording.stop();
+        } finally {
+            persistence.stop();
+        }
+
+        assertThat(pinned).as("virtual threads pinned while parked").isEmpty();
+    }
+
+    private static TaskCreateRequest createRequest(long client) {
+        TaskCreateRequest.RequestItem item = new TaskCreateRequest.RequestItem();
+        item.setReferenceId(10_000L + client);
+        item.setReferenceType(ReferenceType.ORDER);
+        item.setTask(Task.CREATE_INVOICE);
+        item.setAssigneeId(client);
+        item.setPriority(Priority.MEDIUM);
+        item.setTaskDeadlineTime(System.currentTimeMillis());
+        TaskCreateRequest request = new TaskCreateRequest();
+        request.setRequests(List.of(item));
+        return request;
+    }
+
+    private static AssignByReferenceRequest assignRequest(long referenceId, long assigneeId) {
+        AssignByReferenceRequest request = new AssignByReferenceRequest();
+        request.setReferenceId(referenceId);
+        request.setReferenceType(ReferenceType.ORDER);
+        request.setAssigneeId(assigneeId);
+        return request;
+    }
+
+    private static TaskFetchByDateRequest fetchRequest(long client) {
+        TaskFetchByDateRequest request = new TaskFetchByDateRequest();
+        request.setAssigneeIds(List.of(client, client + 1));
+        request.setStartDate(System.currentTimeMillis());
+        request.setEndDate(System.currentTimeMillis());
+        return request;
+    }
+}
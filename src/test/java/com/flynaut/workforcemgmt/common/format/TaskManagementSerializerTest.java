@@ -0,0 +1,89 @@
+package com.flynaut.workforcemgmt.common.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapper;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.Pagination;
+import com.flynaut.workforcemgmt.model.response.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskManagementSerializerTest {
+
+    private static final String[] DESCRIPTIONS = {
+            null, "", "New task created.", "Quote \" backslash \\ slash /", "Tab\tnew line\ncontrol \u0001",
+            "Überweisung prüfen – 支払い 🚚", "x".repeat(600)
+    };
+
+    private final ITaskManagementMapper mapper = new ITaskManagementMapperImpl();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void snapshotsSerializeExactlyLikeDtosInEveryFormat() throws Exception {
+        List<TaskManagement> tasks = randomTasks(5_000);
+        Pagination pagination = new Pagination(5_000, true, "cursor");
+
+        for (WireFormat format : WireFormat.values()) {
+            ObjectMapper formatMapper = format.mapperFrom(objectMapper);
+            byte[] direct = formatMapper.writeValueAsBytes(new Response<>(tasks, pagination));
+            byte[] viaDtos = formatMapper.writeValueAsBytes(new Response<>(mapper.modelListToDtoList(tasks), pagination));
+            assertThat(direct).as(format.name()).isEqualTo(viaDtos);
+        }
+        // A mapper without Spring's defaults gives the same result too
+        assertThat(new ObjectMapper().writeValueAsString(tasks))
+                .isEqualTo(new ObjectMapper().writeValueAsString(mapper.modelListToDtoList(tasks)));
+    }
+
+    @Test
+    void exportLinesAreUnchanged() throws Exception {
+        List<TaskManagement> tasks = randomTasks(500);
+        NdjsonWriter writer = new NdjsonWriter(objectMapper);
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        ByteArrayOutputStream viaDtos = new ByteArrayOutputStream();
+
+        writer.write(tasks.stream(), direct);
+        writer.write(tasks.stream().map(mapper::modelToDto), viaDtos);
+
+        assertThat(direct.toString()).isEqualTo(viaDtos.toString()).hasLineCount(500);
+    }
+
+    private static List<TaskManagement> randomTasks(int count) {
+        Random random = new Random(20);
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            // Every optional field is sometimes null and every enum constant shows up
+            tasks.add(TaskManagement.builder()
+                    .id(random.nextInt(20) == 0 ? null : id)
+                    .version(random.nextInt(4) == 0 ? random.nextLong() : id % 5)
+                    .referenceId(random.nextInt(20) == 0 ? null : random.nextLong())
+                    .referenceType(pick(random, ReferenceType.values()))
+                    .task(pick(random, Task.values()))
+                    .description(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)])
+                    .status(pick(random, TaskStatus.values()))
+                    .assigneeId(random.nextInt(20) == 0 ? null : (long) random.nextInt(1_000))
+                    .taskDeadlineTime(random.nextInt(20) == 0 ? null : 1_700_000_000_000L + random.nextInt())
+                    .priority(pick(random, Priority.values()))
+                    .overdue(random.nextBoolean())
+                    .build());
+        }
+        return tasks;
+    }
+
+    private static <E> E pick(Random random, E[] values) {
+        int index = random.nextInt(values.length + 1);
+        return index == values.length ? null : values[index];
+    }
+}
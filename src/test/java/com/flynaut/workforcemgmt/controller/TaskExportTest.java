@@ -0,0 +1,92 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.TaskRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs in the {@code heapTest} Gradle task under a small -Xmx. The tasks share one long description, so the
+ * populated store fits while the export is several times the heap: it only completes if the endpoint streams.
+ */
+@Tag("heap")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskExportTest {
+
+    private static final int TASK_COUNT = 16_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final String DESCRIPTION = "Pick up the signed delivery note. ".repeat(240);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void exportStreamsAStoreSeveralTimesTheHeap() throws Exception {
+        for (int from = 0; from < TASK_COUNT; from += BATCH_SIZE) {
+            List<TaskManagement> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < from + BATCH_SIZE; i++) {
+                batch.add(task(i));
+            }
+            taskRepository.saveAll(batch);
+        }
+        long expected = taskRepository.count();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/task-mgmt/export")).build();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        long lines = 0;
+        long bytes = 0;
+        // Discards the bytes as they arrive so the only memory in play is the server's own
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                bytes += read;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+
+        assertThat(lines).isEqualTo(expected);
+        assertThat(bytes).isGreaterThan((long) TASK_COUNT * DESCRIPTION.length())
+                .isGreaterThan(2 * Runtime.getRuntime().maxMemory());
+    }
+
+    private static TaskManagement task(int i) {
+        return TaskManagement.builder()
+                .referenceId(1_000_000L + i / 3)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.values()[1 + i % 3])
+                .description(DESCRIPTION)
+                .status(TaskStatus.ASSIGNED)
+                .assigneeId((long) (i % 500))
+                .priority(Priority.values()[i % 3])
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.exception.CustomExceptionHandler;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.service.cache.ResponseCache;
+import com.flynaut.workforcemgmt.service.cache.ResponseCacheProperties;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskVersioningTest {
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final InMemoryTaskHistoryRepository historyRepository = new InMemoryTaskHistoryRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, historyRepository, new ITaskManagementMapperImpl());
+    private final ResponseCache responseCache = new ResponseCache(taskRepository, historyRepository,
+            new ObjectMapper(), new SimpleMeterRegistry(), new ResponseCacheProperties());
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new TaskManagementController(service, new NdjsonWriter(new ObjectMapper()), responseCache))
+            .setControllerAdvice(new CustomExceptionHandler())
+            .build();
+
+    @BeforeEach
+    void listenForChanges() {
+        responseCache.start();
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithConflict() throws Exception {
+        MvcResult read = mockMvc.perform(get("/task-mgmt/1")).andReturn();
+        mockMvc.perform(asyncDispatch(read))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.data.version").value(1));
+
+        mockMvc.perform(put("/task-mgmt/1/priority").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"priority\":\"LOW\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        mockMvc.perform(put("/task-mgmt/1/priority").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"priority\":\"MEDIUM\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/task-mgmt/update").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[{\"task_id\":1,\"description\":\"stale\"}]}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/task-mgmt/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[{\"task_id\":1,\"description\":\"stale\",\"version\":1}]}"))
+                .andExpect(status().isConflict());
+
+        assertThat(taskRepository.findById(1L).orElseThrow().getPriority()).isEqualTo(Priority.LOW);
+        assertThat(taskRepository.findById(1L).orElseThrow().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void multiItemUpdateWithOneStaleVersionIsRejectedWithConflict() throws Exception {
+        mockMvc.perform(post("/task-mgmt/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[{\"task_id\":2,\"description\":\"first\",\"version\":1}]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/task-mgmt/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[{\"task_id\":1,\"description\":\"fresh\",\"version\":1},"
+                                + "{\"task_id\":2,\"description\":\"stale\",\"version\":1}]}"))
+                .andExpect(status().isConflict());
+
+        assertThat(taskRepository.findById(1L).orElseThrow().getVersion()).isEqualTo(1);
+        assertThat(taskRepository.findById(2L).orElseThrow().getDescription()).isEqualTo("first");
+    }
+
+    @Test
+    void unconditionalConcurrentUpdatesAreNotLost() throws Exception {
+        int threads = 8;
+        int updatesPerThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Priority priority = Priority.values()[t % Priority.values().length];
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    service.updatePriority(3L, priority, null);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        // Every update was applied on top of the one before it
+        assertThat(taskRepository.findById(3L).orElseThrow().getVersion()).isEqualTo(1 + threads * updatesPerThread);
+    }
+}
@@ -0,0 +1,162 @@
+package com.flynaut.workforcemgmt.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.exception.CustomExceptionHandler;
+import com.flynaut.workforcemgmt.common.format.WireFormat;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
+import com.flynaut.workforcemgmt.dto.TaskCreateRequest;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.Response;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.service.cache.ResponseCache;
+import com.flynaut.workforcemgmt.service.cache.ResponseCacheProperties;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WireFormatTest {
+
+    private static final int LARGE_RESPONSE_TASKS = 1_000;
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final InMemoryTaskHistoryRepository historyRepository = new InMemoryTaskHistoryRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, historyRepository, new ITaskManagementMapperImpl());
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smileMapper = WireFormat.SMILE.mapperFrom(objectMapper);
+    private final ObjectMapper cborMapper = WireFormat.CBOR.mapperFrom(objectMapper);
+    private final ResponseCache responseCache = new ResponseCache(taskRepository, historyRepository,
+            objectMapper, new SimpleMeterRegistry(), new ResponseCacheProperties());
+    // The converters in the order Spring MVC registers them, JSON first
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new TaskManagementController(service, new NdjsonWriter(objectMapper), responseCache))
+            .setControllerAdvice(new CustomExceptionHandler())
+            .setMessageConverters(new ByteArrayHttpMessageConverter(),
+                    new MappingJackson2HttpMessageConverter(objectMapper),
+                    new MappingJackson2SmileHttpMessageConverter(smileMapper),
+                    new MappingJackson2CborHttpMessageConverter(cborMapper))
+            .build();
+
+    @AfterEach
+    void stopListening() {
+        responseCache.stop();
+    }
+
+    @Test
+    void binaryBodiesCarryTheSameModelAsJson() throws Exception {
+        responseCache.start();
+        MvcResult created = mockMvc.perform(post("/task-mgmt/create")
+                        .contentType(WireFormat.SMILE.mediaType())
+                        .accept(WireFormat.SMILE.mediaType())
+                        .content(smileMapper.writeValueAsBytes(createRequest())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormat.SMILE.mediaType()))
+                .andReturn();
+        JsonNode createdTask = smileMapper.readTree(created.getResponse().getContentAsByteArray()).at("/data/0");
+        assertThat(createdTask.get("reference_id").asLong()).isEqualTo(4242L);
+        assertThat(createdTask.get("priority").asText()).isEqualTo("LOW");
+
+        String update = "{\"requests\":[{\"task_id\":" + createdTask.get("id").asLong()
+                + ",\"task_status\":\"STARTED\"}]}";
+        mockMvc.perform(post("/task-mgmt/update")
+                        .contentType(WireFormat.CBOR.mediaType())
+                        .content(cborMapper.writeValueAsBytes(objectMapper.readTree(update))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        // The cached read endpoints encode per format, under one ETag
+        MvcResult json = mockMvc.perform(get("/task-mgmt/priority/LOW"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/task-mgmt/priority/LOW")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormat.CBOR.mediaType()))
+                .andReturn();
+        assertThat(cbor.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(json.getResponse().getHeader(HttpHeaders.ETAG));
+        JsonNode fromCbor = cborMapper.readTree(cbor.getResponse().getContentAsByteArray());
+        assertThat(fromCbor).isEqualTo(objectMapper.readTree(json.getResponse().getContentAsByteArray()));
+        assertThat(fromCbor.findValuesAsText("status")).contains("STARTED");
+    }
+
+    @Test
+    void binaryFormatsShrinkALargeResponse() throws Exception {
+        List<TaskManagementDto> tasks = new ArrayList<>();
+        for (long id = 1; id <= LARGE_RESPONSE_TASKS; id++) {
+            TaskManagementDto task = new TaskManagementDto();
+            task.setId(id);
+            task.setVersion(1L + id % 3);
+            task.setReferenceId(1_000_000L + id / 3);
+            task.setReferenceType(ReferenceType.ORDER);
+            task.setTask(Task.values()[(int) (id % Task.values().length)]);
+            task.setDescription("Task " + id);
+            task.setStatus(TaskStatus.values()[(int) (id % TaskStatus.values().length)]);
+            task.setAssigneeId(id % 1_000);
+            task.setTaskDeadlineTime(1_700_000_000_000L + id * 60_000);
+            task.setPriority(Priority.values()[(int) (id % Priority.values().length)]);
+            task.setOverdue(id % 7 == 0);
+            tasks.add(task);
+        }
+        Response<List<TaskManagementDto>> response = new Response<>(tasks);
+        TypeReference<Response<List<TaskManagementDto>>> type = new TypeReference<>() {
+        };
+
+        Map<WireFormat, Integer> sizes = new EnumMap<>(WireFormat.class);
+        for (WireFormat format : WireFormat.values()) {
+            // Encoding and decoding times per format are measured by SerializationBenchmark
+            ObjectMapper mapper = format.mapperFrom(objectMapper);
+            byte[] body = mapper.writeValueAsBytes(response);
+            Response<List<TaskManagementDto>> decoded = mapper.readValue(body, type);
+            assertThat(decoded.getData()).isEqualTo(tasks);
+            sizes.put(format, body.length);
+        }
+        assertThat(sizes.get(WireFormat.SMILE)).isLessThan(sizes.get(WireFormat.JSON));
+        assertThat(sizes.get(WireFormat.CBOR)).isLessThan(sizes.get(WireFormat.JSON));
+    }
+
+    private static TaskCreateRequest createRequest() {
+        TaskCreateRequest.RequestItem item = new TaskCreateRequest.RequestItem();
+        item.setReferenceId(4242L);
+        item.setReferenceType(ReferenceType.ORDER);
+        item.setTask(Task.CREATE_INVOICE);
+        item.setAssigneeId(3L);
+        item.setPriority(Priority.LOW);
+        item.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000);
+        TaskCreateRequest request = new TaskCreateRequest();
+        request.setRequests(List.of(item));
+        return request;
+    }
+}
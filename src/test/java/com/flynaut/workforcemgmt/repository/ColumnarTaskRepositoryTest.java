@@ -0,0 +1,106 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarTaskRepositoryTest {
+
+    private final ColumnarTaskRepository repository = new ColumnarTaskRepository();
+
+    @Test
+    void readsReturnWhatWasSavedIncludingNulls() {
+        TaskManagement task = repository.save(task(900L, 4L, Priority.HIGH).withTaskDeadlineTime(null).withDescription(null));
+
+        TaskManagement read = repository.findById(task.getId()).orElseThrow();
+        assertThat(read).isEqualTo(task).isNotSameAs(task);
+        assertThat(repository.findById(task.getId() + 1_000_000)).isEmpty();
+    }
+
+    @Test
+    void updatesMoveTasksBetweenIndexesAndColumns() {
+        TaskManagement task = repository.save(task(900L, 4L, Priority.HIGH));
+        assertThat(repository.findOpenByReferenceIdAndReferenceType(900L, ReferenceType.ORDER)).containsExactly(task);
+
+        task = repository.save(task.withStatus(TaskStatus.COMPLETED).withPriority(Priority.LOW).withAssigneeId(5L));
+
+        assertThat(repository.findOpenByReferenceIdAndReferenceType(900L, ReferenceType.ORDER)).isEmpty();
+        assertThat(repository.findByReferenceIdAndReferenceType(900L, ReferenceType.ORDER)).containsExactly(task);
+        assertThat(repository.findByAssigneeIdIn(List.of(4L))).doesNotContain(task);
+        assertThat(repository.findByAssigneeIdIn(List.of(5L))).contains(task);
+        assertThat(repository.findByStatus(TaskStatus.COMPLETED)).contains(task);
+        assertThat(repository.findByPriority(Priority.HIGH, null, 1_000)).doesNotContain(task);
+        assertThat(repository.streamByPriority(Priority.LOW)).contains(task);
+    }
+
+    @Test
+    void priorityPagesWalkAcrossChunksInIdOrder() {
+        List<TaskManagement> batch = new ArrayList<>();
+        for (int i = 0; i < 150_000; i++) {
+            batch.add(task(1_000L + i, (long) (i % 50), i % 3 == 0 ? Priority.HIGH : Priority.MEDIUM));
+        }
+        repository.saveAll(batch);
+        long expected = repository.streamByPriority(Priority.HIGH).count();
+
+        List<Long> seen = new ArrayList<>();
+        PageCursor cursor = null;
+        List<TaskManagement> page;
+        do {
+            page = repository.findByPriority(Priority.HIGH, cursor, 7_000);
+            page.forEach(task -> seen.add(task.getId()));
+            if (!page.isEmpty()) {
+                cursor = new PageCursor(0, page.get(page.size() - 1).getId());
+            }
+        } while (!page.isEmpty());
+
+        assertThat(seen).hasSize((int) expected).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void readersNeverSeeTornRows() throws Exception {
+        TaskManagement task = repository.save(task(950L, 950L, Priority.LOW));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> reader = executor.submit(() -> {
+            while (writing.get()) {
+                TaskManagement read = repository.findById(task.getId()).orElseThrow();
+                // Every write keeps assignee and reference equal, so a mix of two writes would show up here
+                assertThat(read.getAssigneeId()).isEqualTo(read.getReferenceId());
+            }
+            return null;
+        });
+        TaskManagement current = task;
+        for (long i = 0; i < 200_000; i++) {
+            current = repository.save(current.withAssigneeId(i).withReferenceId(i));
+        }
+        writing.set(false);
+        reader.get();
+        executor.shutdown();
+    }
+
+    private static TaskManagement task(Long referenceId, Long assigneeId, Priority priority) {
+        return TaskManagement.builder()
+                .referenceId(referenceId)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(assigneeId)
+                .status(TaskStatus.ASSIGNED)
+                .priority(priority)
+                .description("New task created.")
+                .taskDeadlineTime(1_700_000_000_000L)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTaskHistoryRepositoryTest {
+
+    private static final long HOT_TASK_ID = 1L;
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int APPENDS_PER_WRITER = 5_000;
+
+    private final InMemoryTaskHistoryRepository repository = new InMemoryTaskHistoryRepository();
+
+    @Test
+    void concurrentWritersAndReadersOnHotTaskKeepHistoryCompleteAndOrdered() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            String author = "writer-" + w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < APPENDS_PER_WRITER; i++) {
+                    if (i % 2 == 0) {
+                        repository.appendComment(HOT_TASK_ID, comment(author, i));
+                    } else {
+                        repository.appendActivity(HOT_TASK_ID, activity(author, i));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                int lastSize = 0;
+                while (writing.get()) {
+                    List<Object> history = repository.findByTaskId(HOT_TASK_ID, null, 0, Integer.MAX_VALUE).entries();
+                    assertThat(history.size()).isGreaterThanOrEqualTo(lastSize);
+                    assertOrdered(history);
+                    lastSize = history.size();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(1, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Object> history = repository.findByTaskId(HOT_TASK_ID, null, 0, Integer.MAX_VALUE).entries();
+        assertThat(history).hasSize(WRITERS * APPENDS_PER_WRITER);
+        assertOrdered(history);
+    }
+
+    @Test
+    void sinceLimitAndPositionReturnIncrementalSlices() {
+        for (int i = 0; i < 10; i++) {
+            repository.appendComment(HOT_TASK_ID, comment("author", i));
+        }
+        List<Object> all = repository.findByTaskId(HOT_TASK_ID, null, 0, Integer.MAX_VALUE).entries();
+        Instant fifth = timestampOf(all.get(4));
+
+        HistorySlice slice = repository.findByTaskId(HOT_TASK_ID, fifth, 0, 3);
+        List<Object> page = slice.entries();
+
+        assertThat(page).hasSize(3);
+        assertThat(timestampOf(page.get(0))).isAfterOrEqualTo(fifth);
+        assertThat(slice.hasMore()).isTrue();
+
+        HistorySlice rest = repository.findByTaskId(HOT_TASK_ID, null, slice.nextPosition(), 10);
+        assertThat(rest.entries()).hasSize(10 - (int) slice.nextPosition());
+        assertThat(rest.hasMore()).isFalse();
+        assertThat(repository.findByTaskId(2L, null, 0, 10).entries()).isEmpty();
+    }
+
+    private static void assertOrdered(List<Object> history) {
+        for (int i = 1; i < history.size(); i++) {
+            assertThat(timestampOf(history.get(i))).isAfterOrEqualTo(timestampOf(history.get(i - 1)));
+        }
+    }
+
+    private static Instant timestampOf(Object entry) {
+        return entry instanceof CommentDto comment ? comment.getTimestamp() : ((ActivityLogDto) entry).getTimestamp();
+    }
+
+    private static CommentDto comment(String author, int i) {
+        CommentDto comment = new CommentDto();
+        comment.setTaskId(HOT_TASK_ID);
+        comment.setComment("comment " + i);
+        comment.setCommentedBy(author);
+        return comment;
+    }
+
+    private static ActivityLogDto activity(String author, int i) {
+        ActivityLogDto activity = new ActivityLogDto();
+        activity.setMessage("activity " + i);
+        activity.setCreatedBy(author);
+        return activity;
+    }
+}
@@ -0,0 +1,194 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTaskRepositoryTest {
+
+    // Well clear of the seed data's assignees and references
+    private static final long ASSIGNEE = 9_001L;
+    private static final long OTHER_ASSIGNEE = 9_002L;
+
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+    private static final long RANGE_START = 1_800_000_000_000L;
+    private static final long RANGE_END = RANGE_START + DAY;
+
+    private final InMemoryTaskRepository repository = new InMemoryTaskRepository();
+
+    @Test
+    void reassignmentMovesTheTaskBetweenAssigneeBuckets() {
+        TaskManagement task = repository.save(task(900L, ASSIGNEE, Priority.HIGH));
+        assertThat(repository.findByAssigneeIdIn(List.of(ASSIGNEE))).containsExactly(task);
+
+        task = repository.save(task.withAssigneeId(OTHER_ASSIGNEE));
+
+        assertThat(repository.findByAssigneeIdIn(List.of(ASSIGNEE))).isEmpty();
+        assertThat(repository.findByAssigneeIdIn(List.of(OTHER_ASSIGNEE))).containsExactly(task);
+        assertThat(repository.findByAssigneeIdIn(List.of(ASSIGNEE, OTHER_ASSIGNEE))).containsExactly(task);
+        // Fields the save left alone keep the task where it was
+        assertThat(repository.findByReferenceIdAndReferenceType(900L, ReferenceType.ORDER)).containsExactly(task);
+        assertThat(repository.findByPriority(Priority.HIGH, null, 1_000)).contains(task);
+    }
+
+    @Test
+    void statusAndPriorityChangesMoveTheTaskBetweenBuckets() {
+        TaskManagement task = repository.save(task(901L, ASSIGNEE, Priority.HIGH));
+        assertThat(repository.findByStatus(TaskStatus.ASSIGNED)).contains(task);
+        assertThat(repository.findOpenByReferenceIdAndReferenceType(901L, ReferenceType.ORDER)).containsExactly(task);
+
+        task = repository.save(task.withStatus(TaskStatus.STARTED).withPriority(Priority.LOW));
+
+        assertThat(repository.findByStatus(TaskStatus.ASSIGNED)).extracting(TaskManagement::getId).doesNotContain(task.getId());
+        assertThat(repository.findByStatus(TaskStatus.STARTED)).contains(task);
+        assertThat(repository.findByPriority(Priority.HIGH, null, 1_000)).extracting(TaskManagement::getId).doesNotContain(task.getId());
+        assertThat(repository.findByPriority(Priority.LOW, null, 1_000)).contains(task);
+        assertThat(repository.streamByPriority(Priority.LOW)).contains(task);
+        assertThat(repository.findOpenByReferenceIdAndReferenceType(901L, ReferenceType.ORDER)).containsExactly(task);
+
+        task = repository.save(task.withStatus(TaskStatus.COMPLETED));
+
+        assertThat(repository.findByStatus(TaskStatus.STARTED)).extracting(TaskManagement::getId).doesNotContain(task.getId());
+        assertThat(repository.findByStatus(TaskStatus.COMPLETED)).contains(task);
+        assertThat(repository.findOpenByReferenceIdAndReferenceType(901L, ReferenceType.ORDER)).isEmpty();
+        assertThat(repository.findByReferenceIdAndReferenceType(901L, ReferenceType.ORDER)).containsExactly(task);
+    }
+
+    @Test
+    void bucketsHoldEveryTaskOfAKeyAcrossBatchAndSingleSaves() {
+        List<TaskManagement> batch = repository.saveAll(List.of(
+                task(902L, ASSIGNEE, Priority.MEDIUM),
+                task(902L, ASSIGNEE, Priority.MEDIUM).withTask(Task.ARRANGE_PICKUP),
+                task(903L, OTHER_ASSIGNEE, Priority.MEDIUM)));
+        TaskManagement single = repository.save(task(902L, OTHER_ASSIGNEE, Priority.LOW).withTask(Task.COLLECT_PAYMENT));
+
+        assertThat(repository.findByReferenceIdAndReferenceType(902L, ReferenceType.ORDER))
+                .containsExactlyInAnyOrder(batch.get(0), batch.get(1), single);
+        assertThat(repository.findByAssigneeIdIn(List.of(ASSIGNEE))).containsExactlyInAnyOrder(batch.get(0), batch.get(1));
+        assertThat(repository.findByAssigneeIdIn(List.of(OTHER_ASSIGNEE))).containsExactlyInAnyOrder(batch.get(2), single);
+        // Same reference id, other type
+        assertThat(repository.findByReferenceIdAndReferenceType(902L, ReferenceType.ENTITY)).isEmpty();
+    }
+
+    @Test
+    void deadlineRangeHoldsNonCancelledTasksAndCarryOverOnlyOpenOnes() {
+        TaskManagement overdueOpen = repository.save(task(910L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START - HOUR));
+        repository.save(task(911L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START - 2 * HOUR).withStatus(TaskStatus.COMPLETED));
+        TaskManagement lateInRange = repository.save(task(912L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_END - 1));
+        TaskManagement earlyInRange = repository.save(task(913L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START)
+                .withStatus(TaskStatus.COMPLETED));
+        repository.save(task(914L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START + HOUR).withStatus(TaskStatus.CANCELLED));
+        repository.save(task(915L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(null));
+        repository.save(task(916L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_END));
+        repository.save(task(917L, OTHER_ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START + HOUR));
+
+        assertThat(tasks(repository.findByAssigneeIdInAndDeadlineBetween(List.of(ASSIGNEE), RANGE_START, RANGE_END, null, 100)))
+                .containsExactly(earlyInRange, lateInRange);
+        assertThat(tasks(repository.findOpenByAssigneeIdInAndDeadlineBefore(List.of(ASSIGNEE), RANGE_START, null, 100)))
+                .containsExactly(overdueOpen);
+    }
+
+    @Test
+    void deadlineAndStatusChangesMoveTasksInAndOutOfTheRangeAndCarryOver() {
+        TaskManagement overdue = repository.save(task(920L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START - HOUR));
+        TaskManagement later = repository.save(task(921L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_END + HOUR));
+        TaskManagement inRange = repository.save(task(922L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START + HOUR));
+
+        later = repository.save(later.withTaskDeadlineTime(RANGE_START + 2 * HOUR));
+        inRange = repository.save(inRange.withStatus(TaskStatus.CANCELLED));
+        TaskManagement reassigned = repository.save(overdue.withAssigneeId(OTHER_ASSIGNEE));
+
+        assertThat(tasks(repository.findByAssigneeIdInAndDeadlineBetween(List.of(ASSIGNEE), RANGE_START, RANGE_END, null, 100)))
+                .containsExactly(later);
+        assertThat(tasks(repository.findOpenByAssigneeIdInAndDeadlineBefore(List.of(ASSIGNEE), RANGE_START, null, 100))).isEmpty();
+        assertThat(tasks(repository.findOpenByAssigneeIdInAndDeadlineBefore(List.of(OTHER_ASSIGNEE), RANGE_START, null, 100)))
+                .containsExactly(reassigned);
+
+        // Closing the carried-over task drops it from the open index but not from the deadline index
+        TaskManagement completed = repository.save(reassigned.withStatus(TaskStatus.COMPLETED));
+        assertThat(tasks(repository.findOpenByAssigneeIdInAndDeadlineBefore(List.of(OTHER_ASSIGNEE), RANGE_START, null, 100))).isEmpty();
+        assertThat(tasks(repository.findByAssigneeIdInAndDeadlineBetween(List.of(OTHER_ASSIGNEE), RANGE_START - DAY, RANGE_START, null, 100)))
+                .containsExactly(completed);
+
+        // A cancelled task that is reopened comes back
+        inRange = repository.save(inRange.withStatus(TaskStatus.ASSIGNED));
+        assertThat(tasks(repository.findByAssigneeIdInAndDeadlineBetween(List.of(ASSIGNEE), RANGE_START, RANGE_END, null, 100)))
+                .containsExactly(inRange, later);
+    }
+
+    @Test
+    void anEntryOnlyMatchesASnapshotThatStillBelongsAtIt() {
+        TaskIndex index = new TaskIndex();
+        TaskManagement task = task(930L, ASSIGNEE, Priority.LOW).withId(930L).withTaskDeadlineTime(RANGE_START + HOUR);
+        index.reindex(null, task);
+        TaskIndex.DeadlineEntry entry = TaskIndex.mergeSorted(
+                index.deadlinesBetween(List.of(ASSIGNEE), RANGE_START, RANGE_END, null)).next();
+        TaskIndex.DeadlineEntry openEntry = TaskIndex.mergeSorted(
+                index.openDeadlinesBefore(List.of(ASSIGNEE), RANGE_END, null)).next();
+
+        assertThat(TaskIndex.matches(entry, task, List.of(ASSIGNEE), false)).isTrue();
+        assertThat(TaskIndex.matches(openEntry, task, List.of(ASSIGNEE), true)).isTrue();
+        // Snapshots a racing read could pair with these entries
+        assertThat(TaskIndex.matches(entry, task.withTaskDeadlineTime(RANGE_END + HOUR), List.of(ASSIGNEE), false)).isFalse();
+        assertThat(TaskIndex.matches(entry, task.withTaskDeadlineTime(null), List.of(ASSIGNEE), false)).isFalse();
+        assertThat(TaskIndex.matches(entry, task.withStatus(TaskStatus.CANCELLED), List.of(ASSIGNEE), false)).isFalse();
+        assertThat(TaskIndex.matches(entry, task.withAssigneeId(OTHER_ASSIGNEE), List.of(ASSIGNEE), false)).isFalse();
+        assertThat(TaskIndex.matches(entry, task.withStatus(TaskStatus.COMPLETED), List.of(ASSIGNEE), false)).isTrue();
+        assertThat(TaskIndex.matches(openEntry, task.withStatus(TaskStatus.COMPLETED), List.of(ASSIGNEE), true)).isFalse();
+    }
+
+    @Test
+    void queriesRacingDeadlineAndStatusChangesOnlyReturnMatchingTasks() throws Exception {
+        TaskManagement moving = repository.save(task(931L, ASSIGNEE, Priority.LOW).withTaskDeadlineTime(RANGE_START - HOUR));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            TaskManagement current = moving;
+            for (int i = 0; i < 20_000; i++) {
+                // Alternates between open carry-over and closed in range
+                current = i % 2 == 0
+                        ? repository.save(current.withTaskDeadlineTime(RANGE_START + HOUR).withStatus(TaskStatus.COMPLETED))
+                        : repository.save(current.withTaskDeadlineTime(RANGE_START - HOUR).withStatus(TaskStatus.ASSIGNED));
+            }
+            done.set(true);
+        });
+        writer.start();
+
+        while (!done.get()) {
+            assertThat(tasks(repository.findByAssigneeIdInAndDeadlineBetween(List.of(ASSIGNEE), RANGE_START, RANGE_END, null, 100)))
+                    .allSatisfy(task -> assertThat(task.getTaskDeadlineTime()).isBetween(RANGE_START, RANGE_END - 1));
+            assertThat(tasks(repository.findOpenByAssigneeIdInAndDeadlineBefore(List.of(ASSIGNEE), RANGE_START, null, 100)))
+                    .allSatisfy(task -> assertThat(task.getStatus()).isEqualTo(TaskStatus.ASSIGNED));
+        }
+        writer.join();
+    }
+
+    // Every task was found under the key of its own (deadline, id)
+    private static List<TaskManagement> tasks(List<KeyedTask> found) {
+        assertThat(found).allSatisfy(keyed -> assertThat(keyed.key())
+                .isEqualTo(new PageCursor(keyed.task().getTaskDeadlineTime(), keyed.task().getId())));
+        return found.stream().map(KeyedTask::task).toList();
+    }
+
+    private static TaskManagement task(Long referenceId, Long assigneeId, Priority priority) {
+        return TaskManagement.builder()
+                .referenceId(referenceId)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(assigneeId)
+                .status(TaskStatus.ASSIGNED)
+                .priority(priority)
+                .description("New task created.")
+                .taskDeadlineTime(1_700_000_000_000L)
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PageCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedTaskRepositoryTest {
+
+    private static final int SHARDS = 4;
+
+    private final ShardedTaskRepository repository = new ShardedTaskRepository(properties());
+
+    @AfterEach
+    void stopRepository() throws InterruptedException {
+        repository.stop();
+    }
+
+    @Test
+    void tasksOfAReferenceShareAShardAndFanOutQueriesMerge() {
+        List<TaskManagement> batch = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            batch.add(task(10_000L + i / 3, (long) (i % 40), Priority.values()[i % 3], 1_700_000_000_000L + i % 977));
+        }
+        List<TaskManagement> saved = repository.saveAll(batch);
+        assertThat(saved).extracting(TaskManagement::getReferenceId)
+                .containsExactlyElementsOf(batch.stream().map(TaskManagement::getReferenceId).toList());
+        assertThat(saved).extracting(TaskManagement::getId).doesNotHaveDuplicates();
+        assertThat(repository.count()).isEqualTo(20_000 + SeedTasks.create().size());
+
+        List<TaskManagement> reference = repository.findByReferenceIdAndReferenceType(10_005L, ReferenceType.ORDER);
+        assertThat(reference).hasSize(3).extracting(TaskManagement::getId).isSorted();
+        assertThat(reference).extracting(task -> (task.getId() - 1) % SHARDS).containsOnly((reference.get(0).getId() - 1) % SHARDS);
+
+        List<Long> seen = new ArrayList<>();
+        PageCursor cursor = null;
+        List<TaskManagement> page;
+        do {
+            page = repository.findByPriority(Priority.HIGH, cursor, 1_000);
+            page.forEach(task -> seen.add(task.getId()));
+            if (!page.isEmpty()) {
+                cursor = new PageCursor(0, page.get(page.size() - 1).getId());
+            }
+        } while (!page.isEmpty());
+        assertThat(seen).hasSize((int) repository.streamByPriority(Priority.HIGH).count()).isSorted().doesNotHaveDuplicates();
+
+        Comparator<TaskManagement> byDeadline = Comparator.comparing(TaskManagement::getTaskDeadlineTime)
+                .thenComparing(TaskManagement::getId);
+        List<TaskManagement> expected = repository.findAll().stream()
+                .filter(task -> task.getAssigneeId() == 7L || task.getAssigneeId() == 8L)
+                .filter(task -> task.getTaskDeadlineTime() >= 1_700_000_000_100L && task.getTaskDeadlineTime() < 1_700_000_000_500L)
+                .sorted(byDeadline)
+                .limit(150)
+                .toList();
+        assertThat(repository.findByAssigneeIdInAndDeadlineBetween(List.of(7L, 8L), 1_700_000_000_100L,
+                1_700_000_000_500L, null, 150)).extracting(KeyedTask::task).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void concurrentSavesOfOneTaskConflictInsteadOfLosingUpdates() throws Exception {
+        TaskManagement task = repository.save(task(500L, 1L, Priority.LOW, 1_700_000_000_000L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger applied = new AtomicInteger();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 8; w++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    TaskManagement current = repository.findById(task.getId()).orElseThrow();
+                    try {
+                        repository.save(current.withAssigneeId(current.getAssigneeId() + 1));
+                        applied.incrementAndGet();
+                    } catch (ConflictException e) {
+                        // Read again on the next round
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        TaskManagement stored = repository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getVersion()).isEqualTo(1 + applied.get());
+        assertThat(stored.getAssigneeId()).isEqualTo(1L + applied.get());
+        assertThatThrownBy(() -> repository.save(task)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void everyChangeIsLoggedBeforeTheCallerIsAnswered() {
+        Set<Long> logged = ConcurrentHashMap.newKeySet();
+        AtomicInteger open = new AtomicInteger();
+        repository.setMutationLog(new MutationLog() {
+            @Override
+            public void beginMutation() {
+                open.incrementAndGet();
+            }
+
+            @Override
+            public void endMutation() {
+                open.decrementAndGet();
+            }
+
+            @Override
+            public void taskSaved(TaskManagement task) {
+                assertThat(Thread.currentThread().getName()).startsWith("task-shard-");
+                logged.add(task.getId() * 1_000 + task.getVersion());
+            }
+        });
+
+        List<TaskManagement> saved = repository.saveAll(List.of(task(1L, 1L, Priority.LOW, 1L), task(2L, 1L, Priority.LOW, 1L),
+                task(3L, 1L, Priority.LOW, 1L), task(4L, 1L, Priority.LOW, 1L)));
+        TaskManagement updated = repository.save(saved.get(0).withStatus(TaskStatus.STARTED));
+
+        assertThat(open).hasValue(0);
+        assertThat(logged).containsAll(saved.stream().map(task -> task.getId() * 1_000 + 1).collect(Collectors.toSet()))
+                .contains(updated.getId() * 1_000 + 2);
+    }
+
+    @Test
+    void restoredIdsAreNeverHandedOutAgain() throws InterruptedException {
+        List<TaskManagement> tasks = repository.findAll();
+        ShardedTaskRepository restored = new ShardedTaskRepository(properties());
+        try {
+            // A fresh store already holds the seed tasks under the same ids, so restore over them
+            tasks.forEach(task -> restored.restore(task.withVersion(task.getVersion() + 1)));
+            restored.restore(task(9L, 9L, Priority.HIGH, 1L).toBuilder().id(1_001L).version(1).build());
+
+            List<TaskManagement> created = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                created.add(restored.save(task(9L + i, 9L, Priority.HIGH, 1L)));
+            }
+            assertThat(created).extracting(TaskManagement::getId).doesNotHaveDuplicates()
+                    .doesNotContainAnyElementsOf(tasks.stream().map(TaskManagement::getId).toList())
+                    .doesNotContain(1_001L);
+            assertThat(restored.findById(1_001L)).isPresent();
+            assertThat(restored.count()).isEqualTo(tasks.size() + 1_001);
+        } finally {
+            restored.stop();
+        }
+    }
+
+    @Test
+    void writesRacingStopAreAnsweredInsteadOfLeftWaiting() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 8; w++) {
+            long referenceId = w;
+            writers.add(executor.submit(() -> {
+                try {
+                    while (true) {
+                        repository.save(task(referenceId, 1L, Priority.LOW, 1L));
+                    }
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        Thread.sleep(50);
+        repository.stop();
+
+        for (Future<?> writer : writers) {
+            writer.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(rejected).hasValue(8);
+    }
+
+    private static ShardedRepositoryProperties properties() {
+        ShardedRepositoryProperties properties = new ShardedRepositoryProperties();
+        properties.setShards(SHARDS);
+        properties.setQueueCapacity(64);
+        return properties;
+    }
+
+    private static TaskManagement task(Long referenceId, Long assigneeId, Priority priority, long deadline) {
+        return TaskManagement.builder()
+                .referenceId(referenceId)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(assigneeId)
+                .status(TaskStatus.ASSIGNED)
+                .priority(priority)
+                .description("New task created.")
+                .taskDeadlineTime(deadline)
+                .build();
+    }
+}
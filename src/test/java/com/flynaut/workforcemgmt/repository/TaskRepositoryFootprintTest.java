@@ -0,0 +1,77 @@
+package com.flynaut.workforcemgmt.repository;
+
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retained heap of both repository implementations after loading the same tasks, indexes included.
+ * Sizes come from {@code -Dfootprint.tasks} (comma separated); 10M tasks needs a heap of several GB.
+ */
+@Tag("footprint")
+class TaskRepositoryFootprintTest {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] DESCRIPTIONS = {"New task created.", "This is a seed task.", "Follow up with customer"};
+
+    @Test
+    void columnarStoreRetainsLessHeapThanObjectStore() {
+        String sizes = System.getProperty("footprint.tasks", "1000000");
+        for (int tasks : Arrays.stream(sizes.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray()) {
+            long objects = retainedBytes(InMemoryTaskRepository::new, tasks);
+            long columns = retainedBytes(ColumnarTaskRepository::new, tasks);
+            System.out.printf("FOOTPRINT tasks=%,d in-memory=%,d MB (%d B/task) columnar=%,d MB (%d B/task)%n",
+                    tasks, objects >> 20, objects / tasks, columns >> 20, columns / tasks);
+            assertThat(columns).isLessThan(objects);
+        }
+    }
+
+    private static long retainedBytes(Supplier<TaskRepository> factory, int tasks) {
+        long before = usedHeapAfterGc();
+        TaskRepository repository = factory.get();
+        for (int start = 0; start < tasks; start += BATCH_SIZE) {
+            List<TaskManagement> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(tasks, start + BATCH_SIZE); i++) {
+                batch.add(task(i));
+            }
+            repository.saveAll(batch);
+        }
+        long after = usedHeapAfterGc();
+        // Keep the repository reachable until it has been measured
+        assertThat(repository.findById(1L)).isPresent();
+        return after - before;
+    }
+
+    private static TaskManagement task(int i) {
+        return TaskManagement.builder()
+                .referenceId(100_000L + i / 3)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.values()[i % Task.values().length])
+                .assigneeId((long) (i % 5_000))
+                .status(i % 4 == 0 ? TaskStatus.COMPLETED : TaskStatus.ASSIGNED)
+                .priority(Priority.values()[i % Priority.values().length])
+                // Copied so that pooling, not the shared literal, is what deduplicates the text
+                .description(new String(DESCRIPTIONS[i % DESCRIPTIONS.length]))
+                .taskDeadlineTime(1_700_000_000_000L + i * 60_000L)
+                .build();
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,65 @@
+package com.flynaut.workforcemgmt.repository.metrics;
+
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskStoreMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final InMemoryTaskHistoryRepository historyRepository = new InMemoryTaskHistoryRepository();
+
+    @Test
+    void recordsLatencyAndScannedVersusReturnedPerOperation() {
+        new TaskStoreMetrics(registry, taskRepository, historyRepository);
+
+        taskRepository.findById(1L);
+        taskRepository.findById(999L);
+        // Reference 101/ORDER has two seed tasks
+        taskRepository.findByReferenceIdAndReferenceType(101L, ReferenceType.ORDER);
+        taskRepository.findByAssigneeIdIn(List.of(1L, 2L));
+
+        assertThat(registry.get("task.repository.operation").tag("operation", "findById").timer().count()).isEqualTo(2);
+        assertThat(returned("findById")).isEqualTo(1);
+        assertThat(scanned("findByReferenceIdAndReferenceType")).isEqualTo(2);
+        assertThat(returned("findByReferenceIdAndReferenceType")).isEqualTo(2);
+        assertThat(scanned("findByAssigneeIdIn")).isEqualTo(returned("findByAssigneeIdIn")).isEqualTo(5);
+        assertThat(registry.get("task.store.size").gauge().value()).isEqualTo(taskRepository.count());
+        assertThat(taskRepository.findByStatus(TaskStatus.CANCELLED)).hasSize(1);
+        assertThat(scanned("findByStatus")).isEqualTo(1);
+    }
+
+    @Test
+    void historyGaugesFollowAppends() {
+        new TaskStoreMetrics(registry, taskRepository, historyRepository);
+        for (int i = 0; i < 3; i++) {
+            CommentDto comment = new CommentDto();
+            comment.setComment("note " + i);
+            comment.setCommentedBy("tester");
+            historyRepository.appendComment(1L, comment);
+        }
+        historyRepository.appendComment(2L, new CommentDto());
+
+        assertThat(registry.get("task.history.tasks").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("task.history.entries").tag("kind", "comment").gauge().value()).isEqualTo(4);
+        assertThat(registry.get("task.history.max.length").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("task.history.memory").gauge().value()).isPositive();
+    }
+
+    private double scanned(String operation) {
+        return registry.get("task.repository.scanned").tag("operation", operation).counter().count();
+    }
+
+    private double returned(String operation) {
+        return registry.get("task.repository.returned").tag("operation", operation).counter().count();
+    }
+}
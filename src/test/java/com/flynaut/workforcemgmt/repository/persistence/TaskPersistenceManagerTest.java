@@ -0,0 +1,199 @@
+package com.flynaut.workforcemgmt.repository.persistence;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskPersistenceManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(node -> node.manager.stop());
+    }
+
+    @Test
+    void restartReplaysTasksAndHistoryFromTheLog() throws Exception {
+        Node first = start(FsyncPolicy.ALWAYS);
+        TaskManagement task = first.tasks.save(task(500L, 7L, Priority.HIGH));
+        task = first.tasks.save(task.withStatus(TaskStatus.COMPLETED));
+        first.history.appendComment(task.getId(), comment("looks good"));
+        first.history.appendActivity(task.getId(), activity("Task completed"));
+        first.manager.stop();
+
+        Node second = start(FsyncPolicy.ALWAYS);
+        TaskManagement restored = second.tasks.findById(task.getId()).orElseThrow();
+        assertThat(restored).isEqualTo(task);
+        assertThat(second.tasks.findByStatus(TaskStatus.COMPLETED)).contains(restored);
+        assertThat(second.tasks.findOpenByReferenceIdAndReferenceType(500L, ReferenceType.ORDER)).isEmpty();
+        List<Object> history = second.history.findByTaskId(task.getId(), null, 0, 10).entries();
+        assertThat(history).hasSize(2);
+        assertThat(((CommentDto) history.get(0)).getComment()).isEqualTo("looks good");
+        assertThat(((ActivityLogDto) history.get(1)).getMessage()).isEqualTo("Task completed");
+
+        // New ids continue after the recovered ones
+        assertThat(second.tasks.save(task(501L, 7L, Priority.LOW)).getId()).isGreaterThan(task.getId());
+    }
+
+    @Test
+    void snapshotPlusConcurrentWritesRecoverWithoutLossOrDuplicates() throws Exception {
+        Node first = start(FsyncPolicy.INTERVAL);
+        int writers = 8;
+        int tasksPerWriter = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long assignee = w;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < tasksPerWriter; i++) {
+                    TaskManagement saved = first.tasks.save(task(1_000L + i, assignee, Priority.MEDIUM));
+                    first.history.appendComment(saved.getId(), comment("c" + i));
+                }
+                return null;
+            }));
+        }
+        // Snapshots race with the writers; whatever they miss must come back from the log tail
+        for (int s = 0; s < 3; s++) {
+            first.manager.snapshot();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        first.manager.snapshot();
+        first.tasks.save(task(9_999L, 99L, Priority.LOW));
+        List<TaskManagement> expected = first.tasks.findAll();
+        first.manager.stop();
+
+        Node second = start(FsyncPolicy.INTERVAL);
+        assertThat(second.tasks.findAll()).containsExactlyInAnyOrderElementsOf(expected);
+        for (TaskManagement task : expected) {
+            if (task.getReferenceId() >= 1_000L && task.getReferenceId() < 9_999L) {
+                assertThat(second.history.findByTaskId(task.getId(), null, 0, 10).entries()).hasSize(1);
+            }
+        }
+    }
+
+    @Test
+    void tornTailIsIgnored() throws Exception {
+        Node first = start(FsyncPolicy.ALWAYS);
+        TaskManagement kept = first.tasks.save(task(700L, 1L, Priority.HIGH));
+        first.manager.stop();
+
+        // Garbage right after the last frame, as left by a crash in the middle of a write
+        Path segment = WriteAheadLog.listSegments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer data = SnapshotStore.map(segment);
+            while (RecordCodec.readFrame(data) != null) {
+                // skip to the end of the valid frames
+            }
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 1, 9, 9}), data.position());
+        }
+
+        Node second = start(FsyncPolicy.ALWAYS);
+        assertThat(second.tasks.findById(kept.getId())).contains(kept);
+    }
+
+    @Test
+    void writerStillHoldingTheLogAfterStopFailsCleanly() throws Exception {
+        Node node = start(FsyncPolicy.ALWAYS);
+        TaskManagement task = node.tasks.save(task(800L, 2L, Priority.LOW));
+        node.manager.stop();
+
+        // A writer that picked up the manager before stop() detached it from the repositories
+        node.manager.beginMutation();
+        try {
+            assertThatThrownBy(() -> node.manager.taskSaved(task))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("closed");
+        } finally {
+            node.manager.endMutation();
+        }
+        node.manager.stop();
+
+        assertThat(node.tasks.save(task.withStatus(TaskStatus.COMPLETED)).getStatus()).isEqualTo(TaskStatus.COMPLETED);
+    }
+
+    private Node start(FsyncPolicy fsync) throws IOException, InterruptedException {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setSegmentSizeMb(1);
+        properties.setFsync(fsync);
+        properties.setFsyncInterval(Duration.ofMillis(5));
+        properties.setSnapshotInterval(Duration.ofHours(1));
+        properties.setSnapshotParts(4);
+        properties.setRecoveryThreads(4);
+        Node node = new Node(new InMemoryTaskRepository(), new InMemoryTaskHistoryRepository(), properties);
+        node.manager.start();
+        nodes.add(node);
+        return node;
+    }
+
+    private static TaskManagement task(Long referenceId, Long assigneeId, Priority priority) {
+        return TaskManagement.builder()
+                .referenceId(referenceId)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(assigneeId)
+                .status(TaskStatus.ASSIGNED)
+                .priority(priority)
+                .description("Persisted task ✓")
+                .taskDeadlineTime(1_700_000_000_000L)
+                .build();
+    }
+
+    private static CommentDto comment(String text) {
+        CommentDto comment = new CommentDto();
+        comment.setComment(text);
+        comment.setCommentedBy("tester");
+        return comment;
+    }
+
+    private static ActivityLogDto activity(String message) {
+        ActivityLogDto activity = new ActivityLogDto();
+        activity.setMessage(message);
+        activity.setCreatedBy("tester");
+        return activity;
+    }
+
+    private static final class Node {
+        final InMemoryTaskRepository tasks;
+        final InMemoryTaskHistoryRepository history;
+        final TaskPersistenceManager manager;
+
+        Node(InMemoryTaskRepository tasks, InMemoryTaskHistoryRepository history, PersistenceProperties properties) {
+            this.tasks = tasks;
+            this.history = history;
+            this.manager = new TaskPersistenceManager(tasks, history, properties);
+        }
+    }
+}
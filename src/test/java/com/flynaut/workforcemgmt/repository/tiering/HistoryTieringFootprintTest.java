@@ -0,0 +1,81 @@
+package com.flynaut.workforcemgmt.repository.tiering;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.repository.HistoryStats;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retained heap of the task history before and after moving all but the newest entries of each task to segments.
+ * The entry count comes from {@code -Dfootprint.history.entries}, spread over tasks of 500 entries each.
+ */
+@Tag("footprint")
+class HistoryTieringFootprintTest {
+
+    private static final int ENTRIES_PER_TASK = 500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compactionReleasesHeapHeldByOldEntries() throws Exception {
+        int entries = Integer.parseInt(System.getProperty("footprint.history.entries", "1000000"));
+        InMemoryTaskHistoryRepository repository = new InMemoryTaskHistoryRepository();
+        long empty = usedHeapAfterGc();
+        for (int i = 0; i < entries; i++) {
+            long taskId = i / ENTRIES_PER_TASK + 1;
+            if (i % 2 == 0) {
+                CommentDto comment = new CommentDto();
+                comment.setTaskId(taskId);
+                comment.setComment("Customer asked to reschedule the pickup, note " + i);
+                comment.setCommentedBy("agent-" + i % 200);
+                repository.appendComment(taskId, comment);
+            } else {
+                ActivityLogDto activity = new ActivityLogDto();
+                activity.setMessage("Status changed from ASSIGNED to STARTED by agent-" + i % 200);
+                activity.setCreatedBy("agent-" + i % 200);
+                repository.appendActivity(taskId, activity);
+            }
+        }
+        long before = usedHeapAfterGc() - empty;
+
+        HistoryTieringProperties properties = new HistoryTieringProperties();
+        properties.setDirectory(directory);
+        properties.setHotEntries(50);
+        properties.setMinBatch(50);
+        properties.setCompactionInterval(Duration.ofHours(1));
+        HistoryTieringManager manager = new HistoryTieringManager(repository, properties, new SimpleMeterRegistry());
+        manager.start();
+        try {
+            manager.compact();
+            long after = usedHeapAfterGc() - empty;
+            HistoryStats stats = repository.stats();
+
+            System.out.printf("FOOTPRINT history entries=%,d cold=%,d heap before=%,d MB after=%,d MB "
+                            + "(estimated %,d MB) segments=%,d MB%n",
+                    entries, stats.coldEntries(), before >> 20, after >> 20, stats.estimatedBytes() >> 20,
+                    manager.coldStore().bytesUsed() >> 20);
+            assertThat(stats.coldEntries()).isEqualTo(entries - (long) entries / ENTRIES_PER_TASK * 50);
+            assertThat(after).isLessThan(before / 2);
+        } finally {
+            manager.stop();
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,150 @@
+package com.flynaut.workforcemgmt.repository.tiering;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.repository.HistorySlice;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryTieringManagerTest {
+
+    private static final String[] TEXTS = {null, "", "Task assigned", "Überweisung prüfen – 支払い 🚚", "x".repeat(300)};
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryTaskHistoryRepository tiered = new InMemoryTaskHistoryRepository();
+    private final InMemoryTaskHistoryRepository untiered = new InMemoryTaskHistoryRepository();
+    private HistoryTieringManager manager;
+
+    @AfterEach
+    void stopManager() throws Exception {
+        manager.stop();
+    }
+
+    @Test
+    void readsAcrossBothTiersMatchAnUntieredStore() throws Exception {
+        start(16, 8, 1024);
+        for (long taskId = 1; taskId <= 20; taskId++) {
+            for (int i = 0; i < taskId * 7; i++) {
+                append(tiered, taskId, i);
+            }
+        }
+        tiered.forEachEntry(untiered::restore);
+
+        long moved = manager.compact();
+        // Tasks with fewer than 24 entries stay on the heap entirely
+        assertThat(moved).isEqualTo(tiered.stats().coldEntries()).isGreaterThan(0);
+        assertThat(manager.compact()).isZero();
+        assertThat(tiered.stats().estimatedBytes()).isLessThan(untiered.stats().estimatedBytes());
+
+        for (long taskId = 1; taskId <= 20; taskId++) {
+            List<Object> all = untiered.findByTaskId(taskId, null, 0, Integer.MAX_VALUE).entries();
+            assertThat(tiered.findByTaskId(taskId, null, 0, Integer.MAX_VALUE).entries()).isEqualTo(all);
+            for (int from = 0; from <= all.size(); from += 5) {
+                Instant since = timestampOf(all.get(Math.min(from * 3 / 2, all.size() - 1)));
+                assertSameSlice(tiered.findByTaskId(taskId, null, from, 10), untiered.findByTaskId(taskId, null, from, 10));
+                assertSameSlice(tiered.findByTaskId(taskId, since, from, 10), untiered.findByTaskId(taskId, since, from, 10));
+            }
+        }
+
+        // Snapshots read every entry back through the same path that recovery replays
+        InMemoryTaskHistoryRepository restored = new InMemoryTaskHistoryRepository();
+        tiered.forEachEntry(restored::restore);
+        assertThat(restored.findByTaskId(20L, null, 0, Integer.MAX_VALUE).entries())
+                .isEqualTo(untiered.findByTaskId(20L, null, 0, Integer.MAX_VALUE).entries());
+        assertThat(manager.coldStore().bytesUsed()).isPositive();
+    }
+
+    @Test
+    void appendsDuringCompactionAreNeitherLostNorReordered() throws Exception {
+        start(32, 1, 4096);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Integer> writer = CompletableFuture.supplyAsync(() -> {
+            int appended = 0;
+            while (writing.get() || appended < 20_000) {
+                append(tiered, 1L, appended++);
+            }
+            return appended;
+        });
+
+        long moved = 0;
+        for (int run = 0; run < 200 || moved == 0; run++) {
+            moved += manager.compact();
+        }
+        writing.set(false);
+        int appended = writer.get(1, TimeUnit.MINUTES);
+        moved += manager.compact();
+
+        List<Object> history = tiered.findByTaskId(1L, null, 0, Integer.MAX_VALUE).entries();
+        assertThat(history).hasSize(appended);
+        assertThat(moved).isEqualTo(appended - 32);
+        for (int i = 0; i < history.size(); i++) {
+            assertThat(textOf(history.get(i))).isEqualTo(text(i));
+            if (i > 0) {
+                assertThat(timestampOf(history.get(i))).isAfterOrEqualTo(timestampOf(history.get(i - 1)));
+            }
+        }
+        assertThat(manager.coldStore().segmentCount()).isGreaterThan(1);
+    }
+
+    private void start(int hotEntries, int minBatch, int segmentBytes) throws Exception {
+        HistoryTieringProperties properties = new HistoryTieringProperties();
+        properties.setDirectory(directory);
+        properties.setHotEntries(hotEntries);
+        properties.setMinBatch(minBatch);
+        properties.setCompactionInterval(Duration.ofHours(1));
+        // Small segments, so entries cross segment boundaries
+        properties.setSegmentSize(DataSize.ofBytes(segmentBytes));
+        manager = new HistoryTieringManager(tiered, properties, new SimpleMeterRegistry());
+        manager.start();
+    }
+
+    private static void assertSameSlice(HistorySlice actual, HistorySlice expected) {
+        assertThat(actual.entries()).isEqualTo(expected.entries());
+        assertThat(actual.nextPosition()).isEqualTo(expected.nextPosition());
+        assertThat(actual.hasMore()).isEqualTo(expected.hasMore());
+    }
+
+    private static void append(InMemoryTaskHistoryRepository repository, long taskId, int i) {
+        if (i % 3 == 0) {
+            ActivityLogDto activity = new ActivityLogDto();
+            activity.setMessage(text(i));
+            activity.setCreatedBy(TEXTS[(i / 3) % TEXTS.length]);
+            repository.appendActivity(taskId, activity);
+        } else {
+            CommentDto comment = new CommentDto();
+            comment.setTaskId(i % 7 == 0 ? null : taskId);
+            comment.setComment(text(i));
+            comment.setCommentedBy(TEXTS[i % TEXTS.length]);
+            repository.appendComment(taskId, comment);
+        }
+    }
+
+    private static String text(int i) {
+        return i + " " + TEXTS[i % TEXTS.length];
+    }
+
+    private static String textOf(Object entry) {
+        return entry instanceof CommentDto comment ? comment.getComment() : ((ActivityLogDto) entry).getMessage();
+    }
+
+    private static Instant timestampOf(Object entry) {
+        return entry instanceof CommentDto comment ? comment.getTimestamp() : ((ActivityLogDto) entry).getTimestamp();
+    }
+}
@@ -0,0 +1,264 @@
+package com.flynaut.workforcemgmt.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.exception.CustomExceptionHandler;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
+import com.flynaut.workforcemgmt.controller.TaskManagementController;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.response.Response;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ResponseCacheTest {
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final InMemoryTaskHistoryRepository historyRepository = new InMemoryTaskHistoryRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, historyRepository, new ITaskManagementMapperImpl());
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ResponseCache responseCache;
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void stopListening() {
+        responseCache.stop();
+    }
+
+    @Test
+    void unchangedTaskIsNotModifiedUntilSaved() throws Exception {
+        start(DataSize.ofMegabytes(1));
+        perform(get("/task-mgmt/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        perform(get("/task-mgmt/1").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        service.updatePriority(1L, Priority.LOW, null);
+
+        perform(get("/task-mgmt/1").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.data.priority").value("LOW"));
+    }
+
+    @Test
+    void priorityPagesChangeOnlyWhenATaskMovesInOrOut() throws Exception {
+        start(DataSize.ofMegabytes(1));
+        String high = eTagOf("/task-mgmt/priority/HIGH");
+        String low = eTagOf("/task-mgmt/priority/LOW");
+        String medium = eTagOf("/task-mgmt/priority/MEDIUM");
+
+        service.updatePriority(1L, Priority.LOW, null);
+
+        perform(get("/task-mgmt/priority/HIGH").header(HttpHeaders.IF_NONE_MATCH, high))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].id", not(hasItem(1))));
+        perform(get("/task-mgmt/priority/LOW").header(HttpHeaders.IF_NONE_MATCH, low))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].id", hasItem(1)));
+        perform(get("/task-mgmt/priority/MEDIUM").header(HttpHeaders.IF_NONE_MATCH, medium))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void historyChangesWhenACommentIsAdded() throws Exception {
+        start(DataSize.ofMegabytes(1));
+        String before = eTagOf("/task-mgmt/2/history");
+        perform(get("/task-mgmt/2/history").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+
+        CommentDto comment = new CommentDto();
+        comment.setComment("call the customer");
+        comment.setCommentedBy("ops");
+        service.addComment(2L, comment);
+
+        MvcResult after = perform(get("/task-mgmt/2/history").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].comment", hasItem("call the customer")))
+                .andReturn();
+        assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+    }
+
+    @Test
+    void hitsMissesAndEvictionsAreMetered() throws Exception {
+        start(DataSize.ofKilobytes(4));
+        perform(get("/task-mgmt/1")).andExpect(status().isOk());
+        perform(get("/task-mgmt/1")).andExpect(status().isOk());
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+
+        for (int limit = 1; limit <= 50; limit++) {
+            perform(get("/task-mgmt/priority/HIGH").param("limit", String.valueOf(limit)))
+                    .andExpect(status().isOk());
+        }
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isPositive();
+        assertThat(registry.get("cache.size").gauge().value()).isLessThan(50);
+    }
+
+    @Test
+    void stoppingFailsRendersStillQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        start(DataSize.ofMegabytes(1));
+        // Holds every render thread, so the read below stays queued
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        for (int i = 0; i < properties.getRenderThreads(); i++) {
+            long taskId = i + 1;
+            responseCache.serveAsync(ResponseCache.Key.history(taskId, null, null, null), null, null, () -> {
+                await(release);
+                return new Response<>(taskId);
+            }, null);
+        }
+        CompletableFuture<ResponseEntity<byte[]>> queued = responseCache.serveAsync(ResponseCache.Key.task(1L), null, null,
+                () -> new Response<>(service.findTaskById(1L)), null);
+
+        responseCache.stop();
+        release.countDown();
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void readsBeyondTheRenderQueueAreTurnedAway() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRenderThreads(1);
+        properties.setRenderQueueCapacity(1);
+        start(properties, service);
+        // One render holds the only thread and the next fills the queue
+        List<CompletableFuture<ResponseEntity<byte[]>>> held = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            long taskId = i + 1;
+            held.add(responseCache.serveAsync(ResponseCache.Key.history(taskId, null, null, null), null, null, () -> {
+                await(release);
+                return new Response<>(taskId);
+            }, null));
+        }
+
+        perform(get("/task-mgmt/3")).andExpect(status().isServiceUnavailable());
+
+        release.countDown();
+        CompletableFuture.allOf(held.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        perform(get("/task-mgmt/3")).andExpect(status().isOk());
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneRender() throws Exception {
+        int readers = 100;
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TaskManagementServiceImpl slowService = new TaskManagementServiceImpl(
+                taskRepository, historyRepository, new ITaskManagementMapperImpl()) {
+            @Override
+            public TaskManagementDto findTaskById(Long id) {
+                renders.incrementAndGet();
+                await(release);
+                return super.findTaskById(id);
+            }
+        };
+        start(DataSize.ofMegabytes(1), slowService);
+
+        // One thread sends them all: each returns as soon as the read is under way, without waiting for the render
+        List<MvcResult> pending = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            pending.add(mockMvc.perform(get("/task-mgmt/1")).andExpect(request().asyncStarted()).andReturn());
+        }
+        release.countDown();
+
+        byte[] body = null;
+        for (MvcResult read : pending) {
+            MvcResult completed = mockMvc.perform(asyncDispatch(read))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                    .andReturn();
+            byte[] readBody = completed.getResponse().getContentAsByteArray();
+            assertThat(readBody).isEqualTo(body == null ? readBody : body);
+            body = readBody;
+        }
+        assertThat(renders).hasValue(1);
+        assertThat(registry.get("task.response.coalesced").counter().count()).isEqualTo(readers - 1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+
+        // The shared render is cached for whoever comes next
+        perform(get("/task-mgmt/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+        assertThat(renders).hasValue(1);
+    }
+
+    private void start(DataSize maxSize) {
+        start(maxSize, service);
+    }
+
+    private void start(DataSize maxSize, TaskManagementServiceImpl service) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxSize(maxSize);
+        start(properties, service);
+    }
+
+    private void start(ResponseCacheProperties properties, TaskManagementServiceImpl service) {
+        responseCache = new ResponseCache(taskRepository, historyRepository, objectMapper, registry, properties);
+        responseCache.start();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new TaskManagementController(service, new NdjsonWriter(objectMapper), responseCache))
+                .setControllerAdvice(new CustomExceptionHandler())
+                .build();
+    }
+
+    // Task and history reads complete asynchronously; dispatch their result like the container would
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String eTagOf(String path) throws Exception {
+        return perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,123 @@
+package com.flynaut.workforcemgmt.service.deadline;
+
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineEngineTest {
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final InMemoryTaskHistoryRepository historyRepository = new InMemoryTaskHistoryRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, historyRepository, new ITaskManagementMapperImpl());
+    private DeadlineEngine engine;
+
+    @AfterEach
+    void stopEngine() {
+        engine.stop();
+    }
+
+    @Test
+    void passedDeadlineMarksTaskOverdueAndEscalates() throws Exception {
+        start(true);
+        TaskManagement task = taskRepository.save(newTask(System.currentTimeMillis() + 200));
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().isOverdue()).isFalse();
+
+        TaskManagement overdue = awaitOverdue(task.getId());
+        assertThat(overdue.getPriority()).isEqualTo(Priority.MEDIUM);
+        assertThat(overdue.getStatus()).isEqualTo(TaskStatus.ASSIGNED);
+        // The activity entry is recorded right after the save that marked the task
+        awaitHistory(task.getId());
+        assertThat(historyRepository.findByTaskId(task.getId(), null, 0, 10).entries())
+                .singleElement()
+                .extracting(entry -> ((ActivityLogDto) entry).getMessage())
+                .isEqualTo("Deadline passed, task is overdue; priority raised to MEDIUM");
+        // Only the open seed tasks are left
+        awaitPending(4);
+    }
+
+    @Test
+    void closedOrRescheduledTasksAreNotMarked() throws Exception {
+        start(false);
+        long soon = System.currentTimeMillis() + 200;
+        TaskManagement completed = taskRepository.save(newTask(soon));
+        TaskManagement moved = taskRepository.save(newTask(soon));
+        TaskManagement late = taskRepository.save(newTask(soon));
+        taskRepository.save(completed.withStatus(TaskStatus.COMPLETED));
+        taskRepository.save(moved.withTaskDeadlineTime(soon + 3_600_000));
+
+        assertThat(awaitOverdue(late.getId()).getPriority()).isEqualTo(Priority.LOW);
+        assertThat(taskRepository.findById(completed.getId()).orElseThrow().isOverdue()).isFalse();
+        assertThat(taskRepository.findById(moved.getId()).orElseThrow().isOverdue()).isFalse();
+        // The seed tasks and the moved task are still waiting
+        awaitPending(5);
+    }
+
+    @Test
+    void storedTasksAreScheduledOnStart() throws Exception {
+        TaskManagement stored = taskRepository.save(newTask(System.currentTimeMillis() - 1_000));
+        start(false);
+        assertThat(awaitOverdue(stored.getId()).isOverdue()).isTrue();
+    }
+
+    private void start(boolean escalate) {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setTick(Duration.ofMillis(20));
+        properties.setEscalatePriority(escalate);
+        engine = new DeadlineEngine(taskRepository, service, properties);
+        engine.follow();
+        engine.start();
+    }
+
+    private TaskManagement awaitOverdue(long taskId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            TaskManagement task = taskRepository.findById(taskId).orElseThrow();
+            if (task.isOverdue()) {
+                return task;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Task " + taskId + " was not marked overdue");
+    }
+
+    private void awaitHistory(long taskId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (historyRepository.findByTaskId(taskId, null, 0, 10).entries().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitPending(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (engine.pendingDeadlines() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(engine.pendingDeadlines()).isEqualTo(expected);
+    }
+
+    private static TaskManagement newTask(long deadline) {
+        return TaskManagement.builder()
+                .referenceId(500L)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.COLLECT_PAYMENT)
+                .assigneeId(5L)
+                .status(TaskStatus.ASSIGNED)
+                .priority(Priority.LOW)
+                .taskDeadlineTime(deadline)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.flynaut.workforcemgmt.service.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    void timeoutsFireOnTheirTickAcrossEveryLevel() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        Random random = new Random(17);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 1; id <= 20_000; id++) {
+            // Spread over about 3 weeks of ticks, so timeouts cascade down from the upper levels
+            long deadline = (long) (Math.pow(random.nextDouble(), 3) * TICK * 64 * 64 * 64 * 64 / 16);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        long now = 0;
+        while (wheel.size() > 0) {
+            long before = now;
+            now += TICK * (1 + random.nextInt(500));
+            long at = now;
+            wheel.advance(now, timeout -> {
+                // Never early, and never later than the first advance that passed the deadline's tick
+                assertThat(timeout.deadline).isLessThanOrEqualTo(at).isGreaterThan(before - TICK);
+                assertThat(timeout.deadline).isEqualTo(deadlines.get(timeout.taskId));
+                fired.add(timeout.taskId);
+            });
+        }
+        assertThat(fired).hasSize(deadlines.size()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            timeouts.add(wheel.schedule(id, id * 37 * TICK));
+        }
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            wheel.cancel(timeouts.get(i));
+        }
+        wheel.cancel(timeouts.get(0));
+        assertThat(wheel.size()).isEqualTo(500);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(1_001 * 37 * TICK, timeout -> fired.add(timeout.taskId));
+        assertThat(fired).hasSize(500).allMatch(id -> id % 2 == 0);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 10_000);
+        wheel.advance(50_000, timeout -> {
+        });
+        wheel.schedule(1, 20_000);
+        wheel.schedule(2, 50_150);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(50_100, timeout -> fired.add(timeout.taskId));
+        assertThat(fired).containsExactly(1L);
+        wheel.advance(50_200, timeout -> fired.add(timeout.taskId));
+        assertThat(fired).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,162 @@
+package com.flynaut.workforcemgmt.service.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.dto.AssignByReferenceRequest;
+import com.flynaut.workforcemgmt.dto.TaskChangeEventDto;
+import com.flynaut.workforcemgmt.dto.TaskCreateRequest;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskChangeType;
+import com.flynaut.workforcemgmt.service.TaskManagementService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "task-mgmt.feed.subscriber-buffer=4")
+class TaskChangeFeedTest {
+
+    private static final TaskChangeEventDto END_OF_STREAM = new TaskChangeEventDto();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TaskManagementService service;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Stream<String>> streams = new ArrayList<>();
+
+    @AfterEach
+    void closeStreams() {
+        streams.forEach(Stream::close);
+    }
+
+    @Test
+    void changesArePushedAndMissedOnesReplayedAfterReconnect() throws Exception {
+        BlockingQueue<TaskChangeEventDto> events = subscribe(77L, null);
+        TaskManagementDto created = service.createTasks(createRequest(7_001L, 77L)).get(0);
+        TaskChangeEventDto first = next(events);
+        assertThat(first.getType()).isEqualTo(TaskChangeType.CREATED);
+        assertThat(first.getTask().getId()).isEqualTo(created.getId());
+
+        service.updatePriority(created.getId(), Priority.HIGH, null);
+        TaskChangeEventDto second = next(events);
+        assertThat(second.getType()).isEqualTo(TaskChangeType.PRIORITY_CHANGED);
+        assertThat(second.getTask().getVersion()).isEqualTo(2);
+        streams.remove(0).close();
+
+        // Happens while the client is away: the task is cancelled and new ones go to assignee 78
+        AssignByReferenceRequest reassign = new AssignByReferenceRequest();
+        reassign.setReferenceId(7_001L);
+        reassign.setReferenceType(ReferenceType.ORDER);
+        reassign.setAssigneeId(78L);
+        service.assignByReference(reassign);
+
+        BlockingQueue<TaskChangeEventDto> resumed = subscribe(77L, second.getEventId());
+        TaskChangeEventDto missed = next(resumed);
+        assertThat(missed.getType()).isEqualTo(TaskChangeType.CANCELLED);
+        assertThat(missed.getTask().getId()).isEqualTo(created.getId());
+        assertThat(resumed.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void unknownLastEventIdGetsReset() throws Exception {
+        BlockingQueue<TaskChangeEventDto> events = subscribe(77L, "previous-instance-42");
+        assertThat(next(events).getType()).isEqualTo(TaskChangeType.RESET);
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedAndCatchesUpByReconnecting() throws Exception {
+        BlockingQueue<TaskChangeEventDto> anchorStream = subscribe(91L, null);
+        service.createTasks(createRequest(9_100L, 91L));
+        String lastEventId = next(anchorStream).getEventId();
+
+        int changes = 10;
+        for (int i = 0; i < changes; i++) {
+            service.createTasks(createRequest(9_000L + i, 90L));
+        }
+
+        // The replay overflows the 4-event buffer, so each connection ends after a few events
+        List<Long> received = new ArrayList<>();
+        int connections = 0;
+        while (received.size() < changes) {
+            BlockingQueue<TaskChangeEventDto> events = subscribe(90L, lastEventId);
+            connections++;
+            TaskChangeEventDto event;
+            while ((event = events.poll(2, TimeUnit.SECONDS)) != null && event != END_OF_STREAM) {
+                received.add(event.getTask().getReferenceId());
+                lastEventId = event.getEventId();
+            }
+        }
+        assertThat(received).containsExactly(9_000L, 9_001L, 9_002L, 9_003L, 9_004L, 9_005L, 9_006L, 9_007L, 9_008L, 9_009L);
+        assertThat(connections).isGreaterThan(1);
+    }
+
+    private BlockingQueue<TaskChangeEventDto> subscribe(long assigneeId, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/task-mgmt/changes?assignee_ids=" + assigneeId));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = http.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        streams.add(response.body());
+
+        BlockingQueue<TaskChangeEventDto> events = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                response.body().forEach(line -> {
+                    if (line.startsWith("data:")) {
+                        try {
+                            events.add(objectMapper.readValue(line.substring(5), TaskChangeEventDto.class));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                // Closed by the test
+            }
+            events.add(END_OF_STREAM);
+        });
+        return events;
+    }
+
+    private static TaskChangeEventDto next(BlockingQueue<TaskChangeEventDto> events) throws InterruptedException {
+        TaskChangeEventDto event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event).isNotNull().isNotSameAs(END_OF_STREAM);
+        return event;
+    }
+
+    private static TaskCreateRequest createRequest(long referenceId, long assigneeId) {
+        TaskCreateRequest.RequestItem item = new TaskCreateRequest.RequestItem();
+        item.setReferenceId(referenceId);
+        item.setReferenceType(ReferenceType.ORDER);
+        item.setTask(Task.CREATE_INVOICE);
+        item.setAssigneeId(assigneeId);
+        item.setPriority(Priority.MEDIUM);
+        item.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000); // Far enough out that no deadline fires
+        TaskCreateRequest request = new TaskCreateRequest();
+        request.setRequests(List.of(item));
+        return request;
+    }
+}
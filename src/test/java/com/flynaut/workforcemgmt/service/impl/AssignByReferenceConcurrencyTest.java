@@ -0,0 +1,85 @@
+package com.flynaut.workforcemgmt.service.impl;
+
+import com.flynaut.workforcemgmt.dto.AssignByReferenceRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssignByReferenceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int REASSIGNMENTS_PER_THREAD = 500;
+    // Few hot references so that almost every call contends with another one
+    private static final long[] ORDER_REFERENCES = {101L, 102L, 103L, 104L};
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+
+    @Test
+    void concurrentReassignmentsLeaveExactlyOneOpenTaskPerType() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long assigneeId = t + 1;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < REASSIGNMENTS_PER_THREAD; i++) {
+                    service.assignByReference(request(ORDER_REFERENCES[i % ORDER_REFERENCES.length], ReferenceType.ORDER, assigneeId));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        for (long referenceId : ORDER_REFERENCES) {
+            Map<Task, Long> openByType = taskRepository.findByReferenceIdAndReferenceType(referenceId, ReferenceType.ORDER).stream()
+                    .filter(task -> task.getStatus() == TaskStatus.ASSIGNED || task.getStatus() == TaskStatus.STARTED)
+                    .collect(Collectors.groupingBy(TaskManagement::getTask, Collectors.counting()));
+            assertThat(openByType.keySet()).containsExactlyInAnyOrderElementsOf(Task.getTasksByReferenceType(ReferenceType.ORDER));
+            assertThat(openByType.values()).allMatch(count -> count == 1);
+        }
+    }
+
+    @Test
+    void reassignmentCancelsExistingDuplicates() {
+        // Seed data holds two open ASSIGN_CUSTOMER_TO_SALES_PERSON tasks for entity 201
+        service.assignByReference(request(201L, ReferenceType.ENTITY, 7L));
+
+        List<TaskManagement> open = taskRepository.findByReferenceIdAndReferenceType(201L, ReferenceType.ENTITY).stream()
+                .filter(task -> task.getStatus() == TaskStatus.ASSIGNED)
+                .collect(Collectors.toList());
+        assertThat(open).singleElement().extracting(TaskManagement::getAssigneeId).isEqualTo(7L);
+    }
+
+    private static AssignByReferenceRequest request(long referenceId, ReferenceType referenceType, long assigneeId) {
+        AssignByReferenceRequest request = new AssignByReferenceRequest();
+        request.setReferenceId(referenceId);
+        request.setReferenceType(referenceType);
+        request.setAssigneeId(assigneeId);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.flynaut.workforcemgmt.service.impl;
+
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.dto.AssignByReferenceRequest;
+import com.flynaut.workforcemgmt.dto.AssignByReferenceResultDto;
+import com.flynaut.workforcemgmt.dto.BulkAssignByReferenceRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkAssignByReferenceTest {
+
+    private static final int REFERENCES = 2_000;
+    private static final int ORDER_TASKS = Task.getTasksByReferenceType(ReferenceType.ORDER).size();
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+
+    @AfterEach
+    void stopService() {
+        service.stop();
+    }
+
+    @Test
+    void repeatedReferencesAreAppliedInBatchOrder() {
+        List<AssignByReferenceRequest> items = new ArrayList<>();
+        for (long referenceId = 1_000; referenceId < 1_000 + REFERENCES; referenceId++) {
+            items.add(request(referenceId, 1L));
+        }
+        // The same reference three times, spread across the batch; the last assignee must win
+        items.add(0, request(5_000L, 11L));
+        items.add(REFERENCES / 2, request(5_000L, 12L));
+        items.add(request(5_000L, 13L));
+
+        List<AssignByReferenceResultDto> results = service.assignByReferenceBulk(bulk(items));
+
+        assertThat(results).hasSize(items.size()).allMatch(AssignByReferenceResultDto::isSuccess);
+        for (int i = 0; i < items.size(); i++) {
+            assertThat(results.get(i).getReferenceId()).isEqualTo(items.get(i).getReferenceId());
+            assertThat(results.get(i).getAssigneeId()).isEqualTo(items.get(i).getAssigneeId());
+        }
+        assertThat(results.get(0).getCancelledTasks()).isZero();
+        assertThat(results.get(REFERENCES / 2).getCancelledTasks()).isEqualTo(ORDER_TASKS);
+        assertThat(results.get(items.size() - 1).getCancelledTasks()).isEqualTo(ORDER_TASKS);
+
+        List<TaskManagement> open = openTasks(5_000L);
+        assertThat(open).hasSize(ORDER_TASKS).allMatch(task -> task.getAssigneeId() == 13L);
+        for (long referenceId = 1_000; referenceId < 1_000 + REFERENCES; referenceId++) {
+            assertThat(openTasks(referenceId)).hasSize(ORDER_TASKS);
+        }
+    }
+
+    @Test
+    void invalidItemsFailAloneAndEmptyBatchesAreRejected() {
+        AssignByReferenceRequest missingAssignee = request(7_000L, null);
+        List<AssignByReferenceResultDto> results = service.assignByReferenceBulk(
+                bulk(List.of(request(7_001L, 3L), missingAssignee, request(7_002L, 4L))));
+
+        assertThat(results).extracting(AssignByReferenceResultDto::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(1).getError()).contains("assignee_id");
+        assertThat(openTasks(7_000L)).isEmpty();
+        assertThat(openTasks(7_002L)).hasSize(ORDER_TASKS).allMatch(task -> task.getAssigneeId() == 4L);
+
+        assertThatThrownBy(() -> service.assignByReferenceBulk(bulk(List.of())))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private List<TaskManagement> openTasks(long referenceId) {
+        return taskRepository.findByReferenceIdAndReferenceType(referenceId, ReferenceType.ORDER).stream()
+                .filter(task -> task.getStatus() == TaskStatus.ASSIGNED)
+                .toList();
+    }
+
+    private static BulkAssignByReferenceRequest bulk(List<AssignByReferenceRequest> items) {
+        BulkAssignByReferenceRequest request = new BulkAssignByReferenceRequest();
+        request.setRequests(items);
+        return request;
+    }
+
+    private static AssignByReferenceRequest request(Long referenceId, Long assigneeId) {
+        AssignByReferenceRequest request = new AssignByReferenceRequest();
+        request.setReferenceId(referenceId);
+        request.setReferenceType(ReferenceType.ORDER);
+        request.setAssigneeId(assigneeId);
+        return request;
+    }
+}
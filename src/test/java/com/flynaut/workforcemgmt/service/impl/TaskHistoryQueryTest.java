@@ -0,0 +1,93 @@
+package com.flynaut.workforcemgmt.service.impl;
+
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.dto.ActivityLogDto;
+import com.flynaut.workforcemgmt.dto.CommentDto;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskHistoryQueryTest {
+
+    private static final long TASK_ID = 42L;
+
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            new InMemoryTaskRepository(), new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+
+    @AfterEach
+    void stop() {
+        service.stop();
+    }
+
+    @Test
+    void sinceSkipsEverythingStampedInOrBeforeThatMillisecond() throws InterruptedException {
+        for (int i = 0; i < 6; i++) {
+            service.addComment(TASK_ID, comment("c" + i));
+            // Spread the entries over a few milliseconds, with several sharing some of them
+            if (i % 2 == 1) {
+                Thread.sleep(2);
+            }
+        }
+        List<Object> all = service.getTaskHistory(TASK_ID, null, null, 100).getItems();
+        assertThat(all).hasSize(12);
+
+        for (Object entry : all) {
+            long since = timestampOf(entry).toEpochMilli();
+            List<Object> expected = all.stream()
+                    .filter(other -> timestampOf(other).toEpochMilli() > since)
+                    .toList();
+
+            assertThat(service.getTaskHistory(TASK_ID, since, null, 100).getItems())
+                    .doesNotContain(entry)
+                    .containsExactlyElementsOf(expected);
+        }
+        long beforeFirst = timestampOf(all.get(0)).toEpochMilli() - 1;
+        assertThat(service.getTaskHistory(TASK_ID, beforeFirst, null, 100).getItems()).containsExactlyElementsOf(all);
+    }
+
+    @Test
+    void cursorPagesWalkTheLogWhileItGrows() {
+        for (int i = 0; i < 5; i++) {
+            service.addComment(TASK_ID, comment("c" + i));
+        }
+        PagedResult<Object> first = service.getTaskHistory(TASK_ID, null, null, 4);
+        assertThat(first.getItems()).hasSize(4);
+        assertThat(first.getPagination().getHasMore()).isTrue();
+
+        // Appends after the first page land on later pages and leave the cursor's position valid
+        service.addComment(TASK_ID, comment("late"));
+        List<Object> paged = new ArrayList<>(first.getItems());
+        String cursor = first.getPagination().getNextCursor();
+        while (cursor != null) {
+            PagedResult<Object> page = service.getTaskHistory(TASK_ID, null, cursor, 4);
+            paged.addAll(page.getItems());
+            cursor = page.getPagination().getNextCursor();
+        }
+
+        assertThat(paged).containsExactlyElementsOf(service.getTaskHistory(TASK_ID, null, null, 100).getItems());
+        assertThat(paged).hasSize(12);
+        assertThatThrownBy(() -> service.getTaskHistory(TASK_ID + 1, null, first.getPagination().getNextCursor(), 4))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Instant timestampOf(Object entry) {
+        return entry instanceof CommentDto comment ? comment.getTimestamp() : ((ActivityLogDto) entry).getTimestamp();
+    }
+
+    private static CommentDto comment(String text) {
+        CommentDto comment = new CommentDto();
+        comment.setComment(text);
+        comment.setCommentedBy("tester");
+        return comment;
+    }
+}
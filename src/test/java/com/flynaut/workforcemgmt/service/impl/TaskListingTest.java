@@ -0,0 +1,192 @@
+package com.flynaut.workforcemgmt.service.impl;
+
+import com.flynaut.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.model.response.PagedResult;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskListingTest {
+
+    // Well clear of the seed data's assignees
+    private static final long FIRST_ASSIGNEE = 9_101L;
+    private static final long SECOND_ASSIGNEE = 9_102L;
+    private static final long THIRD_ASSIGNEE = 9_103L;
+    private static final long HOUR = 3_600_000L;
+
+    private static final LocalDate DAY = LocalDate.of(2027, 3, 10);
+    private static final long DAY_START = DAY.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private static final long NEXT_DAY_START = DAY.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+
+    @AfterEach
+    void stop() {
+        service.stop();
+    }
+
+    @Test
+    void dailyViewCarriesOverOpenOverdueTasksBeforeTheDaysOwn() {
+        TaskManagement startedOverdue = save(FIRST_ASSIGNEE, DAY_START - 30 * HOUR, TaskStatus.STARTED);
+        TaskManagement assignedOverdue = save(SECOND_ASSIGNEE, DAY_START - HOUR, TaskStatus.ASSIGNED);
+        save(FIRST_ASSIGNEE, DAY_START - 2 * HOUR, TaskStatus.COMPLETED);
+        save(SECOND_ASSIGNEE, DAY_START - 3 * HOUR, TaskStatus.CANCELLED);
+        TaskManagement completedToday = save(SECOND_ASSIGNEE, DAY_START + HOUR, TaskStatus.COMPLETED);
+        TaskManagement dueToday = save(FIRST_ASSIGNEE, DAY_START + 2 * HOUR, TaskStatus.ASSIGNED);
+        save(FIRST_ASSIGNEE, DAY_START + 3 * HOUR, TaskStatus.CANCELLED);
+        TaskManagement dueLastMillisecond = save(SECOND_ASSIGNEE, NEXT_DAY_START - 1, TaskStatus.STARTED);
+        save(FIRST_ASSIGNEE, NEXT_DAY_START, TaskStatus.ASSIGNED);
+        save(FIRST_ASSIGNEE, null, TaskStatus.ASSIGNED);
+
+        // Any instant within the day selects the whole day
+        PagedResult<TaskManagement> page = service.fetchTasksByDate(
+                byDate(DAY_START + 5 * HOUR, DAY_START + 6 * HOUR, List.of(FIRST_ASSIGNEE, SECOND_ASSIGNEE), null, 100));
+
+        assertThat(page.getItems()).containsExactly(
+                startedOverdue, assignedOverdue, completedToday, dueToday, dueLastMillisecond);
+        assertThat(page.getPagination().getHasMore()).isFalse();
+        assertThat(page.getPagination().getNextCursor()).isNull();
+    }
+
+    @Test
+    void dailyViewOnlyHoldsTheRequestedAssignees() {
+        TaskManagement mine = save(FIRST_ASSIGNEE, DAY_START + HOUR, TaskStatus.ASSIGNED);
+        save(SECOND_ASSIGNEE, DAY_START + HOUR, TaskStatus.ASSIGNED);
+        save(SECOND_ASSIGNEE, DAY_START - HOUR, TaskStatus.STARTED);
+
+        assertThat(service.fetchTasksByDate(byDate(DAY_START, DAY_START, List.of(FIRST_ASSIGNEE), null, 100)).getItems())
+                .containsExactly(mine);
+    }
+
+    @Test
+    void dailyViewPagesMergeAssigneesInDeadlineOrderWithoutGapsOrDuplicates() {
+        List<Long> assignees = List.of(FIRST_ASSIGNEE, SECOND_ASSIGNEE, THIRD_ASSIGNEE);
+        for (int i = 0; i < 30; i++) {
+            long assignee = assignees.get(i % assignees.size());
+            // Deadlines repeat across assignees so ties are broken by id, and a third of them carry over
+            long deadline = DAY_START + (i / 2 - 5) * HOUR;
+            save(assignee, deadline, i % 7 == 0 ? TaskStatus.COMPLETED : TaskStatus.ASSIGNED);
+        }
+        List<TaskManagement> whole = service.fetchTasksByDate(byDate(DAY_START, DAY_START, assignees, null, 1_000)).getItems();
+        assertThat(whole).extracting(TaskManagement::getTaskDeadlineTime).isSorted();
+
+        List<TaskManagement> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            // Eight tasks carry over, so the third page starts in the carry-over and ends in the day
+            PagedResult<TaskManagement> page = service.fetchTasksByDate(byDate(DAY_START, DAY_START, assignees, cursor, 3));
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(3);
+            paged.addAll(page.getItems());
+            cursor = page.getPagination().getNextCursor();
+            assertThat(page.getPagination().getHasMore()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(paged).containsExactlyElementsOf(whole);
+        assertThat(pages).isEqualTo((whole.size() + 2) / 3);
+    }
+
+    @Test
+    void changesToIndexedFieldsBetweenPagesOnlyAffectTheTasksNotYetRead() {
+        List<Long> assignees = List.of(FIRST_ASSIGNEE, SECOND_ASSIGNEE);
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(save(assignees.get(i % 2), DAY_START + i * HOUR, TaskStatus.ASSIGNED));
+        }
+        PagedResult<TaskManagement> first = service.fetchTasksByDate(byDate(DAY_START, DAY_START, assignees, null, 4));
+        assertThat(first.getItems()).containsExactlyElementsOf(tasks.subList(0, 4));
+
+        // Cancelled, moved behind the cursor, and handed to an assignee outside the query: all drop out
+        taskRepository.save(tasks.get(5).withStatus(TaskStatus.CANCELLED));
+        taskRepository.save(tasks.get(6).withTaskDeadlineTime(DAY_START - HOUR).withStatus(TaskStatus.COMPLETED));
+        taskRepository.save(tasks.get(7).withAssigneeId(THIRD_ASSIGNEE));
+        // Moved ahead of the cursor: read again at its new place
+        TaskManagement movedLater = taskRepository.save(tasks.get(1).withTaskDeadlineTime(DAY_START + 20 * HOUR));
+        TaskManagement created = save(SECOND_ASSIGNEE, DAY_START + 9 * HOUR, TaskStatus.STARTED);
+
+        List<TaskManagement> rest = new ArrayList<>();
+        String cursor = first.getPagination().getNextCursor();
+        while (cursor != null) {
+            PagedResult<TaskManagement> page = service.fetchTasksByDate(byDate(DAY_START, DAY_START, assignees, cursor, 4));
+            rest.addAll(page.getItems());
+            cursor = page.getPagination().getNextCursor();
+        }
+
+        assertThat(rest).containsExactly(tasks.get(4), tasks.get(8), tasks.get(9), created, tasks.get(10), tasks.get(11), movedLater);
+    }
+
+    @Test
+    void priorityPagesFollowIdOrderWhilePrioritiesChange() {
+        List<TaskManagement> high = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            high.add(taskRepository.save(task(FIRST_ASSIGNEE, DAY_START, TaskStatus.ASSIGNED).withPriority(Priority.HIGH)));
+        }
+        TaskManagement low = taskRepository.save(task(FIRST_ASSIGNEE, DAY_START, TaskStatus.ASSIGNED).withPriority(Priority.LOW));
+        long firstId = high.get(0).getId();
+
+        List<TaskManagement> seen = new ArrayList<>();
+        PagedResult<TaskManagement> page = service.fetchTasksByPriority(Priority.HIGH, null, 3);
+        seen.addAll(page.getItems());
+        while (seen.isEmpty() || seen.get(seen.size() - 1).getId() < high.get(2).getId()) {
+            page = service.fetchTasksByPriority(Priority.HIGH, page.getPagination().getNextCursor(), 3);
+            seen.addAll(page.getItems());
+        }
+        taskRepository.save(high.get(4).withPriority(Priority.MEDIUM));
+        TaskManagement raised = taskRepository.save(low.withPriority(Priority.HIGH));
+        // Already read: lowering it now does not shift the pages that follow
+        taskRepository.save(high.get(0).withPriority(Priority.LOW));
+
+        while (page.getPagination().getNextCursor() != null) {
+            page = service.fetchTasksByPriority(Priority.HIGH, page.getPagination().getNextCursor(), 3);
+            seen.addAll(page.getItems());
+        }
+
+        assertThat(seen).extracting(TaskManagement::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(seen.stream().filter(task -> task.getId() >= firstId).toList()).containsExactly(
+                high.get(0), high.get(1), high.get(2), high.get(3), high.get(5), high.get(6), high.get(7), high.get(8), raised);
+    }
+
+    private TaskManagement save(long assigneeId, Long deadline, TaskStatus status) {
+        return taskRepository.save(task(assigneeId, deadline, status));
+    }
+
+    private static TaskManagement task(long assigneeId, Long deadline, TaskStatus status) {
+        return TaskManagement.builder()
+                .referenceId(5_000L + assigneeId)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(assigneeId)
+                .status(status)
+                .priority(Priority.MEDIUM)
+                .description("New task created.")
+                .taskDeadlineTime(deadline)
+                .build();
+    }
+
+    private static TaskFetchByDateRequest byDate(long startDate, long endDate, List<Long> assigneeIds, String cursor, Integer limit) {
+        TaskFetchByDateRequest request = new TaskFetchByDateRequest();
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+        request.setAssigneeIds(assigneeIds);
+        request.setCursor(cursor);
+        request.setLimit(limit);
+        return request;
+    }
+}
@@ -0,0 +1,140 @@
+package com.flynaut.workforcemgmt.service.impl;
+
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.dto.TaskManagementDto;
+import com.flynaut.workforcemgmt.dto.UpdateTaskRequest;
+import com.flynaut.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskHistoryRepository;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import com.flynaut.workforcemgmt.repository.RepositoryMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpdateTasksTest {
+
+    private final InterferingTaskRepository taskRepository = new InterferingTaskRepository();
+    private final TaskManagementServiceImpl service = new TaskManagementServiceImpl(
+            taskRepository, new InMemoryTaskHistoryRepository(), new ITaskManagementMapperImpl());
+    private final AtomicInteger saveCalls = new AtomicInteger();
+
+    @BeforeEach
+    void countWrites() {
+        taskRepository.setMetrics(new RepositoryMetrics() {
+            @Override
+            public void record(Operation operation, long startNanos, int scanned, int returned) {
+                if (operation == Operation.SAVE) {
+                    saveCalls.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void stop() {
+        service.stop();
+    }
+
+    @Test
+    void multiItemUpdateIsOneBatchSave() {
+        resetCounts();
+
+        List<TaskManagementDto> updated = service.updateTasks(request(
+                item(1L, TaskStatus.STARTED, null, 1L),
+                item(2L, null, "Packed", null),
+                item(3L, TaskStatus.COMPLETED, "Done", null)));
+
+        assertThat(taskRepository.batches.get()).isEqualTo(1);
+        assertThat(saveCalls.get()).isZero();
+        assertThat(updated).extracting(TaskManagementDto::getId).containsExactly(1L, 2L, 3L);
+        assertThat(taskRepository.findById(1L).orElseThrow().getStatus()).isEqualTo(TaskStatus.STARTED);
+        assertThat(taskRepository.findById(2L).orElseThrow().getDescription()).isEqualTo("Packed");
+        assertThat(taskRepository.findById(3L).orElseThrow())
+                .extracting(TaskManagement::getStatus, TaskManagement::getDescription, TaskManagement::getVersion)
+                .containsExactly(TaskStatus.COMPLETED, "Done", 2L);
+    }
+
+    @Test
+    void staleItemVersionFailsTheRequestBeforeAnythingIsSaved() {
+        service.updateTasks(request(item(2L, null, "First", null)));
+        resetCounts();
+
+        assertThatThrownBy(() -> service.updateTasks(request(
+                item(1L, TaskStatus.STARTED, null, 1L),
+                item(2L, null, "Stale", 1L))))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(taskRepository.batches.get()).isZero();
+        assertThat(taskRepository.findById(1L).orElseThrow().getVersion()).isEqualTo(1);
+        assertThat(taskRepository.findById(2L).orElseThrow().getDescription()).isEqualTo("First");
+    }
+
+    @Test
+    void onlyItemsThatLostARaceAreSentAgain() {
+        // Another writer changes task 2 between the batch being built and saved
+        taskRepository.beforeNextSaveAll = () -> taskRepository.save(
+                taskRepository.findById(2L).orElseThrow().withDescription("Concurrent"));
+        resetCounts();
+
+        service.updateTasks(request(
+                item(1L, TaskStatus.STARTED, null, null),
+                item(2L, TaskStatus.STARTED, null, null),
+                item(3L, TaskStatus.STARTED, null, null)));
+
+        assertThat(taskRepository.batches.get()).isEqualTo(2);
+        assertThat(taskRepository.lastBatch).extracting(TaskManagement::getId).containsExactly(2L, 3L);
+        assertThat(taskRepository.findById(1L).orElseThrow().getVersion()).isEqualTo(2);
+        // Applied on top of the concurrent write, not over it
+        assertThat(taskRepository.findById(2L).orElseThrow())
+                .extracting(TaskManagement::getStatus, TaskManagement::getDescription, TaskManagement::getVersion)
+                .containsExactly(TaskStatus.STARTED, "Concurrent", 3L);
+        assertThat(taskRepository.findById(3L).orElseThrow().getStatus()).isEqualTo(TaskStatus.STARTED);
+    }
+
+    private void resetCounts() {
+        saveCalls.set(0);
+        taskRepository.batches.set(0);
+    }
+
+    private static UpdateTaskRequest request(UpdateTaskRequest.RequestItem... items) {
+        UpdateTaskRequest request = new UpdateTaskRequest();
+        request.setRequests(List.of(items));
+        return request;
+    }
+
+    private static UpdateTaskRequest.RequestItem item(Long taskId, TaskStatus status, String description, Long version) {
+        UpdateTaskRequest.RequestItem item = new UpdateTaskRequest.RequestItem();
+        item.setTaskId(taskId);
+        item.setTaskStatus(status);
+        item.setDescription(description);
+        item.setVersion(version);
+        return item;
+    }
+
+    // Counts batches, including those that fail, and can run a competing write just before the next one
+    private static final class InterferingTaskRepository extends InMemoryTaskRepository {
+        final AtomicInteger batches = new AtomicInteger();
+        volatile List<TaskManagement> lastBatch;
+        volatile Runnable beforeNextSaveAll;
+
+        @Override
+        public List<TaskManagement> saveAll(List<TaskManagement> tasks) {
+            batches.incrementAndGet();
+            lastBatch = tasks;
+            Runnable interference = beforeNextSaveAll;
+            if (interference != null) {
+                beforeNextSaveAll = null;
+                interference.run();
+            }
+            return super.saveAll(tasks);
+        }
+    }
+}
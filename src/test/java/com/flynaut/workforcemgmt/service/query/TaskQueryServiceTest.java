@@ -0,0 +1,201 @@
+package com.flynaut.workforcemgmt.service.query;
+
+import com.flynaut.workforcemgmt.dto.QueryPlanDto;
+import com.flynaut.workforcemgmt.dto.TaskQueryRequest;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskQueryServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L;
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final TaskBitmapIndex index = new TaskBitmapIndex(taskRepository, new TaskQueryProperties());
+    private final TaskQueryService queryService = new TaskQueryService(taskRepository, index, new TaskQueryProperties());
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void loadTasks() {
+        List<TaskManagement> batch = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Mostly open work, a few cancelled tasks
+            TaskStatus status = i % 50 == 0 ? TaskStatus.CANCELLED : TaskStatus.values()[random.nextInt(3)];
+            batch.add(TaskManagement.builder()
+                    .referenceId(1_000L + random.nextInt(5_000))
+                    .referenceType(ReferenceType.values()[random.nextInt(3)])
+                    .task(Task.values()[random.nextInt(4)])
+                    .status(status)
+                    .priority(random.nextInt(10) == 0 ? null : Priority.values()[random.nextInt(3)])
+                    .assigneeId((long) random.nextInt(200))
+                    .taskDeadlineTime(START + random.nextInt(1_000) * HOUR / 10)
+                    .description("Task " + i)
+                    .build());
+        }
+        // Half before the index starts, half after, so both the initial load and the change hook are covered
+        taskRepository.saveAll(batch.subList(0, 10_000));
+        index.start();
+        taskRepository.saveAll(batch.subList(10_000, batch.size()));
+    }
+
+    @AfterEach
+    void stopIndex() {
+        index.stop();
+    }
+
+    @Test
+    void everyPlanReturnsExactlyTheMatchingTasksPageByPage() {
+        for (int i = 0; i < 300; i++) {
+            TaskQueryRequest request = randomQuery();
+            List<TaskManagement> expected = taskRepository.findAll().stream()
+                    .filter(task -> bruteForceMatch(task, request))
+                    .sorted(Comparator.comparing(TaskManagement::getId))
+                    .toList();
+
+            List<TaskManagement> actual = new ArrayList<>();
+            request.setLimit(1 + random.nextInt(400));
+            String cursor = null;
+            do {
+                request.setCursor(cursor);
+                TaskQueryService.Result result = queryService.query(request);
+                actual.addAll(result.page().getItems());
+                cursor = result.page().getPagination().getNextCursor();
+            } while (cursor != null);
+            assertThat(actual).as("%s", request).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void planStartsFromTheMostSelectiveIndex() {
+        TaskManagement task = taskRepository.findById(15_000L).orElseThrow();
+        TaskQueryRequest byReference = new TaskQueryRequest();
+        byReference.setReferenceId(task.getReferenceId());
+        byReference.setStatuses(EnumSet.of(TaskStatus.ASSIGNED, TaskStatus.STARTED));
+        byReference.setExplain(true);
+        QueryPlanDto plan = queryService.query(byReference).plan();
+        assertThat(plan.getStrategy()).isEqualTo(QueryPlanDto.Strategy.INDEX);
+        assertThat(plan.getPredicates().get(0).getPredicate()).isEqualTo("reference_id = " + task.getReferenceId());
+        assertThat(plan.getPredicates().get(0).getStep()).isEqualTo(QueryPlanDto.Step.DRIVE);
+        assertThat(plan.getExamined()).isLessThan(20);
+
+        TaskQueryRequest cancelledHigh = new TaskQueryRequest();
+        cancelledHigh.setStatuses(EnumSet.of(TaskStatus.CANCELLED));
+        cancelledHigh.setPriorities(EnumSet.of(Priority.HIGH));
+        cancelledHigh.setTask(Task.CREATE_INVOICE);
+        cancelledHigh.setLimit(5);
+        cancelledHigh.setExplain(true);
+        plan = queryService.query(cancelledHigh).plan();
+        assertThat(plan.getStrategy()).isEqualTo(QueryPlanDto.Strategy.BITMAP);
+        assertThat(plan.getPredicates()).extracting(QueryPlanDto.PredicatePlan::getStep)
+                .containsExactly(QueryPlanDto.Step.DRIVE, QueryPlanDto.Step.INTERSECT, QueryPlanDto.Step.INTERSECT);
+        // Every candidate left after the intersection matches, so the page and its look-ahead take one lookup each
+        assertThat(plan.getExamined()).isEqualTo(6);
+
+        // When the candidates fit in a page, the other predicates are checked per task instead
+        cancelledHigh.setLimit(1_000);
+        plan = queryService.query(cancelledHigh).plan();
+        assertThat(plan.getPredicates()).extracting(QueryPlanDto.PredicatePlan::getStep)
+                .containsExactly(QueryPlanDto.Step.DRIVE, QueryPlanDto.Step.RECHECK, QueryPlanDto.Step.RECHECK);
+
+        TaskQueryRequest open = new TaskQueryRequest();
+        open.setStatuses(EnumSet.of(TaskStatus.ASSIGNED, TaskStatus.STARTED, TaskStatus.COMPLETED));
+        open.setExplain(true);
+        plan = queryService.query(open).plan();
+        assertThat(plan.getStrategy()).isEqualTo(QueryPlanDto.Strategy.SCAN);
+        assertThat(plan.getCandidates()).isNull();
+        assertThat(plan.getExamined()).isLessThan(200);
+        assertThat(plan.getTotalTasks()).isEqualTo(taskRepository.count());
+
+        open.setExplain(false);
+        assertThat(queryService.query(open).plan()).isNull();
+    }
+
+    @Test
+    void changesAreVisibleToTheNextQuery() {
+        TaskQueryRequest cancelled = new TaskQueryRequest();
+        cancelled.setStatuses(EnumSet.of(TaskStatus.CANCELLED));
+        cancelled.setAssigneeIds(List.of(7_777L));
+        assertThat(queryService.query(cancelled).page().getItems()).isEmpty();
+
+        TaskManagement task = taskRepository.findById(3L).orElseThrow();
+        TaskManagement saved = taskRepository.save(task.withStatus(TaskStatus.CANCELLED).withAssigneeId(7_777L));
+        assertThat(queryService.query(cancelled).page().getItems()).containsExactly(saved);
+
+        taskRepository.save(saved.withAssigneeId(7_778L));
+        assertThat(queryService.query(cancelled).page().getItems()).isEmpty();
+    }
+
+    private TaskQueryRequest randomQuery() {
+        TaskQueryRequest request = new TaskQueryRequest();
+        if (random.nextInt(3) == 0) {
+            request.setStatuses(randomSubset(TaskStatus.values()));
+        }
+        if (random.nextInt(3) == 0) {
+            request.setPriorities(randomSubset(Priority.values()));
+        }
+        if (random.nextInt(4) == 0) {
+            request.setTask(Task.values()[random.nextInt(4)]);
+        }
+        if (random.nextInt(4) == 0) {
+            request.setReferenceType(ReferenceType.values()[random.nextInt(3)]);
+        }
+        if (random.nextInt(4) == 0) {
+            List<Long> assignees = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(20); i < n; i++) {
+                assignees.add((long) random.nextInt(220));
+            }
+            request.setAssigneeIds(assignees);
+        }
+        if (random.nextInt(6) == 0) {
+            request.setReferenceId(1_000L + random.nextInt(5_000));
+        }
+        if (random.nextInt(3) == 0) {
+            // Bounds off the bucket edges
+            long from = START + random.nextInt(120) * HOUR - 777;
+            request.setDeadlineFrom(random.nextBoolean() ? from : null);
+            request.setDeadlineTo(from + 1 + random.nextInt(30) * HOUR);
+        }
+        return request;
+    }
+
+    @SafeVarargs
+    private <E extends Enum<E>> Set<E> randomSubset(E... values) {
+        Set<E> subset = new HashSet<>();
+        for (E value : values) {
+            if (random.nextBoolean()) {
+                subset.add(value);
+            }
+        }
+        return subset;
+    }
+
+    private static boolean bruteForceMatch(TaskManagement task, TaskQueryRequest request) {
+        Long deadline = task.getTaskDeadlineTime();
+        return (request.getStatuses() == null || request.getStatuses().isEmpty() || request.getStatuses().contains(task.getStatus()))
+                && (request.getPriorities() == null || request.getPriorities().isEmpty()
+                        || request.getPriorities().contains(task.getPriority()))
+                && (request.getTask() == null || request.getTask() == task.getTask())
+                && (request.getReferenceType() == null || request.getReferenceType() == task.getReferenceType())
+                && (request.getAssigneeIds() == null || request.getAssigneeIds().contains(task.getAssigneeId()))
+                && (request.getReferenceId() == null || request.getReferenceId().equals(task.getReferenceId()))
+                && (request.getDeadlineFrom() == null || deadline >= request.getDeadlineFrom())
+                && (request.getDeadlineTo() == null || deadline < request.getDeadlineTo());
+    }
+}
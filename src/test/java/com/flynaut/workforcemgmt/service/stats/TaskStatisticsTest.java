@@ -0,0 +1,135 @@
+package com.flynaut.workforcemgmt.service.stats;
+
+import com.flynaut.workforcemgmt.common.exception.ConflictException;
+import com.flynaut.workforcemgmt.dto.TaskStatisticsDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskStatisticsTest {
+
+    private final InMemoryTaskRepository taskRepository = new InMemoryTaskRepository();
+    private final TaskStatistics statistics = new TaskStatistics(taskRepository, new TaskStatisticsProperties());
+
+    @BeforeEach
+    void startStatistics() {
+        statistics.start();
+    }
+
+    @AfterEach
+    void stopStatistics() {
+        statistics.stop();
+    }
+
+    @Test
+    void countsFollowASaveThatChangesSeveralDimensions() {
+        TaskStatisticsDto seeded = statistics.snapshot(null);
+        assertThat(seeded.getTotal()).isEqualTo(6);
+        assertThat(seeded.getOpen()).isEqualTo(4);
+        assertThat(seeded.getByStatus()).containsEntry(TaskStatus.ASSIGNED, 4L).containsEntry(TaskStatus.COMPLETED, 1L);
+        assertThat(seeded.getOpenByAssignee()).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 1L, 2L, 2L, 3L, 1L));
+
+        // Status, priority and assignee of task 1 change in one save
+        TaskManagement task = taskRepository.findById(1L).orElseThrow();
+        taskRepository.save(task.withStatus(TaskStatus.COMPLETED).withPriority(Priority.LOW).withAssigneeId(3L));
+
+        TaskStatisticsDto changed = statistics.snapshot(List.of(1L, 3L));
+        assertThat(changed.getTotal()).isEqualTo(6);
+        assertThat(changed.getOpen()).isEqualTo(3);
+        assertThat(changed.getByStatus()).containsEntry(TaskStatus.ASSIGNED, 3L).containsEntry(TaskStatus.COMPLETED, 2L);
+        assertThat(changed.getByPriority()).containsEntry(Priority.HIGH, 1L).containsEntry(Priority.LOW, 3L);
+        assertThat(changed.getOpenByAssignee()).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 0L, 3L, 1L));
+    }
+
+    @Test
+    void overdueFollowsDeadlinesAndClosedTasks() {
+        long before = statistics.snapshot(null).getOverdue();
+        TaskManagement late = taskRepository.save(newTask(System.currentTimeMillis() - 60_000));
+        statistics.sweepOverdue();
+        assertThat(statistics.snapshot(null).getOverdue()).isEqualTo(before + 1);
+
+        taskRepository.save(late.withTaskDeadlineTime(System.currentTimeMillis() + 60_000));
+        assertThat(statistics.snapshot(null).getOverdue()).isEqualTo(before);
+
+        TaskManagement stillLate = taskRepository.save(newTask(System.currentTimeMillis() - 60_000));
+        statistics.sweepOverdue();
+        taskRepository.save(stillLate.withStatus(TaskStatus.COMPLETED));
+        assertThat(statistics.snapshot(null).getOverdue()).isEqualTo(before);
+    }
+
+    @Test
+    void dimensionsAddUpToTheTotalWhileTasksChange() throws Exception {
+        List<TaskManagement> created = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            created.add(newTask(System.currentTimeMillis() + 60_000));
+        }
+        taskRepository.saveAll(created);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            futures.add(writers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    TaskManagement task = taskRepository.findById(random.nextLong(1, 207)).orElseThrow();
+                    try {
+                        taskRepository.save(task
+                                .withStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)])
+                                .withPriority(Priority.values()[random.nextInt(Priority.values().length)]));
+                    } catch (ConflictException e) {
+                        // Another writer got there first
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (int read = 0; read < 2_000; read++) {
+            TaskStatisticsDto snapshot = statistics.snapshot(null);
+            assertThat(sum(snapshot.getByStatus())).isEqualTo(snapshot.getTotal());
+            assertThat(sum(snapshot.getByPriority())).isEqualTo(snapshot.getTotal());
+            assertThat(sum(snapshot.getByTask())).isEqualTo(snapshot.getTotal());
+            assertThat(sum(snapshot.getOpenByAssignee())).isEqualTo(snapshot.getOpen());
+        }
+        running.set(false);
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        writers.shutdown();
+        assertThat(statistics.snapshot(null).getTotal()).isEqualTo(206);
+    }
+
+    private static TaskManagement newTask(long deadline) {
+        return TaskManagement.builder()
+                .referenceId(900L)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(9L)
+                .status(TaskStatus.ASSIGNED)
+                .priority(Priority.MEDIUM)
+                .taskDeadlineTime(deadline)
+                .build();
+    }
+
+    private static long sum(Map<?, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,227 @@
+package com.flynaut.workforcemgmt.service.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flynaut.workforcemgmt.common.exception.BadRequestException;
+import com.flynaut.workforcemgmt.common.streaming.NdjsonWriter;
+import com.flynaut.workforcemgmt.dto.TransferRequest;
+import com.flynaut.workforcemgmt.dto.TransferResultDto;
+import com.flynaut.workforcemgmt.model.TaskManagement;
+import com.flynaut.workforcemgmt.model.enums.Priority;
+import com.flynaut.workforcemgmt.model.enums.ReferenceType;
+import com.flynaut.workforcemgmt.model.enums.Task;
+import com.flynaut.workforcemgmt.model.enums.TaskStatus;
+import com.flynaut.workforcemgmt.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskTransferServiceTest {
+
+    private static final String[] DESCRIPTIONS = {
+            "plain", "with, comma", "with \"quotes\"", "two\nlines", "ünïcødé ✓", "", null, "trailing\r\n"
+    };
+
+    @TempDir
+    Path directory;
+
+    private final List<TaskTransferService> services = new ArrayList<>();
+
+    @AfterEach
+    void stopServices() {
+        services.forEach(TaskTransferService::stop);
+    }
+
+    @Test
+    void exportedTasksImportUnchangedAcrossSlices() throws IOException {
+        InMemoryTaskRepository source = new InMemoryTaskRepository();
+        List<TaskManagement> batch = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            batch.add(task(100L + i, DESCRIPTIONS[i % DESCRIPTIONS.length], Priority.values()[i % 3]));
+        }
+        source.saveAll(batch);
+        TaskTransferService exporter = service(source);
+
+        for (String file : List.of("tasks.ndjson", "tasks.csv")) {
+            TransferResultDto exported = exporter.exportTasks(request(file));
+            assertThat(exported.getRecords()).isEqualTo(source.count());
+            assertThat(temporaryFiles()).isEmpty();
+
+            InMemoryTaskRepository target = new InMemoryTaskRepository();
+            long seeded = target.count();
+            TransferResultDto imported = service(target).importTasks(request(file));
+            assertThat(imported.getMalformed()).isZero();
+            assertThat(imported.getRecords()).isEqualTo(source.count());
+            assertThat(target.count()).isEqualTo(seeded + source.count());
+
+            // Ids are new, so compare everything else
+            List<TaskManagement> importedTasks = target.findAll().stream()
+                    .sorted(Comparator.comparing(TaskManagement::getId))
+                    .skip(seeded)
+                    .toList();
+            assertThat(importedTasks).extracting(TaskTransferServiceTest::withoutIdentity)
+                    .containsExactlyInAnyOrderElementsOf(source.findAll().stream()
+                            .map(TaskTransferServiceTest::withoutIdentity).toList());
+        }
+    }
+
+    @Test
+    void csvWithQuotedCommasAndLineBreaksSurvivesSlicesThatStartInsideQuotes() throws IOException {
+        InMemoryTaskRepository source = new InMemoryTaskRepository();
+        List<TaskManagement> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Quoted commas, quotes and line breaks spread over the record, so many slice ends fall inside quotes
+            String description = "Call \"Dock " + i + ", Gate B\",\nthen sign,\r\n\"" + "x,".repeat(i % 23) + "\"\n";
+            batch.add(task(10_000L + i, description, Priority.values()[i % 3]));
+        }
+        source.saveAll(batch);
+        service(source, DataSize.ofBytes(4096)).exportTasks(request("quoted.csv"));
+
+        InMemoryTaskRepository target = new InMemoryTaskRepository();
+        // Smaller than a record, so almost every slice starts inside a quoted description
+        TransferResultDto imported = service(target, DataSize.ofBytes(64)).importTasks(request("quoted.csv"));
+
+        assertThat(imported.getMalformed()).isZero();
+        assertThat(imported.getRecords()).isEqualTo(source.count());
+        Comparator<TaskManagement> byReference = Comparator.comparing(TaskManagement::getReferenceId);
+        List<TaskManagement> expected = source.findAll().stream().filter(task -> task.getReferenceId() >= 10_000L)
+                .sorted(byReference).toList();
+        List<TaskManagement> actual = target.findAll().stream().filter(task -> task.getReferenceId() >= 10_000L)
+                .sorted(byReference).toList();
+        assertThat(actual).hasSameSizeAs(expected).hasSize(batch.size());
+        for (int i = 0; i < expected.size(); i++) {
+            TaskManagement want = expected.get(i);
+            TaskManagement got = actual.get(i);
+            assertThat(got.getReferenceId()).isEqualTo(want.getReferenceId());
+            assertThat(got.getReferenceType()).isEqualTo(want.getReferenceType());
+            assertThat(got.getTask()).isEqualTo(want.getTask());
+            assertThat(got.getDescription()).isEqualTo(want.getDescription());
+            assertThat(got.getStatus()).isEqualTo(want.getStatus());
+            assertThat(got.getAssigneeId()).isEqualTo(want.getAssigneeId());
+            assertThat(got.getPriority()).isEqualTo(want.getPriority());
+            assertThat(got.getTaskDeadlineTime()).isEqualTo(want.getTaskDeadlineTime());
+            assertThat(got.isOverdue()).isEqualTo(want.isOverdue());
+        }
+    }
+
+    @Test
+    void failedExportLeavesTheTargetAndNoTemporaryFileBehind() throws IOException {
+        // A non-empty directory cannot be replaced, so the export fails at the final move
+        Files.createDirectories(directory.resolve("taken.ndjson").resolve("keep"));
+        TaskTransferService service = service(new InMemoryTaskRepository());
+
+        assertThatThrownBy(() -> service.exportTasks(request("taken.ndjson"))).isInstanceOf(IOException.class);
+
+        assertThat(temporaryFiles()).isEmpty();
+        assertThat(directory.resolve("taken.ndjson").resolve("keep")).isDirectory();
+    }
+
+    @Test
+    void malformedRecordsAreReportedByLineAndSkipped() throws IOException {
+        Files.writeString(directory.resolve("broken.csv"), """
+                reference_id,reference_type,task,description,priority
+                1,ORDER,CREATE_INVOICE,"spans
+                two lines",HIGH
+                x,ORDER,CREATE_INVOICE,bad id,LOW
+                2,ORDER,CREATE_INVOICE,,LOW
+
+                3,NOPE,CREATE_INVOICE,bad type,LOW
+                """, StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("broken.ndjson"), """
+                {"reference_id":1,"reference_type":"ORDER","task":"CREATE_INVOICE","description":"ok"}
+                {"reference_id":2,"reference_type":"ORDER"
+                {"reference_type":"ORDER","task":"CREATE_INVOICE"}
+                {"reference_id":3,"reference_type":"ORDER","task":"CREATE_INVOICE","status":"STARTED"}
+                """, StandardCharsets.UTF_8);
+        InMemoryTaskRepository repository = new InMemoryTaskRepository();
+        TaskTransferService service = service(repository);
+
+        TransferResultDto csv = service.importTasks(request("broken.csv"));
+        assertThat(csv.getRecords()).isEqualTo(2);
+        assertThat(csv.getMalformed()).isEqualTo(2);
+        assertThat(csv.getErrors()).hasSize(2);
+        assertThat(csv.getErrors().get(0)).startsWith("line 4: ");
+        assertThat(csv.getErrors().get(1)).startsWith("line 7: ");
+        assertThat(repository.findByReferenceIdAndReferenceType(1L, ReferenceType.ORDER))
+                .extracting(TaskManagement::getDescription).containsExactly("spans\ntwo lines");
+        assertThat(repository.findByReferenceIdAndReferenceType(2L, ReferenceType.ORDER))
+                .extracting(TaskManagement::getDescription).containsOnlyNulls();
+
+        TransferResultDto ndjson = service.importTasks(request("broken.ndjson"));
+        assertThat(ndjson.getRecords()).isEqualTo(2);
+        assertThat(ndjson.getErrors()).hasSize(2);
+        assertThat(ndjson.getErrors().get(0)).startsWith("line 2: ");
+        assertThat(ndjson.getErrors().get(1)).startsWith("line 3: reference_id is missing");
+        assertThat(repository.findByReferenceIdAndReferenceType(3L, ReferenceType.ORDER))
+                .extracting(TaskManagement::getStatus).containsExactly(TaskStatus.STARTED);
+    }
+
+    @Test
+    void filesOutsideTheTransferDirectoryAreRejected() {
+        TaskTransferService service = service(new InMemoryTaskRepository());
+        assertThatThrownBy(() -> service.exportTasks(request("../escape.ndjson"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.importTasks(request("/etc/passwd"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.importTasks(request(""))).isInstanceOf(BadRequestException.class);
+    }
+
+    private TaskTransferService service(InMemoryTaskRepository repository) {
+        // Small slices and chunks, so records cross slice ends and exports have many chunks
+        return service(repository, DataSize.ofBytes(4096));
+    }
+
+    private TaskTransferService service(InMemoryTaskRepository repository, DataSize chunkSize) {
+        TransferProperties properties = new TransferProperties();
+        properties.setDirectory(directory);
+        properties.setChunkSize(chunkSize);
+        properties.setBatchSize(64);
+        properties.setExportChunkTasks(300);
+        properties.setParallelism(4);
+        ObjectMapper objectMapper = new ObjectMapper();
+        TaskTransferService service = new TaskTransferService(repository, objectMapper, new NdjsonWriter(objectMapper),
+                properties);
+        services.add(service);
+        return service;
+    }
+
+    private List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList();
+        }
+    }
+
+    private static TransferRequest request(String file) {
+        TransferRequest request = new TransferRequest();
+        request.setFile(file);
+        return request;
+    }
+
+    private static TaskManagement withoutIdentity(TaskManagement task) {
+        return task.toBuilder().id(null).version(0).build();
+    }
+
+    private static TaskManagement task(Long referenceId, String description, Priority priority) {
+        return TaskManagement.builder()
+                .referenceId(referenceId)
+                .referenceType(ReferenceType.ORDER)
+                .task(Task.CREATE_INVOICE)
+                .assigneeId(referenceId % 7)
+                .status(TaskStatus.values()[(int) (referenceId % TaskStatus.values().length)])
+                .priority(priority)
+                .description(description)
+                .taskDeadlineTime(1_700_000_000_000L + referenceId)
+                .overdue(referenceId % 5 == 0)
+                .build();
+    }
+}